@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Runs one Gatling workload against the packaged app twice, first on Tomcat's platform worker pool
+# and then on virtual threads, and prints throughput and tail latency for both runs side by side.
+#
+# Needs the PostgreSQL database configured in application.properties, curl and jq. The database is
+# rebuilt before each run: Flyway migrates an empty schema to V6, postgres-test-data.sql is loaded and
+# the application runs the later migrations over the seeded rows when it starts. Extra arguments go
+# to the Gatling run, e.g.
+#   SIMULATION=HotAccountSimulation scripts/compare-threading.sh -Dworkload.injection=closed -Dworkload.users=2000
+set -euo pipefail
+
+SIMULATION=${SIMULATION:-MixedWorkloadSimulation}
+TOMCAT_THREADS=${TOMCAT_THREADS:-200}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+
+cd "$(dirname "$0")/.."
+./mvnw -B -q -DskipTests package
+JAR=$(ls target/CompanyLedgerTwo-*.jar | grep -v -- '-plain' | head -1)
+
+APP_PID=
+trap '[ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null || true' EXIT
+
+for MODE in platform virtual; do
+    VIRTUAL=false
+    [ "$MODE" = virtual ] && VIRTUAL=true
+
+    ./mvnw -B -q flyway:clean flyway:migrate sql:execute
+    java -jar "$JAR" \
+        --spring.threads.virtual.enabled="$VIRTUAL" \
+        --server.tomcat.threads.max="$TOMCAT_THREADS" \
+        --logging.level.root=WARN > "target/threading-$MODE.log" 2>&1 &
+    APP_PID=$!
+    until curl -sf "$BASE_URL/actuator/health" > /dev/null; do sleep 1; done
+
+    # A broken SLO fails the Gatling run; the numbers are still wanted for the comparison
+    ./mvnw -B -q gatling:test \
+        -Dgatling.simulationClass="com.companyledgertwo.performance.$SIMULATION" \
+        -Dworkload.baseUrl="$BASE_URL" "$@" || true
+
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+
+    REPORT=$(ls -td target/gatling/*/ | head -1)
+    cp "$REPORT/js/stats.json" "target/threading-$MODE.json"
+done
+
+printf '\n%-10s %12s %10s %10s %10s %8s\n' mode "req/s" "p50 ms" "p95 ms" "p99 ms" errors
+for MODE in platform virtual; do
+    jq -r --arg mode "$MODE" '.stats | [$mode,
+            .meanNumberOfRequestsPerSecond.total, .percentiles1.total, .percentiles3.total,
+            .percentiles4.total, .numberOfRequests.ko] | @tsv' "target/threading-$MODE.json" |
+        awk -F'\t' '{ printf "%-10s %12.1f %10d %10d %10d %8d\n", $1, $2, $3, $4, $5, $6 }'
+done
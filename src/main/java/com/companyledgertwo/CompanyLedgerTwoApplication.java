@@ -2,8 +2,11 @@ package com.companyledgertwo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// JPA stays on JDBC; the R2DBC pool is private to ReactiveTransactionRepository
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class CompanyLedgerTwoApplication {
     public static void main(String[] args) {
         SpringApplication.run(CompanyLedgerTwoApplication.class, args);
@@ -0,0 +1,44 @@
+package com.companyledgertwo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One node holds at most {@code ledger.database.max-connections} database connections. The R2DBC
+ * pool of the reactive reads takes {@code ledger.reactive.pool.max-size} of them and the JDBC pool
+ * gets the rest, so N nodes never open more than N times the budget.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ConnectionBudgetConfig {
+
+    @Bean
+    public static BeanPostProcessor jdbcPoolBudgetPostProcessor(
+            @Value("${ledger.database.max-connections:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConnections,
+            @Value("${ledger.reactive.pool.max-size:2}") int reactivePoolSize) {
+        int jdbcPoolSize = jdbcPoolSize(maxConnections, reactivePoolSize);
+        return new BeanPostProcessor() {
+            // Runs after spring.datasource.hikari.* is bound and before the pool opens its first connection
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    hikari.setMaximumPoolSize(jdbcPoolSize);
+                    if (hikari.getMinimumIdle() > jdbcPoolSize) {
+                        hikari.setMinimumIdle(jdbcPoolSize);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    public static int jdbcPoolSize(int maxConnections, int reactivePoolSize) {
+        if (reactivePoolSize < 1 || reactivePoolSize >= maxConnections) {
+            throw new IllegalArgumentException("ledger.reactive.pool.max-size must be between 1 and "
+                    + (maxConnections - 1) + " to leave the JDBC pool part of ledger.database.max-connections");
+        }
+        return maxConnections - reactivePoolSize;
+    }
+}
@@ -0,0 +1,66 @@
+package com.companyledgertwo.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Settings for the one application-wide {@link ObjectMapper}. Controllers return objects and the
+ * Jackson message converter streams them into the response through Jackson's recycled buffers, so
+ * no intermediate String or byte[] copy of a payload is built.
+ * <p>
+ * The list endpoints also answer {@code Accept: application/cbor} and
+ * {@code application/x-jackson-smile} through mappers with the same settings. In those binary
+ * formats dates are written as epoch days and amounts as integer minor units.
+ */
+@Configuration
+public class JacksonConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer ledgerObjectMapperCustomizer() {
+        return JacksonConfig::configure;
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Builds a mapper with the same settings outside the Spring context, e.g. for tests.
+     */
+    public static ObjectMapper newObjectMapper() {
+        return newObjectMapper(new JsonFactory());
+    }
+
+    /**
+     * Same as {@link #newObjectMapper()} for another format, e.g. a {@link CBORFactory}.
+     */
+    public static ObjectMapper newObjectMapper(JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().factory(factory);
+        configure(builder);
+        return builder.build();
+    }
+
+    private static void configure(Jackson2ObjectMapperBuilder builder) {
+        builder.featuresToDisable(
+                SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                // Leave flushing to the servlet container; a flush per NDJSON row costs a write per row
+                SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+}
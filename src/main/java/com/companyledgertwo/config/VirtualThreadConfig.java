@@ -0,0 +1,42 @@
+package com.companyledgertwo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * With {@code spring.threads.virtual.enabled=true} Tomcat serves every request on its own virtual
+ * thread, so request concurrency is no longer capped by the worker pool. The JDBC pool still is,
+ * and this puts a fair limiter of the same size in front of it unless
+ * {@code ledger.datasource.max-concurrency} says otherwise.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${ledger.datasource.max-concurrency:0}") int configuredConcurrency,
+            @Value("${ledger.database.max-connections:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConnections,
+            @Value("${ledger.reactive.pool.max-size:2}") int reactivePoolSize,
+            @Value("${ledger.datasource.acquire-timeout:PT30S}") Duration acquireTimeout) {
+        int maxConcurrency = configuredConcurrency > 0
+                ? configuredConcurrency
+                : ConnectionBudgetConfig.jdbcPoolSize(maxConnections, reactivePoolSize);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
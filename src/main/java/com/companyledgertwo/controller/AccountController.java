@@ -1,36 +1,48 @@
 package com.companyledgertwo.controller;
 
+import com.companyledgertwo.config.JacksonConfig;
 import com.companyledgertwo.model.Account;
-import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.AccountFilter;
+import com.companyledgertwo.model.AccountPage;
+import com.companyledgertwo.model.AccountView;
+import com.companyledgertwo.model.ErrorResponse;
+import com.companyledgertwo.model.RollupGranularity;
+import com.companyledgertwo.model.TransactionView;
 import com.companyledgertwo.service.AccountService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.companyledgertwo.util.Money;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Collections;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/accounts")
 public class AccountController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AccountController.class);
+    private static final String ACCOUNT_NAME_CONSTRAINT = "uq_accounts_account_name";
     private final AccountService accountService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConditionalRequests conditionalRequests;
 
     @Autowired
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, ConditionalRequests conditionalRequests) {
         this.accountService = accountService;
+        this.conditionalRequests = conditionalRequests;
     }
 
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> createAccount(@RequestBody Account account) {
+    public ResponseEntity<?> createAccount(@RequestBody Account account) {
         LOGGER.info("Request to create an account: {}", account);
 
         if (account.getAccountName() == null || account.getAccountName().isEmpty()) {
@@ -42,86 +54,129 @@ public class AccountController {
         try {
             Account createdAccount = accountService.createAccount(account);
             return jsonSuccessResponse(createdAccount);
+        } catch (DataIntegrityViolationException e) {
+            if (!violatesUniqueAccountName(e)) {
+                LOGGER.error("Account rejected by the database: {}", e.getMostSpecificCause().getMessage());
+                return jsonErrorResponse(HttpStatus.BAD_REQUEST, "Account violates a database constraint");
+            }
+            String errorMessage = "Account name already exists: " + account.getAccountName();
+            LOGGER.error(errorMessage);
+            return jsonErrorResponse(HttpStatus.CONFLICT, errorMessage);
         } catch (RuntimeException e) {
             LOGGER.error("Internal server error while creating account: {}", e.getMessage(), e);
             return jsonErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error");
-        } catch (JsonProcessingException e) {
-            LOGGER.error("Error processing JSON while creating account: {}", e.getMessage(), e);
-            return jsonErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing JSON: " + e.getMessage());
         }
     }
 
+    @GetMapping(value = "/cache/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getCacheStatistics() {
+        return jsonSuccessResponse(accountService.accountCacheStatistics());
+    }
+
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> getAccount(@PathVariable Long id) {
+    public ResponseEntity<?> getAccount(@PathVariable Long id, WebRequest request) {
         LOGGER.info("Request to get account by id: {}", id);
+        if (conditionalRequests.notModified(request, id, "account")) {
+            return null;
+        }
 
-        Account account = accountService.getAccount(id);
+        AccountView account = accountService.getAccount(id);
         if (account == null) {
             String errorMessage = "Account not found";
             LOGGER.error(errorMessage);
             return jsonErrorResponse(HttpStatus.NOT_FOUND, errorMessage);
         }
 
-        try {
-            return jsonSuccessResponse(account);
-        } catch (JsonProcessingException e) {
-            LOGGER.error("Error processing JSON while retrieving account: {}", e.getMessage(), e);
-            return jsonErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing JSON: " + e.getMessage());
-        }
+        return jsonSuccessResponse(account);
     }
 
-    @GetMapping(value = "/{id}/transactions", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> getTransactions(@PathVariable Long id) {
+    @GetMapping(value = "/{id}/transactions",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<?> getTransactions(@PathVariable Long id, WebRequest request) {
         LOGGER.info("Request to get transactions for account id: {}", id);
+        if (conditionalRequests.transactionsNotModified(request, id, "account_transactions")) {
+            return null;
+        }
 
-        List<Transaction> transactions = accountService.listTransactionsForAccount(id);
+        List<TransactionView> transactions = accountService.listTransactionsForAccount(id);
         if (transactions == null || transactions.isEmpty()) {
             String errorMessage = "Transactions not found for account id: " + id;
             LOGGER.error(errorMessage);
             return jsonErrorResponse(HttpStatus.NOT_FOUND, errorMessage);
         }
 
-        try {
-            return jsonSuccessResponse(transactions);
-        } catch (JsonProcessingException e) {
-            String errorMessage = "Error processing JSON: " + e.getMessage();
-            LOGGER.error(errorMessage, e);
-            return jsonErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, errorMessage);
-        }
+        return ResponseEntity.ok(transactions);
     }
 
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> listAllAccounts() {
-        LOGGER.info("Request to list all accounts");
+    @GetMapping(value = "/{id}/summary", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getSummary(@PathVariable Long id,
+                                        @RequestParam(defaultValue = "day") String granularity,
+                                        @RequestParam LocalDate from,
+                                        @RequestParam LocalDate to) {
+        LOGGER.info("Request for {} summary of account id: {} from {} to {}", granularity, id, from, to);
 
-        List<Account> accounts = accountService.listAllAccounts();
+        RollupGranularity rollupGranularity;
         try {
-            return jsonSuccessResponse(accounts);
-        } catch (JsonProcessingException e) {
-            String errorMessage = "Error processing JSON: " + e.getMessage();
-            LOGGER.error(errorMessage, e);
-            return jsonErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, errorMessage);
+            rollupGranularity = RollupGranularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            String errorMessage = "Granularity must be day or month";
+            LOGGER.error(errorMessage);
+            return jsonErrorResponse(HttpStatus.BAD_REQUEST, errorMessage);
+        }
+        if (from.isAfter(to)) {
+            String errorMessage = "from must not be after to";
+            LOGGER.error(errorMessage);
+            return jsonErrorResponse(HttpStatus.BAD_REQUEST, errorMessage);
         }
+        if (accountService.getAccount(id) == null) {
+            String errorMessage = "Account not found";
+            LOGGER.error(errorMessage);
+            return jsonErrorResponse(HttpStatus.NOT_FOUND, errorMessage);
+        }
+
+        return jsonSuccessResponse(accountService.getSummary(id, rollupGranularity, from, to));
     }
 
-    private <T> ResponseEntity<String> jsonSuccessResponse(T object) throws JsonProcessingException {
-        String jsonResponse = objectMapper.writeValueAsString(object);
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<?> listAllAccounts(@RequestParam(required = false) BigDecimal minBalance,
+                                             @RequestParam(required = false) BigDecimal maxBalance,
+                                             @RequestParam(required = false) Boolean active,
+                                             @RequestParam(required = false) String namePrefix,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = TransactionController.DEFAULT_PAGE_SIZE) int limit) {
+        LOGGER.info("Request to list accounts with balance {}..{}, active {}, name prefix {}", minBalance, maxBalance, active, namePrefix);
+
+        // Whole cents only: a bound between two cents is rounded towards the inside of the range
+        AccountFilter filter = new AccountFilter(
+                minBalance == null ? null : Money.ceilMinor(minBalance),
+                maxBalance == null ? null : Money.floorMinor(maxBalance),
+                active,
+                namePrefix);
+        AccountPage page = accountService.listAllAccounts(filter, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(TransactionController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.accounts());
+    }
+
+    // H2 reports the name of the index behind the constraint with its schema and columns around it
+    private static boolean violatesUniqueAccountName(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(ACCOUNT_NAME_CONSTRAINT);
+    }
+
+    // Bodies are written by the shared Jackson converter straight into the response stream
+    private <T> ResponseEntity<T> jsonSuccessResponse(T body) {
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(jsonResponse);
+                .body(body);
     }
 
-    private ResponseEntity<String> jsonErrorResponse(HttpStatus status, String errorMessage) {
-        try {
-            String errorJson = objectMapper.writeValueAsString(Collections.singletonMap("error", errorMessage));
-            return ResponseEntity.status(status)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(errorJson);
-        } catch (JsonProcessingException e) {
-            LOGGER.error("Failed to convert error message to JSON", e);
-            return ResponseEntity.status(status)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"error\":\"Internal server error\"}");
-        }
+    private ResponseEntity<ErrorResponse> jsonErrorResponse(HttpStatus status, String errorMessage) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse(errorMessage));
     }
 }
@@ -0,0 +1,119 @@
+package com.companyledgertwo.controller;
+
+import com.companyledgertwo.config.JacksonConfig;
+import com.companyledgertwo.model.AccountVersion;
+import com.companyledgertwo.service.AccountService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conditional GET for reads that only change with their account. The account version is checked
+ * against the cached account before anything else is queried, so a client whose copy is current
+ * gets {@code 304 Not Modified} without a listing query or a serialised body. An account that does
+ * not exist gets no validators, so its 404 can never be revalidated into a 304. Outcomes are
+ * counted per endpoint as {@code ledger.http.conditional.requests}.
+ * <p>
+ * Transaction listings otherwise always go to the database, and a tag only follows the postings
+ * made on this node. Answering them from the tag is therefore opt-in through
+ * {@code ledger.conditional-requests.transactions.enabled}, for deployments with one writer node.
+ * <p>
+ * A strong ETag names one exact body, so the CBOR and Smile renderings of a version get tags of
+ * their own and responses vary by {@code Accept}.
+ */
+@Component
+public class ConditionalRequests {
+
+    private static final String METRIC = "ledger.http.conditional.requests";
+    // In the order the list endpoints declare them, so ties resolve to the same format
+    private static final List<MediaType> FORMATS = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, MediaType.valueOf(JacksonConfig.APPLICATION_SMILE_VALUE));
+
+    private final AccountService accountService;
+    private final MeterRegistry meterRegistry;
+    private final boolean transactionsEnabled;
+    private final Map<String, Counter[]> counters = new ConcurrentHashMap<>();
+
+    public ConditionalRequests(AccountService accountService, MeterRegistry meterRegistry,
+                               @Value("${ledger.conditional-requests.transactions.enabled:false}") boolean transactionsEnabled) {
+        this.accountService = accountService;
+        this.meterRegistry = meterRegistry;
+        this.transactionsEnabled = transactionsEnabled;
+    }
+
+    /**
+     * {@link #notModified} for an account's transactions, when enabled; otherwise always false
+     * and no validators are sent.
+     */
+    public boolean transactionsNotModified(WebRequest request, Long accountId, String endpoint) {
+        return transactionsEnabled && notModified(request, accountId, endpoint);
+    }
+
+    /**
+     * True when the request's {@code If-None-Match} (or, without it, {@code If-Modified-Since})
+     * still matches the account; the 304 is then already set on the response. Otherwise the
+     * {@code ETag} and {@code Last-Modified} headers are set for the full response, as long as the
+     * account exists.
+     */
+    public boolean notModified(WebRequest request, Long accountId, String endpoint) {
+        // Read before the account, so the tag is never newer than what the response shows
+        AccountVersion version = accountService.accountVersion(accountId);
+        if (accountService.getAccount(accountId) == null) {
+            return false;
+        }
+        if (request instanceof NativeWebRequest nativeRequest
+                && nativeRequest.getNativeResponse() instanceof HttpServletResponse response) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        boolean notModified = request.checkNotModified(etag(version, request.getHeader(HttpHeaders.ACCEPT)),
+                version.lastModified());
+        counters.computeIfAbsent(endpoint, this::register)[notModified ? 0 : 1].increment();
+        return notModified;
+    }
+
+    static String etag(AccountVersion version, String accept) {
+        // Most clients only take JSON; skip parsing their Accept header
+        if (accept == null || (!accept.contains("cbor") && !accept.contains("smile"))) {
+            return version.etag();
+        }
+        MediaType format = negotiatedFormat(accept);
+        if (format == null || format.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return version.etag();
+        }
+        String etag = version.etag();
+        return etag.substring(0, etag.length() - 1) + "-" + format.getSubtype() + "\"";
+    }
+
+    // The format the message converters will pick for this Accept header, as Spring MVC chooses it
+    private static MediaType negotiatedFormat(String accept) {
+        List<MediaType> compatible = new ArrayList<>();
+        for (MediaType acceptable : MediaType.parseMediaTypes(accept)) {
+            for (MediaType format : FORMATS) {
+                if (acceptable.isCompatibleWith(format)) {
+                    compatible.add(format.copyQualityValue(acceptable));
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(compatible);
+        return compatible.isEmpty() ? null : compatible.get(0);
+    }
+
+    private Counter[] register(String endpoint) {
+        return new Counter[]{
+                Counter.builder(METRIC).tag("endpoint", endpoint).tag("outcome", "not_modified").register(meterRegistry),
+                Counter.builder(METRIC).tag("endpoint", endpoint).tag("outcome", "full").register(meterRegistry)
+        };
+    }
+}
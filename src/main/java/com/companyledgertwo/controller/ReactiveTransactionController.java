@@ -0,0 +1,74 @@
+package com.companyledgertwo.controller;
+
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.service.ReactiveTransactionService;
+import com.companyledgertwo.util.Money;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.companyledgertwo.controller.TransactionController.DEFAULT_PAGE_SIZE;
+
+/**
+ * Non-blocking twin of the read endpoints of {@link TransactionController}, with the same
+ * parameters, cursors and status codes. The request thread is handed back to the container
+ * while the query runs, and the response completes once the database has answered.
+ */
+@RestController
+@RequestMapping("/reactive/transactions")
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService reactiveTransactionService;
+
+    public ReactiveTransactionController(ReactiveTransactionService reactiveTransactionService) {
+        this.reactiveTransactionService = reactiveTransactionService;
+    }
+
+    @GetMapping(value = "/account/{accountId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<TransactionView>>> getTransactionsByAccountId(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return reactiveTransactionService.findTransactionsByAccountId(accountId, cursor, limit)
+                .map(TransactionController::pageResponse);
+    }
+
+    // Rows are written as they arrive and requested from the driver only as fast as the client reads
+    @GetMapping(value = "/account/{accountId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TransactionView> exportTransactionsByAccountId(@PathVariable Long accountId) {
+        return reactiveTransactionService.streamTransactionsByAccountId(accountId);
+    }
+
+    @GetMapping(value = "/between", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<TransactionView>>> getTransactionsBetweenDates(
+            @RequestParam LocalDate start, @RequestParam LocalDate end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return reactiveTransactionService.findTransactionsBetweenDates(start, end, cursor, limit)
+                .map(TransactionController::pageResponse);
+    }
+
+    @GetMapping(value = "/greaterThan", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<TransactionView>>> getTransactionsGreaterThan(
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return reactiveTransactionService.findTransactionsGreaterThan(Money.floorMinor(amount), cursor, limit)
+                .map(TransactionController::pageResponse);
+    }
+
+    @GetMapping(value = "/lessThan", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<TransactionView>>> getTransactionsLessThan(
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return reactiveTransactionService.findTransactionsLessThan(Money.ceilMinor(amount), cursor, limit)
+                .map(TransactionController::pageResponse);
+    }
+}
@@ -1,54 +1,104 @@
 package com.companyledgertwo.controller;
 
+import com.companyledgertwo.config.JacksonConfig;
+import com.companyledgertwo.exception.AccountNotFoundException;
+import com.companyledgertwo.model.ErrorResponse;
+import com.companyledgertwo.model.PostingOutcome;
 import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionBatchResult;
+import com.companyledgertwo.model.TransactionFilter;
+import com.companyledgertwo.model.TransactionPage;
+import com.companyledgertwo.model.TransactionSort;
+import com.companyledgertwo.model.TransactionView;
 import com.companyledgertwo.service.TransactionService;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.companyledgertwo.util.Money;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/transactions")
 public class TransactionController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TransactionController.class);
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String DEFAULT_PAGE_SIZE = "100";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final int MAX_SEARCH_ACCOUNT_IDS = 100;
     private final TransactionService transactionService;
     private final ObjectMapper objectMapper;
+    private final ConditionalRequests conditionalRequests;
 
-    public TransactionController(TransactionService transactionService, ObjectMapper objectMapper) {
+    public TransactionController(TransactionService transactionService, ObjectMapper objectMapper,
+                                 ConditionalRequests conditionalRequests) {
         this.transactionService = transactionService;
-        this.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
-        //this.objectMapper = objectMapper;
+        this.objectMapper = objectMapper;
+        this.conditionalRequests = conditionalRequests;
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> createTransaction(@RequestBody Transaction transaction) {
+    public ResponseEntity<?> createTransaction(@RequestBody Transaction transaction,
+                                               @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         LOGGER.info("Request to create transaction: {}", transaction);
 
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                String errorMessage = "Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters";
+                LOGGER.error(errorMessage);
+                return jsonErrorResponse(HttpStatus.BAD_REQUEST, errorMessage);
+            }
+            // A retry answered from memory skips validation and the database entirely; with the
+            // journal the retry is given its first receipt by acceptTransaction instead
+            Transaction previous = transactionService.isJournalEnabled() ? null : transactionService.findPostedTransaction(idempotencyKey);
+            if (previous != null) {
+                LOGGER.info("Replaying transaction {} for Idempotency-Key {}", previous.getId(), idempotencyKey);
+                return jsonSuccessResponse(previous);
+            }
+        }
+
         if (transaction.getAccountId() == null) {
             String errorMessage = "Account ID cannot be null";
             LOGGER.error(errorMessage);
             return jsonErrorResponse(HttpStatus.BAD_REQUEST, errorMessage);
         }
 
-        if (transaction.getAmount() <= 0 || transaction.getDate() == null) {
+        if (transaction.getAmountMinor() == null || transaction.getAmountMinor() <= 0 || transaction.getDate() == null) {
             String errorMessage = "Invalid transaction data";
             LOGGER.error(errorMessage);
             return jsonErrorResponse(HttpStatus.BAD_REQUEST, errorMessage);
         }
 
         try {
-            Transaction createdTransaction = transactionService.createTransaction(transaction);
+            if (transactionService.isJournalEnabled()) {
+                // Durable in the journal now; the projector applies it to the database shortly after
+                return ResponseEntity.accepted()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(transactionService.acceptTransaction(transaction, idempotencyKey));
+            }
+            Transaction createdTransaction = idempotencyKey == null
+                    ? transactionService.createTransaction(transaction)
+                    : transactionService.createTransaction(transaction, idempotencyKey);
             return jsonSuccessResponse(createdTransaction);
+        } catch (AccountNotFoundException e) {
+            LOGGER.error(e.getMessage());
+            return jsonErrorResponse(HttpStatus.NOT_FOUND, e.getMessage());
         } catch (Exception e) {
             String errorMessage = "Internal server error: " + e.getMessage();
             LOGGER.error(errorMessage, e);
@@ -56,61 +106,154 @@ public class TransactionController {
         }
     }
 
-    private <T> ResponseEntity<String> jsonSuccessResponse(T object) throws JsonProcessingException {
-        String jsonResponse = objectMapper.writeValueAsString(object);
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createTransactions(InputStream body) {
+        LOGGER.info("Request to create a batch of transactions");
+
+        // A JSON array and newline-delimited JSON both read as a sequence of root values here,
+        // so rows are bound one at a time instead of materialising the whole payload.
+        try (MappingIterator<Transaction> transactions = objectMapper.readerFor(Transaction.class).readValues(body)) {
+            List<TransactionBatchResult> results = transactionService.createTransactions(transactions);
+            LOGGER.info("Processed batch of {} transactions", results.size());
+            return jsonSuccessResponse(results);
+        } catch (IOException e) {
+            String errorMessage = "Error reading transaction batch: " + e.getMessage();
+            LOGGER.error(errorMessage, e);
+            return jsonErrorResponse(HttpStatus.BAD_REQUEST, errorMessage);
+        }
+    }
+
+    @GetMapping(value = "/receipts/{sequence}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getPostingOutcome(@PathVariable long sequence) {
+        PostingOutcome outcome = transactionService.isJournalEnabled() ? transactionService.findPostingOutcome(sequence) : null;
+        if (outcome == null) {
+            return jsonErrorResponse(HttpStatus.NOT_FOUND, "No journaled posting with sequence " + sequence);
+        }
+        return jsonSuccessResponse(outcome);
+    }
+
+    // Bodies are written by the shared Jackson converter straight into the response stream
+    private <T> ResponseEntity<T> jsonSuccessResponse(T body) {
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(jsonResponse);
+                .body(body);
     }
 
-    private ResponseEntity<String> jsonErrorResponse(HttpStatus status, String errorMessage) {
-        try {
-            String errorJson = objectMapper.writeValueAsString(Collections.singletonMap("error", errorMessage));
-            return ResponseEntity.status(status)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(errorJson);
-        } catch (JsonProcessingException e) {
-            LOGGER.error("Failed to convert error message to JSON", e);
-            return ResponseEntity.status(status)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body("{\"error\":\"Internal server error\"}");
-        }
+    private ResponseEntity<ErrorResponse> jsonErrorResponse(HttpStatus status, String errorMessage) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse(errorMessage));
     }
 
-    @GetMapping(value = "/account/{accountId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Transaction>> getTransactionsByAccountId(@PathVariable Long accountId) {
-        List<Transaction> transactions = transactionService.findTransactionsByAccountId(accountId);
-        if (transactions.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(transactions);
+    @GetMapping(value = "/account/{accountId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<TransactionView>> getTransactionsByAccountId(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request) {
+        if (conditionalRequests.transactionsNotModified(request, accountId, "transactions_by_account")) {
+            return null;
         }
-        return ResponseEntity.ok(transactions);
+        return pageResponse(transactionService.findTransactionsByAccountId(accountId, cursor, limit));
     }
 
-    @GetMapping(value = "/between", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Transaction>> getTransactionsBetweenDates(
-            @RequestParam LocalDate start, @RequestParam LocalDate end) {
-        List<Transaction> transactions = transactionService.findTransactionsBetweenDates(start, end);
-        if (transactions.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(transactions);
+    @GetMapping(value = "/account/{accountId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportTransactionsByAccountId(@PathVariable Long accountId, HttpServletResponse response) throws IOException {
+        LOGGER.info("Request to export transactions for account id: {}", accountId);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream())) {
+            long exported = transactionService.exportTransactionsByAccountId(accountId, transaction -> {
+                try {
+                    writer.write(transaction);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            LOGGER.info("Exported {} transactions for account id: {}", exported, accountId);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        return ResponseEntity.ok(transactions);
     }
 
-    @GetMapping(value = "/greaterThan", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Transaction>> getTransactionsGreaterThan(@RequestParam double amount) {
-        List<Transaction> transactions = transactionService.findTransactionsGreaterThan(amount);
-        if (transactions.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(transactions);
+    @GetMapping(value = "/between",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<TransactionView>> getTransactionsBetweenDates(
+            @RequestParam LocalDate start, @RequestParam LocalDate end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return pageResponse(transactionService.findTransactionsBetweenDates(start, end, cursor, limit));
+    }
+
+    @GetMapping(value = "/greaterThan",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<TransactionView>> getTransactionsGreaterThan(
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return pageResponse(transactionService.findTransactionsGreaterThan(Money.floorMinor(amount), cursor, limit));
+    }
+
+    @GetMapping(value = "/lessThan",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<TransactionView>> getTransactionsLessThan(
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return pageResponse(transactionService.findTransactionsLessThan(Money.ceilMinor(amount), cursor, limit));
+    }
+
+    @GetMapping(value = "/search",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<?> searchTransactions(
+            @RequestParam(name = "accountId", required = false) List<Long> accountIds,
+            @RequestParam(required = false) LocalDate start,
+            @RequestParam(required = false) LocalDate end,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(defaultValue = "date") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        LOGGER.info("Request to search transactions of accounts {} dated {}..{} with amount {}..{} by {} {}",
+                accountIds, start, end, minAmount, maxAmount, sort, direction);
+
+        TransactionSort transactionSort;
+        try {
+            transactionSort = TransactionSort.valueOf((sort + "_" + direction).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return jsonErrorResponse(HttpStatus.BAD_REQUEST, "Sort must be date or amount and direction asc or desc");
+        }
+        if (accountIds != null && accountIds.size() > MAX_SEARCH_ACCOUNT_IDS) {
+            return jsonErrorResponse(HttpStatus.BAD_REQUEST, "At most " + MAX_SEARCH_ACCOUNT_IDS + " account ids can be searched at once");
+        }
+        if (start != null && end != null && start.isAfter(end)) {
+            return jsonErrorResponse(HttpStatus.BAD_REQUEST, "start must not be after end");
         }
-        return ResponseEntity.ok(transactions);
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            return jsonErrorResponse(HttpStatus.BAD_REQUEST, "minAmount must not be above maxAmount");
+        }
+
+        // Whole cents only: a bound between two cents is rounded towards the inside of the range
+        TransactionFilter filter = new TransactionFilter(accountIds, start, end,
+                minAmount == null ? null : Money.ceilMinor(minAmount),
+                maxAmount == null ? null : Money.floorMinor(maxAmount));
+        return pageResponse(transactionService.searchTransactions(filter, transactionSort, cursor, limit));
     }
 
-    @GetMapping(value = "/lessThan", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Transaction>> getTransactionsLessThan(@RequestParam double amount) {
-        List<Transaction> transactions = transactionService.findTransactionsLessThan(amount);
-        if (transactions.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(transactions);
+    static ResponseEntity<List<TransactionView>> pageResponse(TransactionPage page) {
+        if (page.transactions().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(page.transactions());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
         }
-        return ResponseEntity.ok(transactions);
+        return response.body(page.transactions());
     }
 }
@@ -0,0 +1,8 @@
+package com.companyledgertwo.exception;
+
+public class AccountNotFoundException extends RuntimeException {
+
+    public AccountNotFoundException(Long accountId) {
+        super("Account not found: " + accountId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.companyledgertwo.exception;
+
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String cursor) {
+        super("Invalid pagination cursor: " + cursor);
+    }
+}
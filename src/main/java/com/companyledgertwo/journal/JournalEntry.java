@@ -0,0 +1,21 @@
+package com.companyledgertwo.journal;
+
+import com.companyledgertwo.model.Transaction;
+
+import java.time.LocalDate;
+
+/**
+ * One posting as recorded in the journal. The sequence is assigned on append and increases by
+ * one per entry across all segments.
+ */
+public record JournalEntry(long sequence, long accountId, LocalDate date, long amountMinor, String idempotencyKey) {
+
+    public Transaction toTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setAccountId(accountId);
+        transaction.setDate(date);
+        transaction.setAmountMinor(amountMinor);
+        transaction.setIdempotencyKey(idempotencyKey);
+        return transaction;
+    }
+}
@@ -0,0 +1,250 @@
+package com.companyledgertwo.journal;
+
+import com.companyledgertwo.exception.AccountNotFoundException;
+import com.companyledgertwo.model.JournalCheckpoint;
+import com.companyledgertwo.model.JournalRejection;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.repository.JournalCheckpointRepository;
+import com.companyledgertwo.repository.JournalRejectionRepository;
+import com.companyledgertwo.service.AccountCache;
+import com.companyledgertwo.service.IdempotencyCache;
+import com.companyledgertwo.service.PostingEngine;
+import com.companyledgertwo.service.TransactionIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Applies journaled postings to the database in sequence order. Each batch goes through
+ * {@link PostingEngine#postBatch(List, Runnable)} together with the checkpoint update, so the
+ * checkpoint always names the last entry whose posting has committed. On startup everything the
+ * previous run journaled after that checkpoint is replayed before new entries are picked up.
+ * <p>
+ * An entry that is refused for good, such as a repeated Idempotency-Key, an account that no longer
+ * exists or a balance that would overflow, is recorded in {@code journal_rejections}, counted and
+ * stepped over. Any other failure stops the projector where it is until the database accepts the entry.
+ */
+@Component
+public class JournalProjector {
+
+    static final String CHECKPOINT = "postings";
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournalProjector.class);
+    private static final long RETRY_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final PostingJournal journal;
+    private final PostingEngine postingEngine;
+    private final JournalCheckpointRepository checkpoints;
+    private final JournalRejectionRepository rejections;
+    private final TransactionIndex transactionIndex;
+    private final IdempotencyCache idempotencyCache;
+    private final AccountCache accountCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final Counter rejectedEntries;
+
+    private volatile long projectedSequence;
+    private volatile boolean running;
+    private PostingJournal.Cursor cursor;
+    private Thread projector;
+
+    public JournalProjector(PostingJournal journal,
+                            PostingEngine postingEngine,
+                            JournalCheckpointRepository checkpoints,
+                            JournalRejectionRepository rejections,
+                            TransactionIndex transactionIndex,
+                            IdempotencyCache idempotencyCache,
+                            AccountCache accountCache,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${ledger.journal.projector.batch-size:500}") int batchSize,
+                            @Value("${ledger.journal.projector.poll-interval:PT0.005S}") Duration pollInterval) {
+        this.journal = journal;
+        this.postingEngine = postingEngine;
+        this.checkpoints = checkpoints;
+        this.rejections = rejections;
+        this.transactionIndex = transactionIndex;
+        this.idempotencyCache = idempotencyCache;
+        this.accountCache = accountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.rejectedEntries = Counter.builder("ledger.journal.projection.rejected")
+                .description("Journal entries the database refused and the projector stepped over")
+                .register(meterRegistry);
+        Gauge.builder("ledger.journal.projection.lag", this, projector -> journal.lastSequence() - projector.projectedSequence)
+                .description("Journaled postings not yet applied to the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        projectedSequence = checkpoints.findById(CHECKPOINT).map(JournalCheckpoint::getSequence).orElse(0L);
+        cursor = journal.cursorAfter(projectedSequence);
+        // Catch up on what the previous run accepted before anything new is taken
+        long replayed = 0;
+        long startedAt = System.nanoTime();
+        try {
+            for (int applied = projectNextBatch(); applied > 0; applied = projectNextBatch()) {
+                replayed += applied;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Journal replay stopped at sequence {}, retrying in the background: {}", projectedSequence, e.getMessage());
+        }
+        LOGGER.info("Journal replay applied {} entries up to sequence {} in {} ms", replayed, projectedSequence,
+                (System.nanoTime() - startedAt) / 1_000_000);
+
+        running = true;
+        projector = new Thread(this::run, "journal-projector");
+        projector.setDaemon(true);
+        projector.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (projector == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(projector);
+        projector.join();
+    }
+
+    public long projectedSequence() {
+        return projectedSequence;
+    }
+
+    /**
+     * Applies the next batch of entries and returns how many there were.
+     */
+    int projectNextBatch() {
+        List<JournalEntry> entries = cursor.next(batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        try {
+            apply(entries);
+        } catch (RuntimeException e) {
+            // Resume right after the last committed entry next time
+            cursor = journal.cursorAfter(projectedSequence);
+            throw e;
+        }
+        journal.deleteSegmentsUpTo(projectedSequence);
+        return entries.size();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (projectNextBatch() == 0) {
+                    LockSupport.parkNanos(this, pollIntervalNanos);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Journal projection failed at sequence {}: {}", projectedSequence + 1, e.getMessage(), e);
+                LockSupport.parkNanos(this, RETRY_PARK_NANOS);
+            }
+        }
+    }
+
+    private void apply(List<JournalEntry> entries) {
+        List<Transaction> transactions = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            transactions.add(entry.toTransaction());
+        }
+        long through = entries.get(entries.size() - 1).sequence();
+        try {
+            List<Transaction> posted = postingEngine.postBatch(transactions, () -> saveCheckpoint(through));
+            projectedSequence = through;
+            projected(posted);
+        } catch (RuntimeException e) {
+            if (!isRefused(e)) {
+                throw e;
+            }
+            // Apply the entries one at a time so only the refused ones are left out
+            for (JournalEntry entry : entries) {
+                applyOne(entry);
+            }
+        }
+    }
+
+    private void applyOne(JournalEntry entry) {
+        List<Transaction> posted;
+        try {
+            posted = postingEngine.postBatch(List.of(entry.toTransaction()), () -> saveCheckpoint(entry.sequence()));
+        } catch (RuntimeException e) {
+            if (!isRefused(e)) {
+                throw e;
+            }
+            String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            transactionTemplate.executeWithoutResult(status -> {
+                rejections.save(new JournalRejection(entry.sequence(), entry.accountId(), String.valueOf(reason)));
+                saveCheckpoint(entry.sequence());
+            });
+            projectedSequence = entry.sequence();
+            rejectedEntries.increment();
+            LOGGER.warn("Skipped journal entry {} for account {}: {}", entry.sequence(), entry.accountId(), e.getMessage());
+            return;
+        }
+        projectedSequence = entry.sequence();
+        projected(posted);
+    }
+
+    private void projected(List<Transaction> posted) {
+        transactionIndex.addAll(posted);
+        boolean servesReads = transactionIndex.servesReads();
+        List<Long> accountIds = servesReads ? new ArrayList<>(posted.size()) : List.of();
+        for (Transaction transaction : posted) {
+            if (transaction.getIdempotencyKey() != null) {
+                idempotencyCache.put(transaction.getIdempotencyKey(), transaction);
+            }
+            if (servesReads) {
+                accountIds.add(transaction.getAccountId());
+            }
+        }
+        if (servesReads) {
+            // The posting engine retired these versions before the index had the postings
+            accountCache.invalidateVersions(accountIds);
+        }
+    }
+
+    private void saveCheckpoint(long sequence) {
+        checkpoints.save(new JournalCheckpoint(CHECKPOINT, sequence));
+    }
+
+    // Missing accounts, Money overflow, data exceptions such as an out-of-range balance (SQLSTATE
+    // class 22) and integrity violations (class 23) fail the same way on every retry
+    private static boolean isRefused(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AccountNotFoundException || cause instanceof DataIntegrityViolationException
+                    || cause instanceof ArithmeticException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && (sqlException.getSQLState().startsWith("22") || sqlException.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,174 @@
+package com.companyledgertwo.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * One pre-allocated, memory-mapped journal file. Records are laid out back to back as
+ * {@code [payload length][crc32c][payload]} and a zero length marks the end. Opening a segment
+ * scans it and stops at the first record that is cut short, fails its checksum or breaks the
+ * sequence, so a write torn by a crash is dropped and overwritten by the next append.
+ * <p>
+ * All buffer access is absolute, so readers can work on the mapping while the single appender
+ * writes past {@link #limit}, which is only moved once a record is complete.
+ */
+final class JournalSegment {
+
+    static final String SUFFIX = ".journal";
+    private static final int HEADER_BYTES = 8;
+    // sequence, account id, epoch day, amount, key length
+    private static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 4 + 8 + 2;
+
+    private final Path path;
+    private final long firstSequence;
+    private final MappedByteBuffer buffer;
+    private volatile int limit;
+    private volatile long lastSequence;
+
+    private JournalSegment(Path path, long firstSequence, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    static JournalSegment open(Path path, long firstSequence, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // An existing file keeps the size it was created with; the mapping outlives the channel
+            long length = channel.size() > 0 ? channel.size() : size;
+            JournalSegment segment = new JournalSegment(path, firstSequence,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, length));
+            segment.recover();
+            return segment;
+        }
+    }
+
+    static String fileName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SUFFIX);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Writes the record after the last one and returns its offset, or -1 when it does not fit.
+     */
+    int append(long sequence, long accountId, int epochDay, long amountMinor, byte[] idempotencyKey) {
+        int payloadLength = FIXED_PAYLOAD_BYTES + (idempotencyKey == null ? 0 : idempotencyKey.length);
+        int position = limit;
+        int end = position + HEADER_BYTES + payloadLength;
+        if (end > buffer.capacity()) {
+            return -1;
+        }
+        int payload = position + HEADER_BYTES;
+        buffer.putLong(payload, sequence);
+        buffer.putLong(payload + 8, accountId);
+        buffer.putInt(payload + 16, epochDay);
+        buffer.putLong(payload + 20, amountMinor);
+        if (idempotencyKey == null) {
+            buffer.putShort(payload + 28, (short) -1);
+        } else {
+            buffer.putShort(payload + 28, (short) idempotencyKey.length);
+            buffer.put(payload + FIXED_PAYLOAD_BYTES, idempotencyKey);
+        }
+        buffer.putInt(position + 4, checksum(payload, payloadLength));
+        buffer.putInt(position, payloadLength);
+        // Terminate the log explicitly, in case bytes of a torn record are still lying past this one
+        if (end + 4 <= buffer.capacity()) {
+            buffer.putInt(end, 0);
+        }
+        lastSequence = sequence;
+        limit = end;
+        return position;
+    }
+
+    void force(int from) {
+        int to = Math.min(limit + 4, buffer.capacity());
+        buffer.force(from, to - from);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Decodes up to {@code max} complete records starting at {@code position} into {@code out}
+     * and returns the offset after the last one read.
+     */
+    int read(int position, List<JournalEntry> out, int max) {
+        int end = limit;
+        int read = 0;
+        while (position < end && read < max) {
+            int payloadLength = buffer.getInt(position);
+            out.add(decode(position + HEADER_BYTES, payloadLength));
+            position += HEADER_BYTES + payloadLength;
+            read++;
+        }
+        return position;
+    }
+
+    /**
+     * Offset of the first record with a sequence above the given one.
+     */
+    int positionAfter(long sequence) {
+        int position = 0;
+        int end = limit;
+        while (position < end && buffer.getLong(position + HEADER_BYTES) <= sequence) {
+            position += HEADER_BYTES + buffer.getInt(position);
+        }
+        return position;
+    }
+
+    private void recover() {
+        int position = 0;
+        long expected = firstSequence;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int payloadLength = buffer.getInt(position);
+            int payload = position + HEADER_BYTES;
+            if (payloadLength < FIXED_PAYLOAD_BYTES || payloadLength > buffer.capacity() - payload
+                    || buffer.getInt(position + 4) != checksum(payload, payloadLength)
+                    || buffer.getLong(payload) != expected) {
+                break;
+            }
+            position = payload + payloadLength;
+            expected++;
+        }
+        limit = position;
+        lastSequence = expected - 1;
+    }
+
+    private JournalEntry decode(int payload, int payloadLength) {
+        short keyLength = buffer.getShort(payload + 28);
+        String idempotencyKey = null;
+        if (keyLength >= 0) {
+            byte[] key = new byte[keyLength];
+            buffer.get(payload + FIXED_PAYLOAD_BYTES, key);
+            idempotencyKey = new String(key, StandardCharsets.UTF_8);
+        }
+        return new JournalEntry(buffer.getLong(payload), buffer.getLong(payload + 8),
+                LocalDate.ofEpochDay(buffer.getInt(payload + 16)), buffer.getLong(payload + 20), idempotencyKey);
+    }
+
+    private int checksum(int payload, int payloadLength) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(payload, payloadLength));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,274 @@
+package com.companyledgertwo.journal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Opt-in write-ahead log of postings. Each accepted posting is appended to the active
+ * memory-mapped segment under a global sequence; a new segment is started when the active one
+ * is full, and segments are named after their first sequence. With {@code force-on-append} the
+ * written range is flushed to disk before {@link #append} returns, otherwise the page cache
+ * carries it and only a process crash, not a power loss, is survived.
+ * <p>
+ * An Idempotency-Key is journaled once: appending it again returns the entry it was first
+ * journaled with. The keys of every entry still on disk are read back when the journal opens.
+ * <p>
+ * {@link JournalProjector} reads the log through a {@link Cursor} and deletes segments once
+ * everything in them has been applied to the database.
+ */
+@Component
+public class PostingJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostingJournal.class);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+    private final Timer appendTimer;
+    private final Cache<String, JournalEntry> entriesByKey;
+
+    private final ConcurrentNavigableMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    // Not a monitor: appends block in force(), which would pin a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private JournalSegment active;
+    private volatile long lastSequence;
+
+    public PostingJournal(MeterRegistry meterRegistry,
+                          @Value("${ledger.journal.enabled:false}") boolean enabled,
+                          @Value("${ledger.journal.directory:journal}") Path directory,
+                          @Value("${ledger.journal.segment-size:64MB}") DataSize segmentSize,
+                          @Value("${ledger.journal.force-on-append:true}") boolean forceOnAppend,
+                          @Value("${ledger.idempotency.maximum-size:100000}") long maximumKeys,
+                          @Value("${ledger.idempotency.expire-after-write:PT24H}") Duration keyExpiry) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.forceOnAppend = forceOnAppend;
+        this.appendTimer = Timer.builder("ledger.journal.append")
+                .description("Time to append and, if configured, force one posting to the journal")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.entriesByKey = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterWrite(keyExpiry)
+                .build();
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            openSegments();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void openSegments() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(JournalSegment.SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long firstSequence = Long.parseLong(name.substring(0, name.length() - JournalSegment.SUFFIX.length()));
+            JournalSegment segment = JournalSegment.open(file, firstSequence, segmentSize);
+            segments.put(firstSequence, segment);
+            active = segment;
+        }
+        if (active == null) {
+            roll(1);
+        }
+        lastSequence = active.lastSequence();
+        rememberKeys();
+        LOGGER.info("Journal opened in {} with {} segment(s) up to sequence {}", directory, segments.size(), lastSequence);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * The entry this Idempotency-Key was journaled with, if the journal still remembers it, else null.
+     */
+    public JournalEntry findByKey(String idempotencyKey) {
+        return entriesByKey.getIfPresent(idempotencyKey);
+    }
+
+    /**
+     * Appends the posting, or returns the entry an earlier append with the same Idempotency-Key
+     * was given.
+     */
+    public JournalEntry append(long accountId, LocalDate date, long amountMinor, String idempotencyKey) {
+        if (!enabled) {
+            throw new IllegalStateException("Journal is not enabled");
+        }
+        byte[] key = idempotencyKey == null ? null : idempotencyKey.getBytes(StandardCharsets.UTF_8);
+        int epochDay = Math.toIntExact(date.toEpochDay());
+        long startedAt = System.nanoTime();
+        long sequence;
+        JournalEntry entry;
+        lock.lock();
+        try {
+            if (idempotencyKey != null) {
+                JournalEntry previous = entriesByKey.getIfPresent(idempotencyKey);
+                if (previous != null) {
+                    return previous;
+                }
+            }
+            sequence = lastSequence + 1;
+            int position = active.append(sequence, accountId, epochDay, amountMinor, key);
+            if (position < 0) {
+                // Seal the full segment before any entry lands in the next one
+                active.force();
+                roll(sequence);
+                position = active.append(sequence, accountId, epochDay, amountMinor, key);
+                if (position < 0) {
+                    throw new IllegalStateException("Journal entry does not fit in an empty segment");
+                }
+            }
+            if (forceOnAppend) {
+                active.force(position);
+            }
+            lastSequence = sequence;
+            entry = new JournalEntry(sequence, accountId, date, amountMinor, idempotencyKey);
+            if (idempotencyKey != null) {
+                entriesByKey.put(idempotencyKey, entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        appendTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return entry;
+    }
+
+    /**
+     * Cursor positioned on the first entry after {@code sequence}.
+     */
+    public Cursor cursorAfter(long sequence) {
+        Map.Entry<Long, JournalSegment> floor = segments.floorEntry(sequence + 1);
+        JournalSegment segment = floor != null ? floor.getValue() : segments.firstEntry().getValue();
+        return new Cursor(segment, segment.positionAfter(sequence));
+    }
+
+    /**
+     * Deletes every segment but the active one whose entries are all at or below {@code sequence}.
+     * The mappings themselves are released when their buffers are garbage collected.
+     */
+    public int deleteSegmentsUpTo(long sequence) {
+        lock.lock();
+        try {
+            int deleted = 0;
+            for (JournalSegment segment : new ArrayList<>(segments.values())) {
+                if (segment == active || segment.lastSequence() > sequence) {
+                    break;
+                }
+                segments.remove(segment.firstSequence());
+                try {
+                    Files.deleteIfExists(segment.path());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                deleted++;
+            }
+            return deleted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            segments.values().forEach(JournalSegment::force);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Segments still on disk hold at least every entry the projector has not applied yet
+    private void rememberKeys() {
+        Cursor cursor = cursorAfter(0);
+        for (List<JournalEntry> entries = cursor.next(1_000); !entries.isEmpty(); entries = cursor.next(1_000)) {
+            for (JournalEntry entry : entries) {
+                if (entry.idempotencyKey() != null) {
+                    entriesByKey.put(entry.idempotencyKey(), entry);
+                }
+            }
+        }
+    }
+
+    private void roll(long firstSequence) {
+        Path file = directory.resolve(JournalSegment.fileName(firstSequence));
+        try {
+            active = JournalSegment.open(file, firstSequence, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.put(firstSequence, active);
+    }
+
+    /**
+     * Single-reader position in the journal that follows it across segment boundaries.
+     */
+    public final class Cursor {
+        private JournalSegment segment;
+        private int position;
+
+        private Cursor(JournalSegment segment, int position) {
+            this.segment = segment;
+            this.position = position;
+        }
+
+        public List<JournalEntry> next(int max) {
+            List<JournalEntry> entries = new ArrayList<>();
+            while (true) {
+                // Look for the next segment first: once it exists, nothing more is written to this one
+                Map.Entry<Long, JournalSegment> next = segments.higherEntry(segment.firstSequence());
+                position = segment.read(position, entries, max);
+                if (!entries.isEmpty() || next == null) {
+                    return entries;
+                }
+                segment = next.getValue();
+                position = 0;
+            }
+        }
+    }
+}
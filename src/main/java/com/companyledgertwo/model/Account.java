@@ -1,12 +1,24 @@
 package com.companyledgertwo.model;
 
+import com.companyledgertwo.util.Money;
+import com.companyledgertwo.util.MoneyDeserializer;
+import com.companyledgertwo.util.MoneySerializer;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts",
+        uniqueConstraints = @UniqueConstraint(name = "uq_accounts_account_name", columnNames = "account_name"),
+        indexes = @Index(name = "idx_accounts_is_active_id", columnList = "is_active, id"))
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE)
 public class Account {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -15,9 +27,12 @@ public class Account {
     @NotBlank(message = "Account name cannot be empty")
     private String accountName;
 
+    // Minor units (cents); the JSON wire format stays a decimal amount
     @NotNull(message = "Balance cannot be null")
     @Min(value = 0, message = "Balance cannot be negative")
-    private Double balance;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private Long balance;
 
     @NotNull(message = "Active status cannot be null")
     private Boolean isActive; // Add this line
@@ -27,7 +42,7 @@ public class Account {
 
     public Account(String accountName, Double balance, Boolean isActive) {
         this.accountName = accountName;
-        this.balance = balance;
+        this.balance = Money.toMinor(balance);
         this.isActive = isActive;
     }
 
@@ -48,12 +63,20 @@ public class Account {
         this.accountName = accountName;
     }
 
-    public Double getBalance() {
+    public Long getBalanceMinor() {
         return balance;
     }
 
+    public void setBalanceMinor(Long balanceMinor) {
+        this.balance = balanceMinor;
+    }
+
+    public Double getBalance() {
+        return Money.toMajor(balance);
+    }
+
     public void setBalance(Double balance) {
-        this.balance = balance;
+        this.balance = Money.toMinor(balance);
     }
 
     public Boolean getIsActive() {
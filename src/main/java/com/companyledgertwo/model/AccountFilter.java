@@ -0,0 +1,10 @@
+package com.companyledgertwo.model;
+
+/**
+ * Optional conditions of an account listing; a null field does not filter. Balances are in minor
+ * units and both bounds are inclusive.
+ */
+public record AccountFilter(Long minBalance, Long maxBalance, Boolean isActive, String namePrefix) {
+
+    public static final AccountFilter NONE = new AccountFilter(null, null, null, null);
+}
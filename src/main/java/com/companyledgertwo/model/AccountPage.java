@@ -0,0 +1,23 @@
+package com.companyledgertwo.model;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record AccountPage(List<AccountView> accounts, String nextCursor) {
+
+    /**
+     * Builds a page from up to {@code pageSize + 1} rows. The extra row only signals that another
+     * page exists, which avoids a count query.
+     */
+    public static AccountPage of(List<AccountView> rows, int pageSize, Function<AccountView, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new AccountPage(rows, null);
+        }
+        List<AccountView> page = rows.subList(0, pageSize);
+        return new AccountPage(page, cursorOf.apply(page.get(pageSize - 1)));
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.companyledgertwo.model;
+
+import com.companyledgertwo.util.LocalDateSerializer;
+import com.companyledgertwo.util.MoneySerializer;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Count, sum, minimum and maximum of one account's transactions in one day or month. Rows are
+ * maintained by the posting engine in the same database transaction as the postings they cover.
+ */
+@Entity
+@Table(name = "account_rollups")
+@IdClass(AccountRollup.Key.class)
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE)
+public class AccountRollup {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private RollupGranularity granularity;
+
+    @Id
+    @JsonSerialize(using = LocalDateSerializer.class)
+    private LocalDate bucketStart;
+
+    private long transactionCount;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long amountSum;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long amountMin;
+
+    @JsonSerialize(using = MoneySerializer.class)
+    private long amountMax;
+
+    public static class Key implements Serializable {
+        private Long accountId;
+        private RollupGranularity granularity;
+        private LocalDate bucketStart;
+
+        public Key() {}
+
+        public Key(Long accountId, RollupGranularity granularity, LocalDate bucketStart) {
+            this.accountId = accountId;
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        public RollupGranularity getGranularity() {
+            return granularity;
+        }
+
+        public LocalDate getBucketStart() {
+            return bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(accountId, key.accountId)
+                    && granularity == key.granularity
+                    && Objects.equals(bucketStart, key.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, granularity, bucketStart);
+        }
+    }
+
+    public AccountRollup() {}
+
+    public AccountRollup(Key key, long transactionCount, long amountSum, long amountMin, long amountMax) {
+        this.accountId = key.getAccountId();
+        this.granularity = key.getGranularity();
+        this.bucketStart = key.getBucketStart();
+        this.transactionCount = transactionCount;
+        this.amountSum = amountSum;
+        this.amountMin = amountMin;
+        this.amountMax = amountMax;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public long getAmountSum() {
+        return amountSum;
+    }
+
+    public long getAmountMin() {
+        return amountMin;
+    }
+
+    public long getAmountMax() {
+        return amountMax;
+    }
+}
@@ -0,0 +1,11 @@
+package com.companyledgertwo.model;
+
+/**
+ * Watermark of what this node serves about one account, its balance and its transactions. The
+ * strong ETag changes on every committed change to the account; {@code lastModified} is in epoch
+ * milliseconds, or {@link #UNKNOWN} when it cannot tell this version from the previous one.
+ */
+public record AccountVersion(String etag, long lastModified) {
+
+    public static final long UNKNOWN = -1;
+}
@@ -0,0 +1,24 @@
+package com.companyledgertwo.model;
+
+import com.companyledgertwo.util.MoneyDeserializer;
+import com.companyledgertwo.util.MoneySerializer;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Immutable read model of an account, selected straight into this record by the account queries
+ * so no managed entity is created. Serialises exactly like {@link Account}.
+ */
+@JsonPropertyOrder({"id", "accountName", "balance", "isActive"})
+public record AccountView(Long id,
+                          String accountName,
+                          @JsonSerialize(using = MoneySerializer.class)
+                          @JsonDeserialize(using = MoneyDeserializer.class) Long balance,
+                          @JsonProperty("isActive") Boolean isActive) {
+
+    public static AccountView of(Account account) {
+        return new AccountView(account.getId(), account.getAccountName(), account.getBalanceMinor(), account.getIsActive());
+    }
+}
@@ -0,0 +1,4 @@
+package com.companyledgertwo.model;
+
+public record CacheStatistics(long size, long hitCount, long missCount, long evictionCount, double hitRate) {
+}
@@ -0,0 +1,4 @@
+package com.companyledgertwo.model;
+
+public record ErrorResponse(String error) {
+}
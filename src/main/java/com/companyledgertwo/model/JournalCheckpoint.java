@@ -0,0 +1,36 @@
+package com.companyledgertwo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Highest journal sequence a projector has applied. It is written in the same database
+ * transaction as the postings it covers, so a restart resumes exactly after the last commit.
+ */
+@Entity
+@Table(name = "journal_checkpoints")
+public class JournalCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    private long sequence;
+
+    public JournalCheckpoint() {}
+
+    public JournalCheckpoint(String name, long sequence) {
+        this.name = name;
+        this.sequence = sequence;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+}
@@ -0,0 +1,46 @@
+package com.companyledgertwo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * A journaled posting the database refused. It is written in the same database transaction as
+ * the checkpoint that steps over it.
+ */
+@Entity
+@Table(name = "journal_rejections")
+public class JournalRejection {
+
+    public static final int MAX_REASON_LENGTH = 500;
+
+    @Id
+    private long sequence;
+
+    @Column(name = "account_id", nullable = false)
+    private long accountId;
+
+    @Column(nullable = false, length = MAX_REASON_LENGTH)
+    private String reason;
+
+    public JournalRejection() {}
+
+    public JournalRejection(long sequence, long accountId, String reason) {
+        this.sequence = sequence;
+        this.accountId = accountId;
+        this.reason = reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
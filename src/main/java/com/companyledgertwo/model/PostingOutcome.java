@@ -0,0 +1,12 @@
+package com.companyledgertwo.model;
+
+/**
+ * What became of a journaled posting: still waiting for the projector, applied to the database,
+ * or refused by it, in which case the reason says why.
+ */
+public record PostingOutcome(long sequence, Status status, String reason) {
+
+    public enum Status {
+        PENDING, APPLIED, REJECTED
+    }
+}
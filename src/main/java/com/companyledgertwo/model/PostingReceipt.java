@@ -0,0 +1,17 @@
+package com.companyledgertwo.model;
+
+import com.companyledgertwo.util.LocalDateSerializer;
+import com.companyledgertwo.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+
+/**
+ * Acknowledgement of a posting that is durable in the journal but not yet applied to the
+ * database. The sequence orders it among all journaled postings.
+ */
+public record PostingReceipt(long sequence,
+                             Long accountId,
+                             @JsonSerialize(using = LocalDateSerializer.class) LocalDate date,
+                             @JsonSerialize(using = MoneySerializer.class) Long amount) {
+}
@@ -0,0 +1,12 @@
+package com.companyledgertwo.model;
+
+import java.time.LocalDate;
+
+public enum RollupGranularity {
+    DAY,
+    MONTH;
+
+    public LocalDate bucketOf(LocalDate date) {
+        return this == MONTH ? date.withDayOfMonth(1) : date;
+    }
+}
@@ -1,6 +1,12 @@
 package com.companyledgertwo.model;
 
 import com.companyledgertwo.util.LocalDateSerializer;
+import com.companyledgertwo.util.Money;
+import com.companyledgertwo.util.MoneyDeserializer;
+import com.companyledgertwo.util.MoneySerializer;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
@@ -9,11 +15,22 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+        uniqueConstraints = @UniqueConstraint(name = "uq_transactions_idempotency_key", columnNames = "idempotency_key"),
+        indexes = {
+        @Index(name = "idx_transactions_account_date_id", columnList = "account_id, date, id"),
+        @Index(name = "idx_transactions_date_id", columnList = "date, id"),
+        @Index(name = "idx_transactions_amount_id", columnList = "amount, id")
+})
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE)
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Account ID cannot be null")
@@ -23,16 +40,24 @@ public class Transaction {
     @JsonSerialize(using = LocalDateSerializer.class)
     private LocalDate date;
 
+    // Minor units (cents); the JSON wire format stays a decimal amount
     @NotNull(message = "Amount cannot be null")
     @Min(value = 0, message = "Amount cannot be negative")
-    private Double amount;
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private Long amount;
+
+    // Client-supplied Idempotency-Key of the posting request, if any; not part of the JSON body
+    @JsonIgnore
+    @Column(length = 255)
+    private String idempotencyKey;
 
     public Transaction() {}
 
     public Transaction(Long accountId, LocalDate date, Double amount) {
         this.accountId = accountId;
         this.date = date;
-        this.amount = amount;
+        this.amount = Money.toMinor(amount);
     }
 
     public Long getId() {
@@ -59,11 +84,27 @@ public class Transaction {
         this.date = date;
     }
 
-    public Double getAmount() {
+    public Long getAmountMinor() {
         return amount;
     }
 
+    public void setAmountMinor(Long amountMinor) {
+        this.amount = amountMinor;
+    }
+
+    public Double getAmount() {
+        return Money.toMajor(amount);
+    }
+
     public void setAmount(Double amount) {
-        this.amount = amount;
+        this.amount = Money.toMinor(amount);
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
     }
 }
@@ -0,0 +1,25 @@
+package com.companyledgertwo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionBatchResult(int index, Status status, Long id, String error) {
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    public static TransactionBatchResult created(int index, Long id) {
+        return new TransactionBatchResult(index, Status.CREATED, id, null);
+    }
+
+    public static TransactionBatchResult rejected(int index, String error) {
+        return new TransactionBatchResult(index, Status.REJECTED, null, error);
+    }
+
+    public static TransactionBatchResult failed(int index, String error) {
+        return new TransactionBatchResult(index, Status.FAILED, null, error);
+    }
+}
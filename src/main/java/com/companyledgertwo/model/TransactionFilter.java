@@ -0,0 +1,11 @@
+package com.companyledgertwo.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Optional conditions of a transaction search; a null or empty field does not filter. Amounts are
+ * in minor units and every bound is inclusive.
+ */
+public record TransactionFilter(List<Long> accountIds, LocalDate startDate, LocalDate endDate, Long minAmount, Long maxAmount) {
+}
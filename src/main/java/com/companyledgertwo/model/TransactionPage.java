@@ -0,0 +1,23 @@
+package com.companyledgertwo.model;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record TransactionPage(List<TransactionView> transactions, String nextCursor) {
+
+    /**
+     * Builds a page from up to {@code pageSize + 1} rows. The extra row only signals that another
+     * page exists, which avoids a count query.
+     */
+    public static TransactionPage of(List<TransactionView> rows, int pageSize, Function<TransactionView, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new TransactionPage(rows, null);
+        }
+        List<TransactionView> page = rows.subList(0, pageSize);
+        return new TransactionPage(page, cursorOf.apply(page.get(pageSize - 1)));
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
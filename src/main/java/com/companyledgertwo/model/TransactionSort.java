@@ -0,0 +1,20 @@
+package com.companyledgertwo.model;
+
+/**
+ * Orders of a transaction search. Ties on the sort key are broken by id in the same direction,
+ * so every order is total and can be resumed from a keyset cursor.
+ */
+public enum TransactionSort {
+    DATE_ASC,
+    DATE_DESC,
+    AMOUNT_ASC,
+    AMOUNT_DESC;
+
+    public boolean byDate() {
+        return this == DATE_ASC || this == DATE_DESC;
+    }
+
+    public boolean descending() {
+        return this == DATE_DESC || this == AMOUNT_DESC;
+    }
+}
@@ -0,0 +1,25 @@
+package com.companyledgertwo.model;
+
+import com.companyledgertwo.util.LocalDateSerializer;
+import com.companyledgertwo.util.MoneyDeserializer;
+import com.companyledgertwo.util.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable read model of a posted transaction, selected straight into this record by the
+ * listing queries so no managed entity is created. Serialises exactly like {@link Transaction}.
+ */
+public record TransactionView(Long id,
+                              Long accountId,
+                              @JsonSerialize(using = LocalDateSerializer.class) LocalDate date,
+                              @JsonSerialize(using = MoneySerializer.class)
+                              @JsonDeserialize(using = MoneyDeserializer.class) Long amount) {
+
+    public static TransactionView of(Transaction transaction) {
+        return new TransactionView(transaction.getId(), transaction.getAccountId(), transaction.getDate(),
+                transaction.getAmountMinor());
+    }
+}
@@ -0,0 +1,15 @@
+package com.companyledgertwo.repository;
+
+import com.companyledgertwo.model.AccountFilter;
+import com.companyledgertwo.model.AccountView;
+
+import java.util.List;
+
+public interface AccountQueries {
+
+    /**
+     * Up to {@code limit} accounts matching every condition of {@code filter}, in id order and
+     * starting after {@code afterId} when it is set.
+     */
+    List<AccountView> findPage(AccountFilter filter, Long afterId, int limit);
+}
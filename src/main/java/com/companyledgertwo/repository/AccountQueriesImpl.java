@@ -0,0 +1,68 @@
+package com.companyledgertwo.repository;
+
+import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.AccountFilter;
+import com.companyledgertwo.model.AccountView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the account listing with the Criteria API, so only the conditions that are set end up in
+ * the statement and each combination is a single bounded query. Values are bound as parameters.
+ */
+class AccountQueriesImpl implements AccountQueries {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AccountView> findPage(AccountFilter filter, Long afterId, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AccountView> query = builder.createQuery(AccountView.class);
+        Root<Account> account = query.from(Account.class);
+
+        List<Predicate> predicates = new ArrayList<>(5);
+        if (afterId != null) {
+            predicates.add(builder.greaterThan(account.get("id"), afterId));
+        }
+        if (filter.minBalance() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(account.get("balance"), filter.minBalance()));
+        }
+        if (filter.maxBalance() != null) {
+            predicates.add(builder.lessThanOrEqualTo(account.get("balance"), filter.maxBalance()));
+        }
+        if (filter.isActive() != null) {
+            predicates.add(builder.equal(account.get("isActive"), filter.isActive()));
+        }
+        if (filter.namePrefix() != null && !filter.namePrefix().isEmpty()) {
+            predicates.add(builder.like(account.get("accountName"), escapeLike(filter.namePrefix()) + "%", LIKE_ESCAPE));
+        }
+
+        query.select(builder.construct(AccountView.class,
+                        account.get("id"), account.get("accountName"), account.get("balance"), account.get("isActive")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.asc(account.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -1,15 +1,31 @@
 package com.companyledgertwo.repository;
 
 import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.AccountView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
-    Account findByAccountName(String name);
-    List<Account> findByBalanceGreaterThan(Double minimumBalance);
-    List<Account> findByBalanceLessThan(Double maximumBalance);
-    List<Account> findByIsActive(Boolean isActive);
+@Transactional(readOnly = true)
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountQueries {
+    // Reads select straight into AccountView records; entities are only loaded to be changed
+    AccountView findViewById(Long id);
+    AccountView findByAccountName(String name);
+    List<AccountView> findByBalanceGreaterThan(Long minimumBalance);
+    List<AccountView> findByBalanceLessThan(Long maximumBalance);
+    List<AccountView> findByIsActive(Boolean isActive);
+
+    @Query("select a.id from Account a where a.id in :accountIds")
+    List<Long> findExistingIds(Collection<Long> accountIds);
+
+    @Modifying
+    @Transactional
+    @Query("update Account a set a.balance = a.balance + :amount where a.id = :accountId")
+    int creditBalance(Long accountId, Long amount);
 }
@@ -0,0 +1,18 @@
+package com.companyledgertwo.repository;
+
+import com.companyledgertwo.model.AccountRollup;
+import com.companyledgertwo.model.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface AccountRollupRepository extends JpaRepository<AccountRollup, AccountRollup.Key> {
+
+    List<AccountRollup> findByAccountIdAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+            Long accountId, RollupGranularity granularity, LocalDate from, LocalDate to);
+}
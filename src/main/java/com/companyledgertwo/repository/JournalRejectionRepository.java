@@ -0,0 +1,9 @@
+package com.companyledgertwo.repository;
+
+import com.companyledgertwo.model.JournalRejection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalRejectionRepository extends JpaRepository<JournalRejection, Long> {
+}
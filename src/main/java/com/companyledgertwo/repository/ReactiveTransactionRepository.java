@@ -0,0 +1,141 @@
+package com.companyledgertwo.repository;
+
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.util.TransactionCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only transaction queries over R2DBC. They mirror the keyset queries of
+ * {@link TransactionRepository}, but no thread waits while the database answers.
+ * <p>
+ * The pool is kept inside this class rather than exposed as a {@code ConnectionFactory} bean, since
+ * such a bean would make Spring Boot back off from the JDBC DataSource the rest of the app uses.
+ * Its size comes out of the node's connection budget (see
+ * {@link com.companyledgertwo.config.ConnectionBudgetConfig}) and it is published as the
+ * {@code r2dbc.pool.*} meters tagged {@code name=reactive}.
+ */
+@Repository
+public class ReactiveTransactionRepository {
+
+    private static final String COLUMNS = "select id, account_id, date, amount from transactions";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTransactionRepository(@Value("${ledger.reactive.url}") String url,
+                                         @Value("${ledger.reactive.username:}") String username,
+                                         @Value("${ledger.reactive.password:}") String password,
+                                         @Value("${ledger.reactive.pool.max-size:2}") int maxSize,
+                                         MeterRegistry meterRegistry) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .maxSize(maxSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        new ConnectionPoolMetrics(connectionPool, "reactive", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+
+    public Flux<TransactionView> findByAccountId(long accountId, TransactionCursor.DateKey after, int limit) {
+        if (after == null) {
+            return databaseClient.sql(COLUMNS + " where account_id = :accountId order by date, id limit :limit")
+                    .bind("accountId", accountId)
+                    .bind("limit", limit)
+                    .map(ReactiveTransactionRepository::toView)
+                    .all();
+        }
+        return databaseClient.sql(COLUMNS + " where account_id = :accountId"
+                        + " and (date > :date or (date = :date and id > :id)) order by date, id limit :limit")
+                .bind("accountId", accountId)
+                .bind("date", after.date())
+                .bind("id", after.id())
+                .bind("limit", limit)
+                .map(ReactiveTransactionRepository::toView)
+                .all();
+    }
+
+    /**
+     * Every transaction of one account in id order, like the servlet export, emitted as the driver
+     * reads rows and only as fast as the subscriber requests them.
+     */
+    public Flux<TransactionView> streamByAccountId(long accountId) {
+        return databaseClient.sql(COLUMNS + " where account_id = :accountId order by id")
+                .bind("accountId", accountId)
+                .map(ReactiveTransactionRepository::toView)
+                .all();
+    }
+
+    public Flux<TransactionView> findBetweenDates(LocalDate start, LocalDate end, TransactionCursor.DateKey after, int limit) {
+        if (after == null) {
+            return databaseClient.sql(COLUMNS + " where date between :start and :end order by date, id limit :limit")
+                    .bind("start", start)
+                    .bind("end", end)
+                    .bind("limit", limit)
+                    .map(ReactiveTransactionRepository::toView)
+                    .all();
+        }
+        return databaseClient.sql(COLUMNS + " where date between :start and :end"
+                        + " and (date > :date or (date = :date and id > :id)) order by date, id limit :limit")
+                .bind("start", start)
+                .bind("end", end)
+                .bind("date", after.date())
+                .bind("id", after.id())
+                .bind("limit", limit)
+                .map(ReactiveTransactionRepository::toView)
+                .all();
+    }
+
+    public Flux<TransactionView> findAmountGreaterThan(long minimumAmount, TransactionCursor.AmountKey after, int limit) {
+        return findByAmount("amount > :threshold", minimumAmount, after, limit);
+    }
+
+    public Flux<TransactionView> findAmountLessThan(long maximumAmount, TransactionCursor.AmountKey after, int limit) {
+        return findByAmount("amount < :threshold", maximumAmount, after, limit);
+    }
+
+    private Flux<TransactionView> findByAmount(String condition, long threshold, TransactionCursor.AmountKey after, int limit) {
+        if (after == null) {
+            return databaseClient.sql(COLUMNS + " where " + condition + " order by amount, id limit :limit")
+                    .bind("threshold", threshold)
+                    .bind("limit", limit)
+                    .map(ReactiveTransactionRepository::toView)
+                    .all();
+        }
+        return databaseClient.sql(COLUMNS + " where " + condition
+                        + " and (amount > :amount or (amount = :amount and id > :id)) order by amount, id limit :limit")
+                .bind("threshold", threshold)
+                .bind("amount", after.amount())
+                .bind("id", after.id())
+                .bind("limit", limit)
+                .map(ReactiveTransactionRepository::toView)
+                .all();
+    }
+
+    private static TransactionView toView(Readable row) {
+        return new TransactionView(row.get("id", Long.class), row.get("account_id", Long.class),
+                row.get("date", LocalDate.class), row.get("amount", Long.class));
+    }
+}
@@ -0,0 +1,19 @@
+package com.companyledgertwo.repository;
+
+import com.companyledgertwo.model.TransactionFilter;
+import com.companyledgertwo.model.TransactionSort;
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.util.TransactionCursor;
+
+import java.util.List;
+
+public interface TransactionQueries {
+
+    /**
+     * Up to {@code limit} transactions matching every condition of {@code filter} in {@code sort}
+     * order, starting strictly after {@code after} when it is set. The key must match the sort:
+     * a {@link TransactionCursor.DateKey} for date orders, an {@link TransactionCursor.AmountKey}
+     * for amount orders.
+     */
+    List<TransactionView> search(TransactionFilter filter, TransactionSort sort, TransactionCursor.Key after, int limit);
+}
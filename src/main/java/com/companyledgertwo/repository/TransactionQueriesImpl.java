@@ -0,0 +1,80 @@
+package com.companyledgertwo.repository;
+
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionFilter;
+import com.companyledgertwo.model.TransactionSort;
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.util.TransactionCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the transaction search with the Criteria API. Only the conditions that are set end up in
+ * the statement, so each combination is one bounded query over the (account_id, date, id),
+ * (date, id) or (amount, id) index that matches it best. Values are bound as parameters.
+ */
+class TransactionQueriesImpl implements TransactionQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionView> search(TransactionFilter filter, TransactionSort sort, TransactionCursor.Key after, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionView> query = builder.createQuery(TransactionView.class);
+        Root<Transaction> transaction = query.from(Transaction.class);
+        Path<Long> id = transaction.get("id");
+
+        List<Predicate> predicates = new ArrayList<>(6);
+        if (filter.accountIds() != null && !filter.accountIds().isEmpty()) {
+            predicates.add(transaction.get("accountId").in(filter.accountIds()));
+        }
+        if (filter.startDate() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(transaction.get("date"), filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            predicates.add(builder.lessThanOrEqualTo(transaction.get("date"), filter.endDate()));
+        }
+        if (filter.minAmount() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(transaction.get("amount"), filter.minAmount()));
+        }
+        if (filter.maxAmount() != null) {
+            predicates.add(builder.lessThanOrEqualTo(transaction.get("amount"), filter.maxAmount()));
+        }
+        if (after instanceof TransactionCursor.DateKey key) {
+            predicates.add(resumeAfter(builder, transaction.<LocalDate>get("date"), key.date(), id, key.id(), sort.descending()));
+        } else if (after instanceof TransactionCursor.AmountKey key) {
+            predicates.add(resumeAfter(builder, transaction.<Long>get("amount"), key.amount(), id, key.id(), sort.descending()));
+        }
+
+        Path<?> sortKey = transaction.get(sort.byDate() ? "date" : "amount");
+        query.select(builder.construct(TransactionView.class,
+                        id, transaction.get("accountId"), transaction.get("date"), transaction.get("amount")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(sort.descending()
+                        ? List.of(builder.desc(sortKey), builder.desc(id))
+                        : List.of(builder.asc(sortKey), builder.asc(id)));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    // (key, id) strictly past the cursor in the sort direction
+    private static <K extends Comparable<? super K>> Predicate resumeAfter(CriteriaBuilder builder, Expression<K> key, K keyValue,
+                                                                          Expression<Long> id, long idValue, boolean descending) {
+        if (descending) {
+            return builder.or(builder.lessThan(key, keyValue),
+                    builder.and(builder.equal(key, keyValue), builder.lessThan(id, idValue)));
+        }
+        return builder.or(builder.greaterThan(key, keyValue),
+                builder.and(builder.equal(key, keyValue), builder.greaterThan(id, idValue)));
+    }
+}
@@ -1,16 +1,65 @@
 package com.companyledgertwo.repository;
 
 import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByAccountId(Long accountId);
-    List<Transaction> findByDateBetween(LocalDate startDate, LocalDate endDate);
-    List<Transaction> findByAmountGreaterThan(Double minimumAmount);
-    List<Transaction> findByAmountLessThan(Double maximumAmount);
+@Transactional(readOnly = true)
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionQueries {
+    String VIEW = "new com.companyledgertwo.model.TransactionView(t.id, t.accountId, t.date, t.amount)";
+
+    // Listings select straight into TransactionView records, so reads never create managed entities
+    List<TransactionView> findByAccountId(Long accountId);
+    List<TransactionView> findByDateBetween(LocalDate startDate, LocalDate endDate);
+    List<TransactionView> findByAmountGreaterThan(Long minimumAmount);
+    List<TransactionView> findByAmountLessThan(Long maximumAmount);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<TransactionView> streamByAccountIdOrderByIdAsc(Long accountId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Transaction> streamAllByOrderByIdAsc();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Transaction> streamByIdGreaterThanOrderByIdAsc(Long id);
+
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+
+    // Keyset pages: the first page has no cursor, later pages resume strictly after the last (key, id) seen.
+    List<TransactionView> findByAccountIdOrderByDateAscIdAsc(Long accountId, Limit limit);
+
+    @Query("select " + VIEW + " from Transaction t where t.accountId = :accountId"
+            + " and (t.date > :date or (t.date = :date and t.id > :id)) order by t.date, t.id")
+    List<TransactionView> findByAccountIdAfter(Long accountId, LocalDate date, Long id, Limit limit);
+
+    List<TransactionView> findByDateBetweenOrderByDateAscIdAsc(LocalDate startDate, LocalDate endDate, Limit limit);
+
+    @Query("select " + VIEW + " from Transaction t where t.date between :startDate and :endDate"
+            + " and (t.date > :date or (t.date = :date and t.id > :id)) order by t.date, t.id")
+    List<TransactionView> findByDateBetweenAfter(LocalDate startDate, LocalDate endDate, LocalDate date, Long id, Limit limit);
+
+    List<TransactionView> findByAmountGreaterThanOrderByAmountAscIdAsc(Long minimumAmount, Limit limit);
+
+    @Query("select " + VIEW + " from Transaction t where t.amount > :minimumAmount"
+            + " and (t.amount > :amount or (t.amount = :amount and t.id > :id)) order by t.amount, t.id")
+    List<TransactionView> findByAmountGreaterThanAfter(Long minimumAmount, Long amount, Long id, Limit limit);
+
+    List<TransactionView> findByAmountLessThanOrderByAmountAscIdAsc(Long maximumAmount, Limit limit);
+
+    @Query("select " + VIEW + " from Transaction t where t.amount < :maximumAmount"
+            + " and (t.amount > :amount or (t.amount = :amount and t.id > :id)) order by t.amount, t.id")
+    List<TransactionView> findByAmountLessThanAfter(Long maximumAmount, Long amount, Long id, Limit limit);
 }
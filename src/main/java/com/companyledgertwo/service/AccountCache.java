@@ -0,0 +1,106 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.AccountVersion;
+import com.companyledgertwo.model.AccountView;
+import com.companyledgertwo.model.CacheStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of immutable account views by id, with a name to id index in front
+ * of it. Writers invalidate an entry only after their change has committed. A load that is still
+ * in flight holds the entry, so the invalidation waits for it and then drops whatever it read. A
+ * reader on this node therefore never sees a balance older than the last committed update.
+ * <p>
+ * Invalidation also retires the account's {@link AccountVersion}, the watermark behind the ETags
+ * of account reads. A version is handed out before the data it describes is read, so a tag can be
+ * older than its body but never newer. Tags carry a random per-process prefix and versions expire
+ * with the cached views, which bounds how long another node's writes can go unnoticed here.
+ * <p>
+ * {@code Last-Modified} only has whole seconds. A version handed out in the same second as the
+ * one it replaces would repeat its timestamp, so it goes without one and only its ETag counts.
+ */
+@Component
+public class AccountCache {
+
+    private final Cache<Long, AccountView> accountsById;
+    private final Cache<String, Long> idsByName;
+    private final Cache<Long, AccountVersion> versions;
+    private final Cache<Long, Long> versionSeconds;
+    private final String versionPrefix = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    public AccountCache(@Value("${ledger.account-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${ledger.account-cache.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.accountsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        // Account names never change, so this index only needs the size bound
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        // Only needs to outlive the second a version was handed out in
+        this.versionSeconds = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(1))
+                .build();
+    }
+
+    public AccountView get(Long accountId, Function<Long, AccountView> loader) {
+        return accountsById.get(accountId, loader);
+    }
+
+    public Long idForName(String accountName) {
+        return idsByName.getIfPresent(accountName);
+    }
+
+    public void rememberName(String accountName, Long accountId) {
+        idsByName.put(accountName, accountId);
+    }
+
+    public void invalidate(Long accountId) {
+        accountsById.invalidate(accountId);
+        versions.invalidate(accountId);
+    }
+
+    public void invalidateAll(Iterable<Long> accountIds) {
+        accountsById.invalidateAll(accountIds);
+        versions.invalidateAll(accountIds);
+    }
+
+    public AccountVersion version(Long accountId) {
+        return versions.get(accountId, id -> {
+            long now = System.currentTimeMillis();
+            Long previousSecond = versionSeconds.asMap().put(id, now / 1000);
+            long lastModified = previousSecond != null && previousSecond == now / 1000 ? AccountVersion.UNKNOWN : now;
+            return new AccountVersion("\"" + versionPrefix + "-" + versionSequence.incrementAndGet() + "\"", lastModified);
+        });
+    }
+
+    /**
+     * Retires the versions of accounts whose data changed somewhere other than the database, such
+     * as the in-memory transaction index, after that change became visible.
+     */
+    public void invalidateVersions(Iterable<Long> accountIds) {
+        versions.invalidateAll(accountIds);
+    }
+
+    public CacheStatistics statistics() {
+        CacheStats stats = accountsById.stats();
+        return new CacheStatistics(accountsById.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+}
@@ -0,0 +1,115 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.AccountRollup;
+import com.companyledgertwo.model.RollupGranularity;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.util.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Folds postings into the daily and monthly rollup rows of their accounts, inside the posting's
+ * database transaction. Each bucket is written with an upsert, so nodes that open the same bucket at
+ * the same time both land instead of one failing on the primary key.
+ */
+@Component
+public class AccountRollups {
+
+    private static final int COUNT = 0;
+    private static final int SUM = 1;
+    private static final int MIN = 2;
+    private static final int MAX = 3;
+
+    static final String UPSERT_SQL = "INSERT INTO account_rollups"
+            + " (account_id, granularity, bucket_start, transaction_count, amount_sum, amount_min, amount_max)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?)"
+            + " ON CONFLICT (account_id, granularity, bucket_start) DO UPDATE SET"
+            + " transaction_count = account_rollups.transaction_count + EXCLUDED.transaction_count,"
+            + " amount_sum = account_rollups.amount_sum + EXCLUDED.amount_sum,"
+            + " amount_min = LEAST(account_rollups.amount_min, EXCLUDED.amount_min),"
+            + " amount_max = GREATEST(account_rollups.amount_max, EXCLUDED.amount_max)";
+
+    static final String MERGE_SQL = "MERGE INTO account_rollups r USING (VALUES (CAST(? AS BIGINT),"
+            + " CAST(? AS VARCHAR(8)), CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT),"
+            + " CAST(? AS BIGINT))) AS d (account_id, granularity, bucket_start, transaction_count, amount_sum,"
+            + " amount_min, amount_max)"
+            + " ON r.account_id = d.account_id AND r.granularity = d.granularity AND r.bucket_start = d.bucket_start"
+            + " WHEN MATCHED THEN UPDATE SET"
+            + " transaction_count = r.transaction_count + d.transaction_count,"
+            + " amount_sum = r.amount_sum + d.amount_sum,"
+            + " amount_min = LEAST(r.amount_min, d.amount_min),"
+            + " amount_max = GREATEST(r.amount_max, d.amount_max)"
+            + " WHEN NOT MATCHED THEN INSERT"
+            + " (account_id, granularity, bucket_start, transaction_count, amount_sum, amount_min, amount_max)"
+            + " VALUES (d.account_id, d.granularity, d.bucket_start, d.transaction_count, d.amount_sum,"
+            + " d.amount_min, d.amount_max)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BooleanSupplier postgresCheck;
+    private volatile Boolean postgres;
+
+    @Autowired
+    public AccountRollups(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, () -> "PostgreSQL".equals(jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName())));
+    }
+
+    AccountRollups(JdbcTemplate jdbcTemplate, BooleanSupplier postgresCheck) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgresCheck = postgresCheck;
+    }
+
+    public void apply(List<Transaction> transactions) {
+        // Aggregate first so a batch touches each bucket once
+        Map<AccountRollup.Key, long[]> deltas = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                AccountRollup.Key key = new AccountRollup.Key(transaction.getAccountId(), granularity,
+                        granularity.bucketOf(transaction.getDate()));
+                long amount = transaction.getAmountMinor();
+                long[] delta = deltas.computeIfAbsent(key, k -> new long[]{0, 0, Long.MAX_VALUE, Long.MIN_VALUE});
+                delta[COUNT]++;
+                delta[SUM] = Money.add(delta[SUM], amount);
+                delta[MIN] = Math.min(delta[MIN], amount);
+                delta[MAX] = Math.max(delta[MAX], amount);
+            }
+        }
+        deltas.forEach(this::accumulate);
+    }
+
+    private void accumulate(AccountRollup.Key key, long[] delta) {
+        if (isPostgres()) {
+            write(UPSERT_SQL, key, delta);
+            return;
+        }
+        try {
+            write(MERGE_SQL, key, delta);
+        } catch (DuplicateKeyException e) {
+            // H2's merge is not atomic against a concurrent insert of the same bucket. H2 only undoes the
+            // failed statement, and the bucket exists now, so the retry takes the update branch
+            write(MERGE_SQL, key, delta);
+        }
+    }
+
+    private void write(String sql, AccountRollup.Key key, long[] delta) {
+        jdbcTemplate.update(sql, key.getAccountId(), key.getGranularity().name(), key.getBucketStart(),
+                delta[COUNT], delta[SUM], delta[MIN], delta[MAX]);
+    }
+
+    private boolean isPostgres() {
+        Boolean known = postgres;
+        if (known == null) {
+            known = postgresCheck.getAsBoolean();
+            postgres = known;
+        }
+        return known;
+    }
+}
@@ -1,27 +1,45 @@
 package com.companyledgertwo.service;
 
 import com.companyledgertwo.model.Account;
-import com.companyledgertwo.model.Transaction;
-
+import com.companyledgertwo.model.AccountFilter;
+import com.companyledgertwo.model.AccountPage;
+import com.companyledgertwo.model.AccountRollup;
+import com.companyledgertwo.model.AccountVersion;
+import com.companyledgertwo.model.AccountView;
+import com.companyledgertwo.model.CacheStatistics;
+import com.companyledgertwo.model.RollupGranularity;
+import com.companyledgertwo.model.TransactionView;
+
+import java.time.LocalDate;
 import java.util.List;
 
 public interface AccountService {
 
     Account createAccount(Account account);
 
-    Account getAccount(Long accountId);
+    AccountView getAccount(Long accountId);
+
+    AccountView findByAccountName(String name);
+
+    CacheStatistics accountCacheStatistics();
+
+    /**
+     * Current version of the account's balance and transactions on this node. Read it before the
+     * data it describes.
+     */
+    AccountVersion accountVersion(Long accountId);
 
-    Account findByAccountName(String name);
+    Account updateBalance(Long accountId, long newBalance);
 
-    Account updateBalance(Long accountId, Double newBalance);
+    List<AccountView> findByBalanceGreaterThan(long minimumBalance);
 
-    List<Account> findByBalanceGreaterThan(Double minimumBalance);
+    List<AccountView> findByBalanceLessThan(long maximumBalance);
 
-    List<Account> findByBalanceLessThan(Double maximumBalance);
+    List<AccountView> findByIsActive(Boolean isActive);
 
-    List<Account> findByIsActive(Boolean isActive);
+    List<TransactionView> listTransactionsForAccount(Long id);
 
-    List<Transaction> listTransactionsForAccount(Long id);
+    List<AccountRollup> getSummary(Long accountId, RollupGranularity granularity, LocalDate from, LocalDate to);
 
-    List<Account> listAllAccounts();
+    AccountPage listAllAccounts(AccountFilter filter, String cursor, int limit);
 }
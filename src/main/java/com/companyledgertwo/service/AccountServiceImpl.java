@@ -1,13 +1,25 @@
 package com.companyledgertwo.service;
 
 import com.companyledgertwo.model.Account;
-import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.AccountFilter;
+import com.companyledgertwo.model.AccountPage;
+import com.companyledgertwo.model.AccountRollup;
+import com.companyledgertwo.model.AccountVersion;
+import com.companyledgertwo.model.AccountView;
+import com.companyledgertwo.model.CacheStatistics;
+import com.companyledgertwo.model.RollupGranularity;
+import com.companyledgertwo.model.TransactionView;
 import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.AccountRollupRepository;
 import com.companyledgertwo.repository.TransactionRepository;
+import com.companyledgertwo.util.AccountCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 @Service
 public class AccountServiceImpl implements AccountService {
@@ -18,53 +30,108 @@ public class AccountServiceImpl implements AccountService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private AccountRollupRepository accountRollupRepository;
+
+    @Autowired
+    private AccountLocks accountLocks;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Value("${ledger.pagination.max-page-size:500}")
+    private int maxPageSize;
+
     @Override
     public Account createAccount(Account account) {
-        return accountRepository.save(account);
+        Account created = accountRepository.save(account);
+        accountCache.invalidate(created.getId());
+        return created;
     }
 
     @Override
-    public Account getAccount(Long accountId) {
-        return accountRepository.findById(accountId).orElse(null);
+    public AccountView getAccount(Long accountId) {
+        return accountCache.get(accountId, accountRepository::findViewById);
     }
 
     @Override
-    public Account findByAccountName(String name) {
-        return accountRepository.findByAccountName(name);
+    public AccountView findByAccountName(String name) {
+        Long accountId = accountCache.idForName(name);
+        if (accountId != null) {
+            return getAccount(accountId);
+        }
+        AccountView account = accountRepository.findByAccountName(name);
+        if (account != null) {
+            accountCache.rememberName(name, account.id());
+        }
+        return account;
     }
 
     @Override
-    public Account updateBalance(Long accountId, Double newBalance) {
-        Account account = getAccount(accountId);
-        if (account != null) {
-            account.setBalance(newBalance);
-            return accountRepository.save(account);
+    public CacheStatistics accountCacheStatistics() {
+        return accountCache.statistics();
+    }
+
+    @Override
+    public AccountVersion accountVersion(Long accountId) {
+        return accountCache.version(accountId);
+    }
+
+    @Override
+    public Account updateBalance(Long accountId, long newBalance) {
+        // Same stripe as the posting engine, so a balance reset never interleaves with a posting
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            // Load the entity itself: the cache only holds read-only views
+            Account account = accountRepository.findById(accountId).orElse(null);
+            if (account != null) {
+                account.setBalanceMinor(newBalance);
+                Account updated = accountRepository.save(account);
+                accountCache.invalidate(accountId);
+                return updated;
+            }
+            return null;
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 
     @Override
-    public List<Account> findByBalanceGreaterThan(Double minimumBalance) {
+    public List<AccountView> findByBalanceGreaterThan(long minimumBalance) {
         return accountRepository.findByBalanceGreaterThan(minimumBalance);
     }
 
     @Override
-    public List<Account> findByBalanceLessThan(Double maximumBalance) {
+    public List<AccountView> findByBalanceLessThan(long maximumBalance) {
         return accountRepository.findByBalanceLessThan(maximumBalance);
     }
 
     @Override
-    public List<Account> findByIsActive(Boolean isActive) {
+    public List<AccountView> findByIsActive(Boolean isActive) {
         return accountRepository.findByIsActive(isActive);
     }
 
     @Override
-    public List<Transaction> listTransactionsForAccount(Long accountId) {
+    public List<TransactionView> listTransactionsForAccount(Long accountId) {
         return transactionRepository.findByAccountId(accountId);
     }
 
     @Override
-    public List<Account> listAllAccounts() {
-        return List.of();
+    public List<AccountRollup> getSummary(Long accountId, RollupGranularity granularity, LocalDate from, LocalDate to) {
+        return accountRollupRepository.findByAccountIdAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+                accountId, granularity, granularity.bucketOf(from), granularity.bucketOf(to));
+    }
+
+    @Override
+    public AccountPage listAllAccounts(AccountFilter filter, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        Long afterId = cursor == null ? null : AccountCursor.decode(cursor);
+        List<AccountView> rows = accountRepository.findPage(filter, afterId, pageSize + 1);
+        return AccountPage.of(rows, pageSize, last -> AccountCursor.of(last.id()));
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
     }
 }
@@ -0,0 +1,275 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Opt-in group commit for single postings. Request threads drop their posting into a ring buffer
+ * and wait; one writer thread drains up to {@code batch-size} postings, lingering at most
+ * {@code max-linger} for stragglers, and commits them together through
+ * {@link PostingEngine#postBatch(List)}. Every waiting caller is released once that commit is
+ * done, so many postings share one commit and one fsync.
+ * <p>
+ * A batch fails as a whole, so when it does its postings are retried one by one and each caller
+ * gets its own outcome. When the buffer is full the caller posts on its own thread instead.
+ * <p>
+ * A caller waits at most {@code wait-timeout}. Whoever claims a queued posting first, the writer or
+ * its caller, posts it, so a posting left behind by a stop or a dead writer is posted by its caller.
+ */
+@Component
+public class GroupCommitPoster {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitPoster.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long LINGER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final PostingEngine postingEngine;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxLingerNanos;
+    private final long waitTimeoutNanos;
+    private final MpscRingBuffer<PendingPosting> buffer;
+
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+    private final Counter bufferFullFallbacks;
+    private final Counter failedBatches;
+    private final Counter reclaimedPostings;
+
+    private volatile boolean running;
+    private volatile boolean writerParked;
+    private Thread writer;
+
+    public GroupCommitPoster(PostingEngine postingEngine,
+                             MeterRegistry meterRegistry,
+                             @Value("${ledger.group-commit.enabled:false}") boolean enabled,
+                             @Value("${ledger.group-commit.batch-size:256}") int batchSize,
+                             @Value("${ledger.group-commit.max-linger:PT0.001S}") Duration maxLinger,
+                             @Value("${ledger.group-commit.buffer-capacity:4096}") int bufferCapacity,
+                             @Value("${ledger.group-commit.wait-timeout:PT30S}") Duration waitTimeout) {
+        this.postingEngine = postingEngine;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.batchSizes = DistributionSummary.builder("ledger.group.commit.batch.size")
+                .description("Postings committed together by the group-commit writer")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("ledger.group.commit.duration")
+                .description("Time to commit one group-commit batch")
+                .register(meterRegistry);
+        this.bufferFullFallbacks = Counter.builder("ledger.group.commit.fallbacks")
+                .tag("reason", "buffer_full")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("ledger.group.commit.fallbacks")
+                .tag("reason", "batch_failed")
+                .register(meterRegistry);
+        this.reclaimedPostings = Counter.builder("ledger.group.commit.fallbacks")
+                .tag("reason", "reclaimed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "group-commit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        LOGGER.info("Group commit enabled: batch size {}, max linger {} us", batchSize, maxLingerNanos / 1_000);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+        // Once the writer is gone this thread is the only consumer; pick up anything enqueued during the stop
+        List<PendingPosting> leftovers = new ArrayList<>();
+        for (PendingPosting pending = nextClaimed(); pending != null; pending = nextClaimed()) {
+            leftovers.add(pending);
+        }
+        if (!leftovers.isEmpty()) {
+            commit(leftovers);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Posts the transaction as part of the next batch and blocks until that batch has committed.
+     */
+    public Transaction post(Transaction transaction) {
+        if (!running) {
+            return postingEngine.post(transaction);
+        }
+        PendingPosting pending = new PendingPosting(transaction);
+        if (!buffer.offer(pending)) {
+            bufferFullFallbacks.increment();
+            return postingEngine.post(transaction);
+        }
+        // A stop that began before the offer may already have drained the buffer
+        if (!running && pending.claim()) {
+            reclaimedPostings.increment();
+            return postingEngine.post(transaction);
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        try {
+            return pending.result.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (pending.claim()) {
+                reclaimedPostings.increment();
+                return postingEngine.post(transaction);
+            }
+            throw new IllegalStateException("Group commit did not finish within " + Duration.ofNanos(waitTimeoutNanos), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void drain() {
+        try {
+            drainBatches();
+        } catch (Throwable e) {
+            // Callers still queued reclaim their postings once their wait times out
+            running = false;
+            LOGGER.error("Group commit writer stopped; postings fall back to the calling thread", e);
+        }
+    }
+
+    private void drainBatches() {
+        List<PendingPosting> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            PendingPosting first = nextClaimed();
+            if (first == null) {
+                awaitWork();
+                continue;
+            }
+            batch.add(first);
+            long deadline = System.nanoTime() + maxLingerNanos;
+            while (batch.size() < batchSize) {
+                PendingPosting next = nextClaimed();
+                if (next != null) {
+                    batch.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                LockSupport.parkNanos(Math.min(remaining, LINGER_PARK_NANOS));
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private PendingPosting nextClaimed() {
+        for (PendingPosting pending = buffer.poll(); pending != null; pending = buffer.poll()) {
+            if (pending.claim()) {
+                return pending;
+            }
+        }
+        return null;
+    }
+
+    // The flag is raised before the emptiness check, so a producer that enqueues after the check sees it and unparks us
+    private void awaitWork() {
+        writerParked = true;
+        if (running && buffer.isEmpty()) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        writerParked = false;
+    }
+
+    private void commit(List<PendingPosting> batch) {
+        batchSizes.record(batch.size());
+        List<Transaction> transactions = new ArrayList<>(batch.size());
+        for (PendingPosting pending : batch) {
+            transactions.add(pending.transaction);
+        }
+        try {
+            List<Transaction> posted = commitTimer.record(() -> postingEngine.postBatch(transactions));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(posted.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            failedBatches.increment();
+            LOGGER.warn("Group commit of {} postings failed, posting them one by one: {}", batch.size(), e.getMessage());
+            for (PendingPosting pending : batch) {
+                // The rolled back batch already drew ids for these rows
+                pending.transaction.setId(null);
+                try {
+                    pending.result.complete(postingEngine.post(pending.transaction));
+                } catch (Throwable individual) {
+                    pending.result.completeExceptionally(individual);
+                }
+            }
+        } catch (Throwable e) {
+            // Not worth retrying one by one; fail the batch so no caller is left waiting
+            failedBatches.increment();
+            LOGGER.error("Group commit of {} postings failed", batch.size(), e);
+            for (PendingPosting pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class PendingPosting {
+        private final Transaction transaction;
+        private final CompletableFuture<Transaction> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private PendingPosting(Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
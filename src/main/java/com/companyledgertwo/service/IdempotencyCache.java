@@ -0,0 +1,36 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.Transaction;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded map from Idempotency-Key to the transaction the key first posted, so a retried request
+ * is answered from memory. Entries are only added after the posting committed. Keys evicted
+ * from here are still caught by the unique constraint on {@code transactions.idempotency_key}.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final Cache<String, Transaction> postedByKey;
+
+    public IdempotencyCache(@Value("${ledger.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${ledger.idempotency.expire-after-write:PT24H}") Duration expireAfterWrite) {
+        this.postedByKey = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public Transaction get(String idempotencyKey) {
+        return postedByKey.getIfPresent(idempotencyKey);
+    }
+
+    public void put(String idempotencyKey, Transaction transaction) {
+        postedByKey.put(idempotencyKey, transaction);
+    }
+}
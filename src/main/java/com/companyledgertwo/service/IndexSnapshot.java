@@ -0,0 +1,28 @@
+package com.companyledgertwo.service;
+
+import java.util.List;
+
+/**
+ * Point-in-time copy of the {@link TransactionIndex} columns. Every transaction with an id at or
+ * below the high-water mark that this node had committed when the copy was taken is included.
+ */
+record IndexSnapshot(long highWaterMark, List<Account> accounts) {
+
+    /**
+     * One account's transactions in (epoch day, id) order.
+     */
+    record Account(long accountId, long[] ids, int[] epochDays, long[] amounts) {
+
+        int size() {
+            return ids.length;
+        }
+    }
+
+    long transactionCount() {
+        long count = 0;
+        for (Account account : accounts) {
+            count += account.size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,69 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.TransactionView;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Result of a {@link TransactionIndex} lookup, held as exactly sized primitive columns. Rows are
+ * only boxed into records if a caller asks for them through {@link #toViews()}.
+ */
+public final class IndexedTransactions {
+
+    private final long[] ids;
+    private final long[] accountIds;
+    private final int[] epochDays;
+    private final long[] amounts;
+    private int size;
+
+    IndexedTransactions(int capacity) {
+        this.ids = new long[capacity];
+        this.accountIds = new long[capacity];
+        this.epochDays = new int[capacity];
+        this.amounts = new long[capacity];
+    }
+
+    void append(long accountId, long[] ids, int[] epochDays, long[] amounts, int from, int to) {
+        int count = to - from;
+        System.arraycopy(ids, from, this.ids, size, count);
+        System.arraycopy(epochDays, from, this.epochDays, size, count);
+        System.arraycopy(amounts, from, this.amounts, size, count);
+        Arrays.fill(this.accountIds, size, size + count, accountId);
+        size += count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long id(int i) {
+        return ids[i];
+    }
+
+    public long accountId(int i) {
+        return accountIds[i];
+    }
+
+    public int epochDay(int i) {
+        return epochDays[i];
+    }
+
+    public long amountMinor(int i) {
+        return amounts[i];
+    }
+
+    public List<TransactionView> toViews() {
+        List<TransactionView> views = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            views.add(new TransactionView(ids[i], accountIds[i], LocalDate.ofEpochDay(epochDays[i]), amounts[i]));
+        }
+        return views;
+    }
+}
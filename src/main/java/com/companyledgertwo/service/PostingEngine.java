@@ -0,0 +1,109 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.exception.AccountNotFoundException;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.TransactionRepository;
+import com.companyledgertwo.util.Money;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Records transactions and applies them to their account balances and rollups in one database
+ * transaction.
+ * Writers to the same account are serialised through {@link AccountLocks}, and the lock is held
+ * until after commit so a posting is never observed half applied on this node. The balance itself
+ * is moved with an in-place increment and each rollup bucket with an upsert, so postings from
+ * concurrent nodes neither lose each other's updates nor collide on a new bucket.
+ */
+@Component
+public class PostingEngine {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final AccountLocks accountLocks;
+    private final AccountCache accountCache;
+    private final AccountRollups accountRollups;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public PostingEngine(TransactionRepository transactionRepository,
+                         AccountRepository accountRepository,
+                         AccountLocks accountLocks,
+                         AccountCache accountCache,
+                         AccountRollups accountRollups,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.accountLocks = accountLocks;
+        this.accountCache = accountCache;
+        this.accountRollups = accountRollups;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Transaction post(Transaction transaction) {
+        Lock lock = accountLocks.lockFor(transaction.getAccountId());
+        lock.lock();
+        try {
+            Transaction posted = transactionTemplate.execute(status -> {
+                credit(transaction.getAccountId(), transaction.getAmountMinor());
+                accountRollups.apply(List.of(transaction));
+                return transactionRepository.save(transaction);
+            });
+            accountCache.invalidate(transaction.getAccountId());
+            return posted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Transaction> postBatch(List<Transaction> transactions) {
+        return postBatch(transactions, () -> {});
+    }
+
+    /**
+     * Posts the batch and runs {@code alongside} in the same database transaction, so whatever it
+     * writes commits or rolls back together with the postings.
+     */
+    public List<Transaction> postBatch(List<Transaction> transactions, Runnable alongside) {
+        // One mutable cell per account keeps the netting loop free of boxing
+        Map<Long, long[]> deltas = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            long[] delta = deltas.computeIfAbsent(transaction.getAccountId(), accountId -> new long[1]);
+            delta[0] = Money.add(delta[0], transaction.getAmountMinor());
+        }
+
+        List<Lock> locks = accountLocks.lockAll(deltas.keySet());
+        try {
+            List<Transaction> posted = transactionTemplate.execute(status -> {
+                deltas.forEach((accountId, delta) -> credit(accountId, delta[0]));
+                accountRollups.apply(transactions);
+                List<Transaction> saved = transactionRepository.saveAll(transactions);
+                alongside.run();
+                entityManager.flush();
+                // Detach the batch so the persistence context does not grow with the size of the feed
+                entityManager.clear();
+                return saved;
+            });
+            accountCache.invalidateAll(deltas.keySet());
+            return posted;
+        } finally {
+            accountLocks.unlockAll(locks);
+        }
+    }
+
+    private void credit(Long accountId, long amount) {
+        if (accountRepository.creditBalance(accountId, amount) == 0) {
+            throw new AccountNotFoundException(accountId);
+        }
+    }
+}
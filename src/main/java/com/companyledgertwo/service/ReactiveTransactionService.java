@@ -0,0 +1,21 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.model.TransactionPage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface ReactiveTransactionService {
+
+    Mono<TransactionPage> findTransactionsByAccountId(long accountId, String cursor, int limit);
+
+    Flux<TransactionView> streamTransactionsByAccountId(long accountId);
+
+    Mono<TransactionPage> findTransactionsBetweenDates(LocalDate start, LocalDate end, String cursor, int limit);
+
+    Mono<TransactionPage> findTransactionsGreaterThan(long amount, String cursor, int limit);
+
+    Mono<TransactionPage> findTransactionsLessThan(long amount, String cursor, int limit);
+}
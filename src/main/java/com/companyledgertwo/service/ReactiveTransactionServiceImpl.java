@@ -0,0 +1,68 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.model.TransactionPage;
+import com.companyledgertwo.repository.ReactiveTransactionRepository;
+import com.companyledgertwo.util.TransactionCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Service
+public class ReactiveTransactionServiceImpl implements ReactiveTransactionService {
+
+    @Autowired
+    private ReactiveTransactionRepository reactiveTransactionRepository;
+
+    @Value("${ledger.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Override
+    public Mono<TransactionPage> findTransactionsByAccountId(long accountId, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        TransactionCursor.DateKey after = cursor == null ? null : TransactionCursor.decodeDate(cursor);
+        return reactiveTransactionRepository.findByAccountId(accountId, after, pageSize + 1)
+                .collectList()
+                .map(rows -> TransactionPage.of(rows, pageSize, last -> TransactionCursor.ofDate(last.date(), last.id())));
+    }
+
+    @Override
+    public Flux<TransactionView> streamTransactionsByAccountId(long accountId) {
+        return reactiveTransactionRepository.streamByAccountId(accountId);
+    }
+
+    @Override
+    public Mono<TransactionPage> findTransactionsBetweenDates(LocalDate start, LocalDate end, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        TransactionCursor.DateKey after = cursor == null ? null : TransactionCursor.decodeDate(cursor);
+        return reactiveTransactionRepository.findBetweenDates(start, end, after, pageSize + 1)
+                .collectList()
+                .map(rows -> TransactionPage.of(rows, pageSize, last -> TransactionCursor.ofDate(last.date(), last.id())));
+    }
+
+    @Override
+    public Mono<TransactionPage> findTransactionsGreaterThan(long amount, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        TransactionCursor.AmountKey after = cursor == null ? null : TransactionCursor.decodeAmount(cursor);
+        return reactiveTransactionRepository.findAmountGreaterThan(amount, after, pageSize + 1)
+                .collectList()
+                .map(rows -> TransactionPage.of(rows, pageSize, last -> TransactionCursor.ofAmount(last.amount(), last.id())));
+    }
+
+    @Override
+    public Mono<TransactionPage> findTransactionsLessThan(long amount, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        TransactionCursor.AmountKey after = cursor == null ? null : TransactionCursor.decodeAmount(cursor);
+        return reactiveTransactionRepository.findAmountLessThan(amount, after, pageSize + 1)
+                .collectList()
+                .map(rows -> TransactionPage.of(rows, pageSize, last -> TransactionCursor.ofAmount(last.amount(), last.id())));
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+}
@@ -0,0 +1,420 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory copy of every transaction, held per account as parallel primitive columns.
+ * Each account keeps one copy ordered by (epoch day, id) and one ordered by (amount, id), so date
+ * ranges, amount thresholds and keyset pages are binary searches followed by array copies.
+ * <p>
+ * The index is filled once the application is ready and is then fed with every posting this node
+ * commits. Rows written by other nodes are not seen, so reads are only served from the index when
+ * {@code ledger.transaction-index.serve-reads} is set as well. With snapshots enabled the fill
+ * starts from the latest {@link TransactionIndexSnapshots} file and only reads the rows after it.
+ */
+@Component
+public class TransactionIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionIndex.class);
+
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionIndexSnapshots snapshots;
+    private final boolean enabled;
+    private final boolean serveReads;
+
+    private final Map<Long, AccountColumns> accounts = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long highWaterMark;
+    private volatile boolean loaded;
+
+    public TransactionIndex(TransactionRepository transactionRepository,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            TransactionIndexSnapshots snapshots,
+                            @Value("${ledger.transaction-index.enabled:false}") boolean enabled,
+                            @Value("${ledger.transaction-index.serve-reads:false}") boolean serveReads) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.snapshots = snapshots;
+        this.enabled = enabled;
+        this.serveReads = serveReads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        long replayAfter = snapshots.readLatest()
+                .map(snapshot -> {
+                    restore(snapshot);
+                    LOGGER.info("Transaction index restored {} transactions up to id {} from snapshot",
+                            snapshot.transactionCount(), snapshot.highWaterMark());
+                    return Math.max(0, snapshot.highWaterMark() - snapshots.replayOverlap());
+                })
+                .orElse(-1L);
+        long count = readOnlyTransaction.execute(status -> {
+            long rows = 0;
+            try (Stream<Transaction> transactions = replayAfter < 0
+                    ? transactionRepository.streamAllByOrderByIdAsc()
+                    : transactionRepository.streamByIdGreaterThanOrderByIdAsc(replayAfter)) {
+                Iterator<Transaction> iterator = transactions.iterator();
+                while (iterator.hasNext()) {
+                    Transaction transaction = iterator.next();
+                    add(transaction);
+                    entityManager.detach(transaction);
+                    rows++;
+                }
+            }
+            return rows;
+        });
+        loaded = true;
+        LOGGER.info("Transaction index loaded {} transactions in {} ms", count, (System.nanoTime() - startedAt) / 1_000_000);
+        snapshots.schedule(this::snapshot);
+    }
+
+    /**
+     * Writes the current contents to a snapshot file right away.
+     */
+    public void writeSnapshot() throws IOException {
+        snapshots.write(snapshot());
+    }
+
+    // Columns are copied under the read lock and written out after it is released
+    IndexSnapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            List<IndexSnapshot.Account> copies = new ArrayList<>(accounts.size());
+            accounts.forEach((accountId, account) -> copies.add(account.byDate.copy(accountId)));
+            return new IndexSnapshot(highWaterMark, copies);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void restore(IndexSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            accounts.clear();
+            for (IndexSnapshot.Account account : snapshot.accounts()) {
+                accounts.put(account.accountId(), AccountColumns.of(account));
+            }
+            highWaterMark = snapshot.highWaterMark();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean servesReads() {
+        return enabled && serveReads && loaded;
+    }
+
+    /**
+     * Adds a committed transaction. Postings that land while the index is loading may be seen
+     * twice, so an (id, key) pair that is already present is ignored.
+     */
+    public void add(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        long id = transaction.getId();
+        int epochDay = Math.toIntExact(transaction.getDate().toEpochDay());
+        long amount = transaction.getAmountMinor();
+        lock.writeLock().lock();
+        try {
+            accounts.computeIfAbsent(transaction.getAccountId(), accountId -> new AccountColumns())
+                    .add(id, epochDay, amount);
+            highWaterMark = Math.max(highWaterMark, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(Iterable<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            add(transaction);
+        }
+    }
+
+    public IndexedTransactions findByAccountId(long accountId) {
+        return findByAccountIdAfter(accountId, null, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Keyset page of one account's transactions in (date, id) order, starting strictly after
+     * {@code (afterDate, afterId)}, or at the beginning when {@code afterDate} is null.
+     */
+    public IndexedTransactions findByAccountIdAfter(long accountId, LocalDate afterDate, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            AccountColumns account = accounts.get(accountId);
+            if (account == null) {
+                return new IndexedTransactions(0);
+            }
+            Columns byDate = account.byDate;
+            int from = afterDate == null ? 0 : byDate.firstAfter(afterDate.toEpochDay(), afterId);
+            int to = (int) Math.min(byDate.size, (long) from + limit);
+            IndexedTransactions result = new IndexedTransactions(to - from);
+            byDate.copyTo(result, accountId, from, to);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public IndexedTransactions findBetweenDates(LocalDate start, LocalDate end) {
+        long startDay = start.toEpochDay();
+        long endDay = end.toEpochDay();
+        lock.readLock().lock();
+        try {
+            return collect(false, columns -> columns.firstAtOrAfter(startDay), columns -> columns.firstAtOrAfter(endDay + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public IndexedTransactions findAmountGreaterThan(long amount) {
+        lock.readLock().lock();
+        try {
+            if (amount == Long.MAX_VALUE) {
+                return new IndexedTransactions(0);
+            }
+            return collect(true, columns -> columns.firstAtOrAfter(amount + 1), columns -> columns.size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public IndexedTransactions findAmountLessThan(long amount) {
+        lock.readLock().lock();
+        try {
+            return collect(true, columns -> 0, columns -> columns.firstAtOrAfter(amount));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Two passes under the same read lock: count the matches, then copy them into exactly sized columns.
+    private IndexedTransactions collect(boolean byAmount, Bound from, Bound to) {
+        int total = 0;
+        for (AccountColumns account : accounts.values()) {
+            Columns columns = account.columns(byAmount);
+            total += to.of(columns) - from.of(columns);
+        }
+        IndexedTransactions result = new IndexedTransactions(total);
+        for (Map.Entry<Long, AccountColumns> entry : accounts.entrySet()) {
+            Columns columns = entry.getValue().columns(byAmount);
+            columns.copyTo(result, entry.getKey(), from.of(columns), to.of(columns));
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface Bound {
+        int of(Columns columns);
+    }
+
+    private static final class AccountColumns {
+        private final Columns byDate;
+        private final Columns byAmount;
+
+        AccountColumns() {
+            this(new Columns(false), new Columns(true));
+        }
+
+        private AccountColumns(Columns byDate, Columns byAmount) {
+            this.byDate = byDate;
+            this.byAmount = byAmount;
+        }
+
+        // Snapshots hold the date order only; the amount order is sorted again from it
+        static AccountColumns of(IndexSnapshot.Account account) {
+            return new AccountColumns(Columns.byDate(account), Columns.byAmount(account));
+        }
+
+        void add(long id, int epochDay, long amount) {
+            if (byDate.insert(id, epochDay, amount)) {
+                byAmount.insert(id, epochDay, amount);
+            }
+        }
+
+        Columns columns(boolean amountOrder) {
+            return amountOrder ? byAmount : byDate;
+        }
+    }
+
+    /**
+     * Growable parallel arrays kept sorted by (key, id), where the key is either the epoch day or
+     * the amount. New postings are usually dated today, so inserts are mostly appends.
+     */
+    private static final class Columns {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private final boolean keyedByAmount;
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private int[] epochDays = new int[INITIAL_CAPACITY];
+        private long[] amounts = new long[INITIAL_CAPACITY];
+        private int size;
+
+        Columns(boolean keyedByAmount) {
+            this.keyedByAmount = keyedByAmount;
+        }
+
+        static Columns byDate(IndexSnapshot.Account account) {
+            int size = account.size();
+            int capacity = Math.max(INITIAL_CAPACITY, size);
+            Columns columns = new Columns(false);
+            columns.ids = Arrays.copyOf(account.ids(), capacity);
+            columns.epochDays = Arrays.copyOf(account.epochDays(), capacity);
+            columns.amounts = Arrays.copyOf(account.amounts(), capacity);
+            columns.size = size;
+            return columns;
+        }
+
+        static Columns byAmount(IndexSnapshot.Account account) {
+            int size = account.size();
+            int[] order = amountOrder(account.amounts(), account.ids());
+            int capacity = Math.max(INITIAL_CAPACITY, size);
+            Columns columns = new Columns(true);
+            columns.ids = new long[capacity];
+            columns.epochDays = new int[capacity];
+            columns.amounts = new long[capacity];
+            for (int i = 0; i < size; i++) {
+                int from = order[i];
+                columns.ids[i] = account.ids()[from];
+                columns.epochDays[i] = account.epochDays()[from];
+                columns.amounts[i] = account.amounts()[from];
+            }
+            columns.size = size;
+            return columns;
+        }
+
+        // Bottom-up merge sort of row positions by (amount, id). Amounts use the full long range, so
+        // they cannot be packed together with a position into one sortable long.
+        static int[] amountOrder(long[] amounts, long[] ids) {
+            int size = amounts.length;
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            int[] buffer = new int[size];
+            for (int width = 1; width < size; width <<= 1) {
+                for (int low = 0; low < size - width; low += width << 1) {
+                    int middle = low + width;
+                    int high = (int) Math.min(size, (long) middle + width);
+                    int left = low;
+                    int right = middle;
+                    int out = low;
+                    while (left < middle && right < high) {
+                        int a = order[left];
+                        int b = order[right];
+                        int cmp = Long.compare(amounts[a], amounts[b]);
+                        if (cmp == 0) {
+                            cmp = Long.compare(ids[a], ids[b]);
+                        }
+                        buffer[out++] = cmp <= 0 ? order[left++] : order[right++];
+                    }
+                    System.arraycopy(order, left, buffer, out, middle - left);
+                    out += middle - left;
+                    System.arraycopy(order, right, buffer, out, high - right);
+                    System.arraycopy(buffer, low, order, low, high - low);
+                }
+            }
+            return order;
+        }
+
+        IndexSnapshot.Account copy(long accountId) {
+            return new IndexSnapshot.Account(accountId, Arrays.copyOf(ids, size),
+                    Arrays.copyOf(epochDays, size), Arrays.copyOf(amounts, size));
+        }
+
+        boolean insert(long id, int epochDay, long amount) {
+            long key = keyedByAmount ? amount : epochDay;
+            int position = search(key, id, false);
+            if (position < size && key(position) == key && ids[position] == id) {
+                return false;
+            }
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                amounts = Arrays.copyOf(amounts, capacity);
+            }
+            int tail = size - position;
+            if (tail > 0) {
+                System.arraycopy(ids, position, ids, position + 1, tail);
+                System.arraycopy(epochDays, position, epochDays, position + 1, tail);
+                System.arraycopy(amounts, position, amounts, position + 1, tail);
+            }
+            ids[position] = id;
+            epochDays[position] = epochDay;
+            amounts[position] = amount;
+            size++;
+            return true;
+        }
+
+        int firstAtOrAfter(long key) {
+            return search(key, Long.MIN_VALUE, false);
+        }
+
+        int firstAfter(long key, long id) {
+            return search(key, id, true);
+        }
+
+        void copyTo(IndexedTransactions result, long accountId, int from, int to) {
+            if (from < to) {
+                result.append(accountId, ids, epochDays, amounts, from, to);
+            }
+        }
+
+        private long key(int i) {
+            return keyedByAmount ? amounts[i] : epochDays[i];
+        }
+
+        // First position whose (key, id) is >= the probe, or > it when strict is set.
+        private int search(long key, long id, boolean strict) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Long.compare(key(mid), key);
+                if (cmp == 0) {
+                    cmp = Long.compare(ids[mid], id);
+                }
+                if (cmp < 0 || (strict && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
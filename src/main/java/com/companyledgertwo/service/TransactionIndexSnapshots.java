@@ -0,0 +1,247 @@
+package com.companyledgertwo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshots of the {@link TransactionIndex} on local disk, so a restart loads the latest
+ * file and only replays the rows posted after its high-water mark instead of scanning the whole
+ * transactions table.
+ * <p>
+ * A file holds a header (magic, version, high-water mark, account count), then per account its
+ * id, row count and {@code (id, epoch day, amount)} rows in date order, and finally a CRC32C of
+ * everything before it. Files are written under a temporary name and renamed into place, and a
+ * file that fails its checksum is skipped in favour of the one before it.
+ */
+@Component
+public class TransactionIndexSnapshots {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionIndexSnapshots.class);
+    private static final int MAGIC = 0x4C494458;
+    private static final int VERSION = 1;
+    private static final String PREFIX = "transaction-index-";
+    private static final String SUFFIX = ".snapshot";
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int ACCOUNT_BYTES = 8 + 4;
+    private static final int ROW_BYTES = 8 + 4 + 8;
+    private static final int CHECKSUM_BYTES = 8;
+    private static final int CHUNK_ROWS = 64 * 1024;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration interval;
+    private final int retained;
+    private final long replayOverlap;
+
+    private ScheduledExecutorService scheduler;
+    private Supplier<IndexSnapshot> source;
+
+    public TransactionIndexSnapshots(@Value("${ledger.transaction-index.snapshot.enabled:false}") boolean enabled,
+                                     @Value("${ledger.transaction-index.snapshot.directory:snapshots}") Path directory,
+                                     @Value("${ledger.transaction-index.snapshot.interval:PT10M}") Duration interval,
+                                     @Value("${ledger.transaction-index.snapshot.retained:2}") int retained,
+                                     @Value("${ledger.transaction-index.snapshot.replay-overlap:10000}") long replayOverlap) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.interval = interval;
+        this.retained = Math.max(1, retained);
+        this.replayOverlap = Math.max(0, replayOverlap);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * How far below the high-water mark replay starts. Ids are drawn in blocks, so a posting that
+     * commits just after a snapshot can carry a lower id than the mark.
+     */
+    public long replayOverlap() {
+        return replayOverlap;
+    }
+
+    /**
+     * Writes a snapshot every {@code interval}, and once more on shutdown.
+     */
+    public synchronized void schedule(Supplier<IndexSnapshot> source) {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        this.source = source;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-index-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::writeQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        writeQuietly();
+    }
+
+    Optional<IndexSnapshot> readLatest() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        List<Path> files = snapshotFiles();
+        for (int i = files.size() - 1; i >= 0; i--) {
+            Path file = files.get(i);
+            try {
+                return Optional.of(read(file));
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Ignoring unreadable transaction index snapshot {}: {}", file, e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    Path write(IndexSnapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, snapshot.highWaterMark(), SUFFIX));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        long startedAt = System.nanoTime();
+        try (OutputStream fileOutput = new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16)) {
+            CheckedOutputStream checked = new CheckedOutputStream(fileOutput, new CRC32C());
+            DataOutputStream output = new DataOutputStream(checked);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(snapshot.highWaterMark());
+            output.writeInt(snapshot.accounts().size());
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_ROWS * ROW_BYTES);
+            for (IndexSnapshot.Account account : snapshot.accounts()) {
+                output.writeLong(account.accountId());
+                output.writeInt(account.size());
+                for (int from = 0; from < account.size(); from += CHUNK_ROWS) {
+                    int to = Math.min(account.size(), from + CHUNK_ROWS);
+                    chunk.clear();
+                    for (int i = from; i < to; i++) {
+                        chunk.putLong(account.ids()[i]).putInt(account.epochDays()[i]).putLong(account.amounts()[i]);
+                    }
+                    output.write(chunk.array(), 0, chunk.position());
+                }
+            }
+            output.flush();
+            new DataOutputStream(fileOutput).writeLong(checked.getChecksum().getValue());
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.info("Wrote transaction index snapshot {} with {} transactions in {} ms", file.getFileName(),
+                snapshot.transactionCount(), (System.nanoTime() - startedAt) / 1_000_000);
+        prune();
+        return file;
+    }
+
+    private IndexSnapshot read(Path file) throws IOException {
+        // The checksum comes last, so counts read before it are only trusted as far as the file reaches
+        long remaining = Files.size(file) - HEADER_BYTES - CHECKSUM_BYTES;
+        try (InputStream fileInput = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            CheckedInputStream checked = new CheckedInputStream(fileInput, new CRC32C());
+            DataInputStream input = new DataInputStream(checked);
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("not a version " + VERSION + " transaction index snapshot");
+            }
+            long highWaterMark = input.readLong();
+            int accountCount = input.readInt();
+            if (accountCount < 0 || accountCount > remaining / ACCOUNT_BYTES) {
+                throw new IOException("account count " + accountCount + " does not fit the file");
+            }
+            List<IndexSnapshot.Account> accounts = new ArrayList<>(accountCount);
+            byte[] chunk = new byte[CHUNK_ROWS * ROW_BYTES];
+            for (int a = 0; a < accountCount; a++) {
+                long accountId = input.readLong();
+                int size = input.readInt();
+                remaining -= ACCOUNT_BYTES;
+                if (size < 0 || size > remaining / ROW_BYTES) {
+                    throw new IOException("row count " + size + " of account " + accountId + " does not fit the file");
+                }
+                remaining -= (long) size * ROW_BYTES;
+                long[] ids = new long[size];
+                int[] epochDays = new int[size];
+                long[] amounts = new long[size];
+                for (int from = 0; from < size; from += CHUNK_ROWS) {
+                    int to = Math.min(size, from + CHUNK_ROWS);
+                    input.readFully(chunk, 0, (to - from) * ROW_BYTES);
+                    ByteBuffer rows = ByteBuffer.wrap(chunk);
+                    for (int i = from; i < to; i++) {
+                        ids[i] = rows.getLong();
+                        epochDays[i] = rows.getInt();
+                        amounts[i] = rows.getLong();
+                    }
+                }
+                accounts.add(new IndexSnapshot.Account(accountId, ids, epochDays, amounts));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (new DataInputStream(fileInput).readLong() != expected) {
+                throw new IOException("checksum mismatch");
+            }
+            return new IndexSnapshot(highWaterMark, accounts);
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            write(source.get());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Transaction index snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void prune() throws IOException {
+        List<Path> files = snapshotFiles();
+        for (int i = 0; i < files.size() - retained; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    // Names carry the zero-padded high-water mark, so name order is snapshot order
+    private List<Path> snapshotFiles() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.companyledgertwo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the monthly partitions of the PostgreSQL transactions table ahead of the calendar and,
+ * when a retention is set, detaches the months that fell out of it. The work is done by the
+ * functions from {@code V7__partition_transactions_by_month.sql}; this only calls them on startup
+ * and then every {@code check-interval}.
+ * <p>
+ * Other databases, such as the H2 schema the tests run against, keep a single unpartitioned
+ * table and are left alone.
+ */
+@Component
+public class TransactionPartitionMaintenance {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionPartitionMaintenance.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Duration checkInterval;
+    private final Clock clock;
+
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public TransactionPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                           @Value("${ledger.partitions.enabled:true}") boolean enabled,
+                                           @Value("${ledger.partitions.months-ahead:3}") int monthsAhead,
+                                           @Value("${ledger.partitions.retention-months:0}") int retentionMonths,
+                                           @Value("${ledger.partitions.check-interval:PT24H}") Duration checkInterval) {
+        this(jdbcTemplate, enabled, monthsAhead, retentionMonths, checkInterval, Clock.systemDefaultZone());
+    }
+
+    TransactionPartitionMaintenance(JdbcTemplate jdbcTemplate, boolean enabled, int monthsAhead, int retentionMonths,
+                                    Duration checkInterval, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = Math.max(0, monthsAhead);
+        this.retentionMonths = Math.max(0, retentionMonths);
+        this.checkInterval = checkInterval;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || !isPostgres()) {
+            return;
+        }
+        maintainQuietly();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::maintainQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the partitions still missing for this month and the {@code months-ahead} after it,
+     * then detaches the months older than {@code retention-months}; a retention of 0 keeps every month.
+     */
+    void maintain() {
+        Integer created = jdbcTemplate.queryForObject("SELECT ensure_transaction_partitions(?)", Integer.class, monthsAhead);
+        if (created != null && created > 0) {
+            LOGGER.info("Created {} transaction partitions", created);
+        }
+        if (retentionMonths > 0) {
+            LocalDate cutoff = LocalDate.now(clock).withDayOfMonth(1).minusMonths(retentionMonths);
+            Integer detached = jdbcTemplate.queryForObject("SELECT detach_transaction_partitions_before(?)", Integer.class,
+                    Date.valueOf(cutoff));
+            if (detached != null && detached > 0) {
+                LOGGER.info("Detached {} transaction partitions before {}", detached, cutoff);
+            }
+        }
+    }
+
+    boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (DataAccessException e) {
+            LOGGER.error("Transaction partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,18 +1,73 @@
 package com.companyledgertwo.service;
 
+import com.companyledgertwo.model.PostingOutcome;
+import com.companyledgertwo.model.PostingReceipt;
 import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionBatchResult;
+import com.companyledgertwo.model.TransactionFilter;
+import com.companyledgertwo.model.TransactionPage;
+import com.companyledgertwo.model.TransactionSort;
+import com.companyledgertwo.model.TransactionView;
 
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TransactionService {
     Transaction createTransaction(Transaction transaction);
 
-    List<Transaction> findTransactionsByAccountId(Long accountId);
+    /**
+     * Posts the transaction once per idempotency key. A repeated key returns the transaction the
+     * key first posted instead of inserting another one.
+     */
+    Transaction createTransaction(Transaction transaction, String idempotencyKey);
 
-    List<Transaction> findTransactionsBetweenDates(LocalDate start, LocalDate end);
+    /**
+     * The transaction already posted under this key, if this node still remembers it, else null.
+     */
+    Transaction findPostedTransaction(String idempotencyKey);
 
-    List<Transaction> findTransactionsGreaterThan(Double amount);
+    /**
+     * Whether single postings are written to the journal and applied to the database later.
+     */
+    boolean isJournalEnabled();
 
-    List<Transaction> findTransactionsLessThan(Double amount);
+    /**
+     * Validates the posting and appends it to the journal. It is applied to the database by the
+     * journal projector. A repeated idempotency key returns the receipt the key was first given.
+     */
+    PostingReceipt acceptTransaction(Transaction transaction, String idempotencyKey);
+
+    /**
+     * Whether the journaled posting with this sequence is pending, applied or rejected, or null
+     * if the journal never gave out the sequence.
+     */
+    PostingOutcome findPostingOutcome(long sequence);
+
+    List<TransactionBatchResult> createTransactions(Iterator<Transaction> transactions);
+
+    List<TransactionView> findTransactionsByAccountId(Long accountId);
+
+    long exportTransactionsByAccountId(Long accountId, Consumer<TransactionView> sink);
+
+    List<TransactionView> findTransactionsBetweenDates(LocalDate start, LocalDate end);
+
+    List<TransactionView> findTransactionsGreaterThan(long amount);
+
+    List<TransactionView> findTransactionsLessThan(long amount);
+
+    TransactionPage findTransactionsByAccountId(Long accountId, String cursor, int limit);
+
+    TransactionPage findTransactionsBetweenDates(LocalDate start, LocalDate end, String cursor, int limit);
+
+    TransactionPage findTransactionsGreaterThan(long amount, String cursor, int limit);
+
+    TransactionPage findTransactionsLessThan(long amount, String cursor, int limit);
+
+    /**
+     * One page of the transactions matching every condition of {@code filter}, in {@code sort}
+     * order. The cursor must come from a search with the same sort.
+     */
+    TransactionPage searchTransactions(TransactionFilter filter, TransactionSort sort, String cursor, int limit);
 }
@@ -1,13 +1,38 @@
 package com.companyledgertwo.service;
 
+import com.companyledgertwo.exception.AccountNotFoundException;
+import com.companyledgertwo.journal.JournalEntry;
+import com.companyledgertwo.journal.JournalProjector;
+import com.companyledgertwo.journal.PostingJournal;
+import com.companyledgertwo.model.PostingOutcome;
+import com.companyledgertwo.model.PostingReceipt;
 import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionBatchResult;
+import com.companyledgertwo.model.TransactionFilter;
+import com.companyledgertwo.model.TransactionPage;
+import com.companyledgertwo.model.TransactionSort;
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.JournalRejectionRepository;
 import com.companyledgertwo.repository.TransactionRepository;
+import com.companyledgertwo.util.TransactionCursor;
 import com.companyledgertwo.util.TransactionValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
@@ -15,29 +40,319 @@ public class TransactionServiceImpl implements TransactionService {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PostingEngine postingEngine;
+
+    @Autowired
+    private TransactionIndex transactionIndex;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @Autowired
+    private GroupCommitPoster groupCommitPoster;
+
+    @Autowired
+    private PostingJournal postingJournal;
+
+    @Autowired
+    private JournalProjector journalProjector;
+
+    @Autowired
+    private JournalRejectionRepository journalRejectionRepository;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Value("${ledger.batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    @Value("${ledger.pagination.max-page-size:500}")
+    private int maxPageSize;
+
     @Override
     public Transaction createTransaction(Transaction transaction) {
         TransactionValidator.validateTransaction(transaction);
-        return transactionRepository.save(transaction);
+        Transaction posted = groupCommitPoster.isEnabled()
+                ? groupCommitPoster.post(transaction)
+                : postingEngine.post(transaction);
+        transactionIndex.add(posted);
+        // The posting engine retired the account version before the index had the posting
+        if (transactionIndex.servesReads()) {
+            accountCache.invalidateVersions(List.of(posted.getAccountId()));
+        }
+        return posted;
+    }
+
+    @Override
+    public Transaction findPostedTransaction(String idempotencyKey) {
+        return idempotencyCache.get(idempotencyKey);
+    }
+
+    @Override
+    public Transaction createTransaction(Transaction transaction, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createTransaction(transaction);
+        }
+        Transaction previous = idempotencyCache.get(idempotencyKey);
+        if (previous != null) {
+            return previous;
+        }
+        transaction.setIdempotencyKey(idempotencyKey);
+        Transaction posted;
+        try {
+            posted = createTransaction(transaction);
+        } catch (DataIntegrityViolationException e) {
+            // The key was posted before it left the cache, by another node, or by a concurrent retry.
+            // The whole posting rolled back, so the balance was not credited twice.
+            posted = transactionRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+        }
+        idempotencyCache.put(idempotencyKey, posted);
+        return posted;
+    }
+
+    @Override
+    public boolean isJournalEnabled() {
+        return postingJournal.isEnabled();
+    }
+
+    @Override
+    public PostingReceipt acceptTransaction(Transaction transaction, String idempotencyKey) {
+        TransactionValidator.validateTransaction(transaction);
+        if (idempotencyKey != null) {
+            JournalEntry previous = postingJournal.findByKey(idempotencyKey);
+            if (previous != null) {
+                return toReceipt(previous);
+            }
+        }
+        // Usually answered from the cache, so accepting a posting does not touch the database
+        Long accountId = transaction.getAccountId();
+        if (accountCache.get(accountId, accountRepository::findViewById) == null) {
+            throw new AccountNotFoundException(accountId);
+        }
+        // A concurrent retry that got past the lookup above is still given the first receipt here
+        return toReceipt(postingJournal.append(accountId, transaction.getDate(), transaction.getAmountMinor(), idempotencyKey));
     }
 
     @Override
-    public List<Transaction> findTransactionsByAccountId(Long accountId) {
+    public PostingOutcome findPostingOutcome(long sequence) {
+        if (sequence < 1 || sequence > postingJournal.lastSequence()) {
+            return null;
+        }
+        if (sequence > journalProjector.projectedSequence()) {
+            return new PostingOutcome(sequence, PostingOutcome.Status.PENDING, null);
+        }
+        return journalRejectionRepository.findById(sequence)
+                .map(rejection -> new PostingOutcome(sequence, PostingOutcome.Status.REJECTED, rejection.getReason()))
+                .orElseGet(() -> new PostingOutcome(sequence, PostingOutcome.Status.APPLIED, null));
+    }
+
+    private static PostingReceipt toReceipt(JournalEntry entry) {
+        return new PostingReceipt(entry.sequence(), entry.accountId(), entry.date(), entry.amountMinor());
+    }
+
+    @Override
+    public List<TransactionBatchResult> createTransactions(Iterator<Transaction> transactions) {
+        List<TransactionBatchResult> results = new ArrayList<>();
+        List<Transaction> chunk = new ArrayList<>(batchChunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(batchChunkSize);
+        int index = 0;
+
+        while (true) {
+            Transaction transaction;
+            try {
+                if (!transactions.hasNext()) {
+                    break;
+                }
+                transaction = transactions.next();
+            } catch (RuntimeException e) {
+                // The input is unreadable from here on, so keep what was accepted so far and stop.
+                commitChunk(chunk, chunkIndexes, results);
+                results.add(TransactionBatchResult.rejected(index, "Malformed transaction: " + e.getMessage()));
+                break;
+            }
+
+            try {
+                TransactionValidator.validateTransaction(transaction);
+                chunk.add(transaction);
+                chunkIndexes.add(index);
+            } catch (IllegalArgumentException e) {
+                results.add(TransactionBatchResult.rejected(index, e.getMessage()));
+            }
+            index++;
+
+            if (chunk.size() >= batchChunkSize) {
+                commitChunk(chunk, chunkIndexes, results);
+            }
+        }
+
+        commitChunk(chunk, chunkIndexes, results);
+        results.sort(Comparator.comparingInt(TransactionBatchResult::index));
+        return results;
+    }
+
+    private void commitChunk(List<Transaction> chunk, List<Integer> chunkIndexes, List<TransactionBatchResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<Long> accountIds = new HashSet<>();
+        chunk.forEach(transaction -> accountIds.add(transaction.getAccountId()));
+        Set<Long> existingAccountIds = new HashSet<>(accountRepository.findExistingIds(accountIds));
+
+        List<Transaction> postable = new ArrayList<>(chunk.size());
+        List<Integer> postableIndexes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Transaction transaction = chunk.get(i);
+            if (existingAccountIds.contains(transaction.getAccountId())) {
+                postable.add(transaction);
+                postableIndexes.add(chunkIndexes.get(i));
+            } else {
+                results.add(TransactionBatchResult.rejected(chunkIndexes.get(i), "Account not found: " + transaction.getAccountId()));
+            }
+        }
+
+        if (!postable.isEmpty()) {
+            try {
+                List<Transaction> posted = postingEngine.postBatch(postable);
+                transactionIndex.addAll(posted);
+                if (transactionIndex.servesReads()) {
+                    accountCache.invalidateVersions(existingAccountIds);
+                }
+                for (int i = 0; i < posted.size(); i++) {
+                    results.add(TransactionBatchResult.created(postableIndexes.get(i), posted.get(i).getId()));
+                }
+            } catch (RuntimeException e) {
+                for (Integer index : postableIndexes) {
+                    results.add(TransactionBatchResult.failed(index, e.getMessage()));
+                }
+            }
+        }
+
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    @Override
+    public List<TransactionView> findTransactionsByAccountId(Long accountId) {
+        if (transactionIndex.servesReads()) {
+            return transactionIndex.findByAccountId(accountId).toViews();
+        }
         return transactionRepository.findByAccountId(accountId);
     }
 
     @Override
-    public List<Transaction> findTransactionsBetweenDates(LocalDate start, LocalDate end) {
+    @Transactional(readOnly = true)
+    public long exportTransactionsByAccountId(Long accountId, Consumer<TransactionView> sink) {
+        long count = 0;
+        // Records are never managed, so memory stays flat however long the history is
+        try (Stream<TransactionView> transactions = transactionRepository.streamByAccountIdOrderByIdAsc(accountId)) {
+            Iterator<TransactionView> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<TransactionView> findTransactionsBetweenDates(LocalDate start, LocalDate end) {
+        if (transactionIndex.servesReads()) {
+            return transactionIndex.findBetweenDates(start, end).toViews();
+        }
         return transactionRepository.findByDateBetween(start, end);
     }
 
     @Override
-    public List<Transaction> findTransactionsGreaterThan(Double amount) {
+    public List<TransactionView> findTransactionsGreaterThan(long amount) {
+        if (transactionIndex.servesReads()) {
+            return transactionIndex.findAmountGreaterThan(amount).toViews();
+        }
         return transactionRepository.findByAmountGreaterThan(amount);
     }
 
     @Override
-    public List<Transaction> findTransactionsLessThan(Double amount) {
+    public List<TransactionView> findTransactionsLessThan(long amount) {
+        if (transactionIndex.servesReads()) {
+            return transactionIndex.findAmountLessThan(amount).toViews();
+        }
         return transactionRepository.findByAmountLessThan(amount);
     }
+
+    @Override
+    public TransactionPage findTransactionsByAccountId(Long accountId, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        TransactionCursor.DateKey after = cursor == null ? null : TransactionCursor.decodeDate(cursor);
+        List<TransactionView> rows;
+        if (transactionIndex.servesReads()) {
+            LocalDate afterDate = after == null ? null : after.date();
+            long afterId = after == null ? 0 : after.id();
+            rows = transactionIndex.findByAccountIdAfter(accountId, afterDate, afterId, pageSize + 1).toViews();
+        } else if (after == null) {
+            rows = transactionRepository.findByAccountIdOrderByDateAscIdAsc(accountId, Limit.of(pageSize + 1));
+        } else {
+            rows = transactionRepository.findByAccountIdAfter(accountId, after.date(), after.id(), Limit.of(pageSize + 1));
+        }
+        return TransactionPage.of(rows, pageSize, last -> TransactionCursor.ofDate(last.date(), last.id()));
+    }
+
+    @Override
+    public TransactionPage findTransactionsBetweenDates(LocalDate start, LocalDate end, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        List<TransactionView> rows;
+        if (cursor == null) {
+            rows = transactionRepository.findByDateBetweenOrderByDateAscIdAsc(start, end, Limit.of(pageSize + 1));
+        } else {
+            TransactionCursor.DateKey after = TransactionCursor.decodeDate(cursor);
+            rows = transactionRepository.findByDateBetweenAfter(start, end, after.date(), after.id(), Limit.of(pageSize + 1));
+        }
+        return TransactionPage.of(rows, pageSize, last -> TransactionCursor.ofDate(last.date(), last.id()));
+    }
+
+    @Override
+    public TransactionPage findTransactionsGreaterThan(long amount, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        List<TransactionView> rows;
+        if (cursor == null) {
+            rows = transactionRepository.findByAmountGreaterThanOrderByAmountAscIdAsc(amount, Limit.of(pageSize + 1));
+        } else {
+            TransactionCursor.AmountKey after = TransactionCursor.decodeAmount(cursor);
+            rows = transactionRepository.findByAmountGreaterThanAfter(amount, after.amount(), after.id(), Limit.of(pageSize + 1));
+        }
+        return TransactionPage.of(rows, pageSize, last -> TransactionCursor.ofAmount(last.amount(), last.id()));
+    }
+
+    @Override
+    public TransactionPage findTransactionsLessThan(long amount, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        List<TransactionView> rows;
+        if (cursor == null) {
+            rows = transactionRepository.findByAmountLessThanOrderByAmountAscIdAsc(amount, Limit.of(pageSize + 1));
+        } else {
+            TransactionCursor.AmountKey after = TransactionCursor.decodeAmount(cursor);
+            rows = transactionRepository.findByAmountLessThanAfter(amount, after.amount(), after.id(), Limit.of(pageSize + 1));
+        }
+        return TransactionPage.of(rows, pageSize, last -> TransactionCursor.ofAmount(last.amount(), last.id()));
+    }
+
+    @Override
+    public TransactionPage searchTransactions(TransactionFilter filter, TransactionSort sort, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        TransactionCursor.Key after = null;
+        if (cursor != null) {
+            after = sort.byDate() ? TransactionCursor.decodeDate(cursor) : TransactionCursor.decodeAmount(cursor);
+        }
+        List<TransactionView> rows = transactionRepository.search(filter, sort, after, pageSize + 1);
+        return TransactionPage.of(rows, pageSize, last -> sort.byDate()
+                ? TransactionCursor.ofDate(last.date(), last.id())
+                : TransactionCursor.ofAmount(last.amount(), last.id()));
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
 }
@@ -0,0 +1,34 @@
+package com.companyledgertwo.util;
+
+import com.companyledgertwo.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for account listings, which are ordered by id alone: the cursor is the id
+ * of the last account of a page.
+ */
+public final class AccountCursor {
+
+    private static final String PREFIX = "i:";
+
+    private AccountCursor() {
+    }
+
+    public static String of(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (value.startsWith(PREFIX)) {
+                return Long.parseLong(value.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the cursor error below
+        }
+        throw new InvalidCursorException(cursor);
+    }
+}
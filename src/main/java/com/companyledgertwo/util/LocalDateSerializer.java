@@ -3,6 +3,8 @@ package com.companyledgertwo.util;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 
 import java.io.IOException;
 import java.time.LocalDate;
@@ -10,9 +12,35 @@ import java.time.format.DateTimeFormatter;
 
 public class LocalDateSerializer extends JsonSerializer<LocalDate> {
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    // The generator copies the text out straight away, so one buffer per thread serves every value
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[10]);
 
     @Override
     public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
-        gen.writeString(value.format(dateFormatter));
+        if (gen instanceof CBORGenerator || gen instanceof SmileGenerator) {
+            // Binary formats get the epoch day, which the JavaTimeModule reads back as a LocalDate
+            gen.writeNumber(value.toEpochDay());
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(value.format(dateFormatter));
+            return;
+        }
+        // yyyy-MM-dd written into a reused buffer, skipping the formatter's intermediate String
+        char[] text = BUFFER.get();
+        writeDigits(text, 0, year, 4);
+        text[4] = '-';
+        writeDigits(text, 5, value.getMonthValue(), 2);
+        text[7] = '-';
+        writeDigits(text, 8, value.getDayOfMonth(), 2);
+        gen.writeString(text, 0, text.length);
+    }
+
+    private static void writeDigits(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
     }
 }
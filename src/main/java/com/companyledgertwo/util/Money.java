@@ -0,0 +1,98 @@
+package com.companyledgertwo.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money is carried as a {@code long} count of minor units (cents). These helpers are the only
+ * place that knows the scale, and the conversions to and from decimals happen at the edges.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final int MAX_DECIMAL_CHARS = 22;
+    private static final double MINOR_PER_MAJOR = 100.0;
+
+    private Money() {
+    }
+
+    /**
+     * Exact conversion of a decimal amount. Fails if the amount has more than two decimal places.
+     */
+    public static long toMinor(BigDecimal major) {
+        return major.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts a binary floating point amount, rounding half-even to the nearest cent. Only meant
+     * for callers that still hold amounts as {@code double}.
+     */
+    public static long toMinor(double major) {
+        return BigDecimal.valueOf(major).setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static Long toMinor(Double major) {
+        return major == null ? null : toMinor(major.doubleValue());
+    }
+
+    /**
+     * Largest whole number of minor units not above {@code major}; {@code x > major} holds exactly
+     * when {@code toMinor(x) > floorMinor(major)}.
+     */
+    public static long floorMinor(BigDecimal major) {
+        return major.setScale(SCALE, RoundingMode.FLOOR).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Smallest whole number of minor units not below {@code major}; {@code x < major} holds exactly
+     * when {@code toMinor(x) < ceilMinor(major)}.
+     */
+    public static long ceilMinor(BigDecimal major) {
+        return major.setScale(SCALE, RoundingMode.CEILING).unscaledValue().longValueExact();
+    }
+
+    public static double toMajor(long minor) {
+        return minor / MINOR_PER_MAJOR;
+    }
+
+    public static Double toMajor(Long minor) {
+        return minor == null ? null : toMajor(minor.longValue());
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    /**
+     * Writes {@code minor} as a plain decimal with two fraction digits into {@code buffer} and
+     * returns the number of chars written. Needs room for {@link #MAX_DECIMAL_CHARS} chars.
+     */
+    public static int writeDecimal(long minor, char[] buffer) {
+        if (minor == Long.MIN_VALUE) {
+            String text = toDecimal(minor).toPlainString();
+            text.getChars(0, text.length(), buffer, 0);
+            return text.length();
+        }
+        long remaining = Math.abs(minor);
+        int position = MAX_DECIMAL_CHARS;
+        for (int i = 0; i < SCALE; i++) {
+            buffer[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        if (minor < 0) {
+            buffer[--position] = '-';
+        }
+        int length = MAX_DECIMAL_CHARS - position;
+        System.arraycopy(buffer, position, buffer, 0, length);
+        return length;
+    }
+
+    public static long add(long augend, long addend) {
+        return Math.addExact(augend, addend);
+    }
+}
@@ -0,0 +1,38 @@
+package com.companyledgertwo.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+public class MoneyDeserializer extends JsonDeserializer<Long> {
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (p instanceof CBORParser || p instanceof SmileParser) {
+            // Binary formats carry the minor units as a plain integer, as MoneySerializer writes them
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return p.getLongValue();
+            }
+            return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        }
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return Money.toMinor(p.getDecimalValue());
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                return Money.toMinor(new BigDecimal(p.getText().trim()));
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            return (Long) ctxt.handleWeirdStringValue(Long.class, p.getText(),
+                    "amount must be a decimal with at most %d decimal places", Money.SCALE);
+        }
+        return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+    }
+}
@@ -0,0 +1,28 @@
+package com.companyledgertwo.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+import java.io.IOException;
+
+public class MoneySerializer extends JsonSerializer<Long> {
+
+    // The generator copies the digits out straight away, so one buffer per thread serves every value
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[Money.MAX_DECIMAL_CHARS]);
+
+    @Override
+    public void serialize(Long value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        if (gen instanceof CBORGenerator || gen instanceof SmileGenerator) {
+            // Binary formats carry the minor units as a plain integer
+            gen.writeNumber(value.longValue());
+            return;
+        }
+        // Formats the digits directly instead of going through BigDecimal and String
+        char[] buffer = BUFFER.get();
+        int length = Money.writeDecimal(value, buffer);
+        gen.writeNumber(buffer, 0, length);
+    }
+}
@@ -0,0 +1,72 @@
+package com.companyledgertwo.util;
+
+import com.companyledgertwo.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors for transaction listings. A cursor carries the sort key and id of the
+ * last row of a page, so the next page is a range scan that starts right after it.
+ */
+public final class TransactionCursor {
+
+    private static final String DATE_PREFIX = "d";
+    private static final String AMOUNT_PREFIX = "a";
+
+    public sealed interface Key permits DateKey, AmountKey {
+        long id();
+    }
+
+    public record DateKey(LocalDate date, long id) implements Key {
+    }
+
+    public record AmountKey(long amount, long id) implements Key {
+    }
+
+    private TransactionCursor() {
+    }
+
+    public static String ofDate(LocalDate date, long id) {
+        return encode(DATE_PREFIX + ":" + date.toEpochDay() + ":" + id);
+    }
+
+    public static String ofAmount(long amount, long id) {
+        return encode(AMOUNT_PREFIX + ":" + amount + ":" + id);
+    }
+
+    public static DateKey decodeDate(String cursor) {
+        String[] parts = decode(cursor, DATE_PREFIX);
+        try {
+            return new DateKey(LocalDate.ofEpochDay(Long.parseLong(parts[1])), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public static AmountKey decodeAmount(String cursor) {
+        String[] parts = decode(cursor, AMOUNT_PREFIX);
+        try {
+            return new AmountKey(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String[] decode(String cursor, String expectedPrefix) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+            if (parts.length == 3 && parts[0].equals(expectedPrefix)) {
+                return parts;
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the cursor error below
+        }
+        throw new InvalidCursorException(cursor);
+    }
+}
@@ -11,7 +11,7 @@ public class TransactionValidator {
         if (transaction.getDate() == null) {
             throw new IllegalArgumentException("Transaction date cannot be null");
         }
-        if (transaction.getAmount() == null || transaction.getAmount() < 0) {
+        if (transaction.getAmountMinor() == null || transaction.getAmountMinor() < 0) {
             throw new IllegalArgumentException("Amount cannot be negative or null");
         }
     }
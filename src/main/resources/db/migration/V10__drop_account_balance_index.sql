@@ -0,0 +1,4 @@
+-- Every posting rewrites accounts.balance, so an index on it costs each posting an index write and
+-- rules out PostgreSQL HOT updates. The filtered listing walks the primary key in id order and
+-- checks balance ranges as a filter, so a page still stops after limit matching rows.
+DROP INDEX IF EXISTS idx_accounts_balance_id;
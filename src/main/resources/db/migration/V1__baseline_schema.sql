@@ -0,0 +1,23 @@
+-- Schema as it stood before versioned migrations. Every statement is idempotent so databases
+-- created from postgres-test-data.sql can be brought under Flyway without being rebuilt.
+CREATE TABLE IF NOT EXISTS accounts (
+    id BIGINT GENERATED ALWAYS AS IDENTITY,
+    account_name VARCHAR(255),
+    balance DOUBLE PRECISION NOT NULL CHECK (balance >= 0),
+    is_active BOOLEAN NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL REFERENCES accounts(id),
+    date DATE NOT NULL,
+    amount DOUBLE PRECISION NOT NULL CHECK (amount >= 0),
+    PRIMARY KEY (id)
+);
+
+-- Older databases still generate transaction ids from an identity column
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('transactions_seq', COALESCE((SELECT MAX(id) FROM transactions), 0) + 50, false);
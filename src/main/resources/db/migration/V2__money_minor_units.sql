@@ -0,0 +1,14 @@
+-- Money moves from DOUBLE PRECISION to BIGINT minor units (cents).
+-- Each column is only converted while it is still floating point, so the script is safe to re-run
+-- against a database that was already created with BIGINT columns.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'accounts' AND column_name = 'balance' AND data_type = 'double precision') THEN
+        ALTER TABLE accounts ALTER COLUMN balance TYPE BIGINT USING ROUND(balance * 100)::BIGINT;
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'transactions' AND column_name = 'amount' AND data_type = 'double precision') THEN
+        ALTER TABLE transactions ALTER COLUMN amount TYPE BIGINT USING ROUND(amount * 100)::BIGINT;
+    END IF;
+END $$;
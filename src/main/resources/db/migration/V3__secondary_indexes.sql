@@ -0,0 +1,15 @@
+-- Secondary indexes matched to the repository queries.
+-- Per-account history and its keyset pages: findByAccountId, findByAccountIdAfter, streamByAccountId.
+-- Amount is included so those reads are answered from the index alone.
+CREATE INDEX IF NOT EXISTS idx_transactions_account_date_id ON transactions (account_id, date, id) INCLUDE (amount);
+
+-- findByDateBetween and its keyset pages
+CREATE INDEX IF NOT EXISTS idx_transactions_date_id ON transactions (date, id);
+
+-- findByAmountGreaterThan / findByAmountLessThan and their keyset pages
+CREATE INDEX IF NOT EXISTS idx_transactions_amount_id ON transactions (amount, id);
+
+-- findByAccountName returns a single account, so names must be unique
+CREATE UNIQUE INDEX IF NOT EXISTS uq_accounts_account_name ON accounts (account_name);
+
+CREATE INDEX IF NOT EXISTS idx_accounts_is_active ON accounts (is_active);
@@ -0,0 +1,24 @@
+-- Daily and monthly totals per account, maintained by the posting engine
+CREATE TABLE IF NOT EXISTS account_rollups (
+    account_id BIGINT NOT NULL REFERENCES accounts(id),
+    granularity VARCHAR(8) NOT NULL,
+    bucket_start DATE NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    amount_sum BIGINT NOT NULL,
+    amount_min BIGINT NOT NULL,
+    amount_max BIGINT NOT NULL,
+    PRIMARY KEY (account_id, granularity, bucket_start)
+);
+
+-- Backfill from existing postings; buckets that already exist are left alone
+INSERT INTO account_rollups (account_id, granularity, bucket_start, transaction_count, amount_sum, amount_min, amount_max)
+SELECT account_id, 'DAY', date, COUNT(*), SUM(amount), MIN(amount), MAX(amount)
+FROM transactions
+GROUP BY account_id, date
+ON CONFLICT DO NOTHING;
+
+INSERT INTO account_rollups (account_id, granularity, bucket_start, transaction_count, amount_sum, amount_min, amount_max)
+SELECT account_id, 'MONTH', CAST(date_trunc('month', date) AS DATE), COUNT(*), SUM(amount), MIN(amount), MAX(amount)
+FROM transactions
+GROUP BY account_id, date_trunc('month', date)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,5 @@
+-- Idempotency-Key of the request that posted a transaction; NULL for postings sent without one
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(255);
+
+-- NULLs never collide, so only keyed postings are deduplicated
+CREATE UNIQUE INDEX IF NOT EXISTS uq_transactions_idempotency_key ON transactions (idempotency_key);
@@ -0,0 +1,5 @@
+-- Last journal sequence applied by each projector, advanced together with the postings it covers
+CREATE TABLE IF NOT EXISTS journal_checkpoints (
+    name VARCHAR(64) PRIMARY KEY,
+    sequence BIGINT NOT NULL
+);
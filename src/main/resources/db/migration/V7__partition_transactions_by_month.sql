@@ -0,0 +1,136 @@
+-- Monthly range partitions on transactions.date, so date-range reads only touch the months they
+-- cover and old months can be detached instead of deleted row by row.
+-- Keys of a partitioned table must contain the partition key: the primary key becomes (id, date)
+-- and Idempotency-Key uniqueness across all months is kept in transaction_idempotency_keys.
+CREATE TABLE IF NOT EXISTS transaction_idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    transaction_id BIGINT NOT NULL,
+    date DATE NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION record_transaction_idempotency_key() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.idempotency_key IS NOT NULL THEN
+        INSERT INTO transaction_idempotency_keys (idempotency_key, transaction_id, date)
+        VALUES (NEW.idempotency_key, NEW.id, NEW.date);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Creates the partition for the month containing month_start unless it exists. Rows of that month
+-- already held by the default partition are moved into the new partition before it is attached.
+CREATE OR REPLACE FUNCTION create_transaction_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::DATE;
+    next_month DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'transactions_' || to_char(first_day, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+    IF EXISTS (SELECT 1 FROM transactions_default WHERE date >= first_day AND date < next_month) THEN
+        EXECUTE format('CREATE TABLE %I (LIKE transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+        EXECUTE format('WITH moved AS (DELETE FROM transactions_default WHERE date >= %L AND date < %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM moved', first_day, next_month, partition_name);
+        EXECUTE format('ALTER TABLE transactions ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, first_day, next_month);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, first_day, next_month);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Makes sure the current month and the next months_ahead months have partitions, and gives every
+-- month that only the default partition holds (back-dated postings) a partition of its own.
+CREATE OR REPLACE FUNCTION ensure_transaction_partitions(months_ahead INT) RETURNS INT AS $$
+DECLARE
+    created INT := 0;
+    month_start DATE;
+BEGIN
+    FOR month_start IN
+        SELECT (date_trunc('month', CURRENT_DATE) + make_interval(months => m))::DATE
+        FROM generate_series(0, months_ahead) AS m
+        UNION
+        SELECT DISTINCT date_trunc('month', date)::DATE FROM transactions_default
+    LOOP
+        IF create_transaction_partition(month_start) IS NOT NULL THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Detaches every monthly partition that ends on or before the month containing cutoff. Detached
+-- partitions stay behind as plain tables for archiving; their Idempotency-Keys are forgotten.
+CREATE OR REPLACE FUNCTION detach_transaction_partitions_before(cutoff DATE) RETURNS INT AS $$
+DECLARE
+    first_kept DATE := date_trunc('month', cutoff)::DATE;
+    partition_name TEXT;
+    detached INT := 0;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'transactions'::regclass
+          AND c.relname ~ '^transactions_[0-9]{4}_[0-9]{2}$'
+        ORDER BY c.relname
+    LOOP
+        IF to_date(substr(partition_name, 14), 'YYYY_MM') < first_kept THEN
+            EXECUTE format('ALTER TABLE transactions DETACH PARTITION %I', partition_name);
+            detached := detached + 1;
+        END IF;
+    END LOOP;
+    DELETE FROM transaction_idempotency_keys WHERE date < first_kept;
+    RETURN detached;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Databases built from postgres-test-data.sql are partitioned already and skip the conversion
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'transactions'::regclass) = 'r' THEN
+        ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+        ALTER INDEX IF EXISTS transactions_pkey RENAME TO transactions_unpartitioned_pkey;
+        DROP INDEX IF EXISTS idx_transactions_account_date_id;
+        DROP INDEX IF EXISTS idx_transactions_date_id;
+        DROP INDEX IF EXISTS idx_transactions_amount_id;
+        DROP INDEX IF EXISTS uq_transactions_idempotency_key;
+
+        CREATE TABLE transactions (
+            id BIGINT NOT NULL,
+            account_id BIGINT NOT NULL REFERENCES accounts(id),
+            date DATE NOT NULL,
+            amount BIGINT NOT NULL CHECK (amount >= 0),
+            idempotency_key VARCHAR(255),
+            PRIMARY KEY (id, date)
+        ) PARTITION BY RANGE (date);
+        CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+        CREATE INDEX idx_transactions_account_date_id ON transactions (account_id, date, id) INCLUDE (amount);
+        CREATE INDEX idx_transactions_date_id ON transactions (date, id);
+        CREATE INDEX idx_transactions_amount_id ON transactions (amount, id);
+        CREATE UNIQUE INDEX uq_transactions_idempotency_key ON transactions (idempotency_key, date);
+
+        PERFORM create_transaction_partition(month_start)
+        FROM (SELECT DISTINCT date_trunc('month', date)::DATE AS month_start FROM transactions_unpartitioned) AS months;
+
+        INSERT INTO transactions (id, account_id, date, amount, idempotency_key)
+        SELECT id, account_id, date, amount, idempotency_key FROM transactions_unpartitioned;
+        INSERT INTO transaction_idempotency_keys (idempotency_key, transaction_id, date)
+        SELECT idempotency_key, id, date FROM transactions_unpartitioned WHERE idempotency_key IS NOT NULL
+        ON CONFLICT DO NOTHING;
+
+        DROP TABLE transactions_unpartitioned;
+    END IF;
+END $$;
+
+DROP TRIGGER IF EXISTS trg_transactions_idempotency_key ON transactions;
+CREATE TRIGGER trg_transactions_idempotency_key AFTER INSERT ON transactions
+    FOR EACH ROW EXECUTE FUNCTION record_transaction_idempotency_key();
+
+SELECT ensure_transaction_partitions(3);
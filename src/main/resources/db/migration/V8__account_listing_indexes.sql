@@ -0,0 +1,10 @@
+-- Indexes for the filtered account listing (AccountQueries.findPage), which is ordered by id.
+-- An active-flag filter walks (is_active, id) in listing order, so a page stops after limit rows.
+DROP INDEX IF EXISTS idx_accounts_is_active;
+CREATE INDEX IF NOT EXISTS idx_accounts_is_active_id ON accounts (is_active, id);
+
+-- Balance ranges, also used by findByBalanceGreaterThan / findByBalanceLessThan
+CREATE INDEX IF NOT EXISTS idx_accounts_balance_id ON accounts (balance, id);
+
+-- Name prefixes (LIKE 'prefix%'); the unique index on account_name only serves them under the C collation
+CREATE INDEX IF NOT EXISTS idx_accounts_name_pattern ON accounts (account_name text_pattern_ops);
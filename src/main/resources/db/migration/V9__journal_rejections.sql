@@ -0,0 +1,6 @@
+-- Journal entries the projector could not apply, so an accepted posting's outcome can be looked up by sequence
+CREATE TABLE IF NOT EXISTS journal_rejections (
+    sequence BIGINT PRIMARY KEY,
+    account_id BIGINT NOT NULL,
+    reason VARCHAR(500) NOT NULL
+);
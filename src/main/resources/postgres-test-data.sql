@@ -1,31 +1,38 @@
--- Drop tables if they exist (for clean setup)
-DROP TABLE IF EXISTS transactions;
-DROP TABLE IF EXISTS accounts;
-
--- Create the accounts table with the identity column
-CREATE TABLE IF NOT EXISTS accounts (
-                                        id BIGINT GENERATED ALWAYS AS IDENTITY,
-                                        account_name VARCHAR(255),
-    balance DOUBLE PRECISION NOT NULL CHECK (balance >= 0),
-    is_active BOOLEAN NOT NULL,
-    PRIMARY KEY (id)
-    );
-
--- Create the transactions table with the identity column and foreign key
-CREATE TABLE IF NOT EXISTS transactions (
-                                            id BIGINT GENERATED ALWAYS AS IDENTITY,
-                                            account_id BIGINT NOT NULL REFERENCES accounts(id),
-    date DATE NOT NULL,
-    amount DOUBLE PRECISION NOT NULL CHECK (amount >= 0),
-    PRIMARY KEY (id)
-    );
-
--- Insert records into accounts table without OVERRIDING SYSTEM VALUE
+-- Seed data for the Gatling workloads and the PostgreSQL tests. The schema comes from the Flyway
+-- migrations: load this into an empty database migrated to V6, the last unpartitioned version, and
+-- let the remaining migrations run over it (mvn flyway:clean flyway:migrate sql:execute, then start
+-- the application). V7 then moves the seeded history into monthly partitions.
+
+-- Insert records into accounts table without OVERRIDING SYSTEM VALUE (balances are in cents)
+INSERT INTO accounts (id, account_name, balance, is_active)
+    OVERRIDING SYSTEM VALUE VALUES (1, 'Test Account 1', 100000, TRUE);
+
 INSERT INTO accounts (id, account_name, balance, is_active)
-    OVERRIDING SYSTEM VALUE VALUES (1, 'Test Account 1', 1000.0, TRUE);
+    OVERRIDING SYSTEM VALUE VALUES (2, 'Test Account 2', 200000, TRUE);
 
 INSERT INTO accounts (id, account_name, balance, is_active)
-    OVERRIDING SYSTEM VALUE VALUES (2, 'Test Account 2', 2000.0, TRUE);
+    OVERRIDING SYSTEM VALUE VALUES (3, 'Test Account 3', 300000, TRUE);
 
+-- Further accounts and a year of history for the Gatling workload simulations
 INSERT INTO accounts (id, account_name, balance, is_active)
-    OVERRIDING SYSTEM VALUE VALUES (3, 'Test Account 3', 3000.0, TRUE);
+    OVERRIDING SYSTEM VALUE
+SELECT g, 'Test Account ' || g, 100000, TRUE FROM generate_series(4, 100) AS g;
+
+ALTER TABLE accounts ALTER COLUMN id RESTART WITH 101;
+
+-- Every hundredth posting carries an Idempotency-Key, as a retried client request would
+INSERT INTO transactions (id, account_id, date, amount, idempotency_key)
+SELECT g, 1 + (g - 1) % 100, DATE '2024-01-01' + ((g * 37) % 366), 1 + (g * 7919) % 50000,
+       CASE WHEN g % 100 = 0 THEN 'seed-' || g END
+FROM generate_series(1, 10000) AS g;
+
+-- Keep Hibernate's pooled id blocks clear of the seeded ids
+SELECT setval('transactions_seq', 10050);
+
+INSERT INTO account_rollups (account_id, granularity, bucket_start, transaction_count, amount_sum, amount_min, amount_max)
+SELECT account_id, 'DAY', date, COUNT(*), SUM(amount), MIN(amount), MAX(amount)
+FROM transactions GROUP BY account_id, date;
+
+INSERT INTO account_rollups (account_id, granularity, bucket_start, transaction_count, amount_sum, amount_min, amount_max)
+SELECT account_id, 'MONTH', CAST(date_trunc('month', date) AS DATE), COUNT(*), SUM(amount), MIN(amount), MAX(amount)
+FROM transactions GROUP BY account_id, date_trunc('month', date);
@@ -2,15 +2,45 @@
 CREATE TABLE IF NOT EXISTS accounts (
                                         id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
                                         account_name VARCHAR(255),
-                                        balance DOUBLE NOT NULL CHECK (balance >= 0),
+                                        balance BIGINT NOT NULL CHECK (balance >= 0),
                                         is_active BOOLEAN NOT NULL
 );
 
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS transactions (
-                                            id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+                                            id BIGINT PRIMARY KEY,
                                             account_id BIGINT NOT NULL,
                                             date DATE NOT NULL,
-                                            amount DOUBLE NOT NULL CHECK (amount >= 0)
+                                            amount BIGINT NOT NULL CHECK (amount >= 0),
+                                            idempotency_key VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS account_rollups (
+                                               account_id BIGINT NOT NULL,
+                                               granularity VARCHAR(8) NOT NULL,
+                                               bucket_start DATE NOT NULL,
+                                               transaction_count BIGINT NOT NULL,
+                                               amount_sum BIGINT NOT NULL,
+                                               amount_min BIGINT NOT NULL,
+                                               amount_max BIGINT NOT NULL,
+                                               PRIMARY KEY (account_id, granularity, bucket_start)
 );
 
+CREATE TABLE IF NOT EXISTS journal_checkpoints (
+                                                   name VARCHAR(64) PRIMARY KEY,
+                                                   sequence BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS journal_rejections (
+                                                  sequence BIGINT PRIMARY KEY,
+                                                  account_id BIGINT NOT NULL,
+                                                  reason VARCHAR(500) NOT NULL
+);
 
+CREATE INDEX IF NOT EXISTS idx_transactions_account_date_id ON transactions (account_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_date_id ON transactions (date, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_amount_id ON transactions (amount, id);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_transactions_idempotency_key ON transactions (idempotency_key);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_accounts_account_name ON accounts (account_name);
+CREATE INDEX IF NOT EXISTS idx_accounts_is_active_id ON accounts (is_active, id);
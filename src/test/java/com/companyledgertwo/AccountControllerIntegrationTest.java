@@ -11,6 +11,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
@@ -18,6 +21,7 @@ import org.springframework.test.context.jdbc.Sql;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,6 +65,24 @@ class AccountControllerIntegrationTest {
         assertEquals("Test Account", createdAccount.getAccountName());
     }
 
+    @Test
+    void testCreateAccountWithDuplicateName() {
+        accountRepository.save(new Account("Test Account", 1000.0, true));
+
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/accounts", new Account("Test Account", 5.0, true), String.class);
+
+        assertErrorResponse(response, HttpStatus.CONFLICT, "Account name already exists: Test Account");
+    }
+
+    @Test
+    void testCreateAccountWithOverlongName() {
+        Account account = new Account("A".repeat(256), 1000.0, true);
+
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/accounts", account, String.class);
+
+        assertErrorResponse(response, HttpStatus.BAD_REQUEST, "Account violates a database constraint");
+    }
+
     @Test
     void testGetExistingAccount() {
         Account account = new Account("Test Account", 1000.0, true);
@@ -75,6 +97,109 @@ class AccountControllerIntegrationTest {
         assertEquals("Test Account", retrievedAccount.getAccountName());
     }
 
+    @Test
+    void testCachedAccountReflectsCommittedPosting() {
+        Account account = accountRepository.save(new Account("Test Account", 1000.0, true));
+        restTemplate.getForEntity("/api/accounts/" + account.getId(), Account.class);
+
+        Transaction transaction = new Transaction(account.getId(), LocalDate.now(), 25.5);
+        restTemplate.postForEntity("/transactions", transaction, String.class);
+        ResponseEntity<Account> response = restTemplate.getForEntity("/api/accounts/" + account.getId(), Account.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1025.5, response.getBody().getBalance());
+    }
+
+    @Test
+    void testConditionalGetUntilAccountChanges() {
+        Account account = accountRepository.save(new Account("Test Account", 1000.0, true));
+        String url = "/api/accounts/" + account.getId();
+
+        ResponseEntity<String> first = restTemplate.getForEntity(url, String.class);
+        String etag = first.getHeaders().getETag();
+        ResponseEntity<String> unchanged = restTemplate.exchange(url, HttpMethod.GET, ifNoneMatch(etag), String.class);
+        restTemplate.postForEntity("/transactions", new Transaction(account.getId(), LocalDate.now(), 25.5), String.class);
+        ResponseEntity<String> changed = restTemplate.exchange(url, HttpMethod.GET, ifNoneMatch(etag), String.class);
+        HttpHeaders since = new HttpHeaders();
+        since.setIfModifiedSince(first.getHeaders().getLastModified());
+        ResponseEntity<String> changedSince = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(since), String.class);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotNull(etag);
+        assertTrue(first.getHeaders().getLastModified() > 0);
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertNull(unchanged.getBody());
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        // Usually posted within the same second as the first read, which Last-Modified cannot tell apart
+        assertEquals(HttpStatus.OK, changedSince.getStatusCode());
+        assertTrue(changed.getBody().contains("\"balance\":1025.50"), changed.getBody());
+    }
+
+    @Test
+    void testNotFoundCarriesNoETag() {
+        String url = "/api/accounts/999999";
+
+        ResponseEntity<String> missing = restTemplate.getForEntity(url, String.class);
+        ResponseEntity<String> revalidated = restTemplate.exchange(url, HttpMethod.GET, ifNoneMatch("\"*\""), String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+        assertNull(missing.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_FOUND, revalidated.getStatusCode());
+    }
+
+    private static HttpEntity<Void> ifNoneMatch(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return new HttpEntity<>(headers);
+    }
+
+    @Test
+    void testSummaryReflectsPostedTransactions() {
+        Account account = accountRepository.save(new Account("Test Account", 1000.0, true));
+        restTemplate.postForEntity("/transactions", new Transaction(account.getId(), LocalDate.of(2024, 5, 1), 10.0), String.class);
+        restTemplate.postForEntity("/transactions", new Transaction(account.getId(), LocalDate.of(2024, 5, 20), 2.5), String.class);
+        restTemplate.postForEntity("/transactions", new Transaction(account.getId(), LocalDate.of(2024, 6, 3), 7.0), String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/accounts/" + account.getId()
+                + "/summary?granularity=month&from=2024-01-01&to=2024-12-31", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"bucketStart\":\"2024-05-01\",\"transactionCount\":2,\"amountSum\":12.50,\"amountMin\":2.50,\"amountMax\":10.00"),
+                response.getBody());
+        assertTrue(response.getBody().contains("\"bucketStart\":\"2024-06-01\",\"transactionCount\":1"), response.getBody());
+    }
+
+    @Test
+    void testListAccountsWithCombinedFiltersAcrossPages() {
+        accountRepository.save(new Account("Acme Payroll", 1500.0, true));
+        accountRepository.save(new Account("Acme Savings", 50.0, true));
+        accountRepository.save(new Account("Acme Reserve", 3000.0, false));
+        accountRepository.save(new Account("Acme_Ops", 1200.0, true));
+        accountRepository.save(new Account("AcmeX Treasury", 1800.0, true));
+        accountRepository.save(new Account("Other Account", 1500.0, true));
+
+        String query = "/api/accounts?minBalance=1000&maxBalance=2000&active=true&namePrefix=Acme&limit=2";
+        ResponseEntity<Account[]> first = restTemplate.getForEntity(query, Account[].class);
+        String cursor = first.getHeaders().getFirst("X-Next-Cursor");
+        ResponseEntity<Account[]> second = restTemplate.getForEntity(query + "&cursor=" + cursor, Account[].class);
+        ResponseEntity<Account[]> underscore = restTemplate.getForEntity("/api/accounts?namePrefix=Acme_", Account[].class);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(List.of("Acme Payroll", "Acme_Ops"), Arrays.stream(first.getBody()).map(Account::getAccountName).toList());
+        assertNotNull(cursor);
+        assertEquals(List.of("AcmeX Treasury"), Arrays.stream(second.getBody()).map(Account::getAccountName).toList());
+        assertNull(second.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(List.of("Acme_Ops"), Arrays.stream(underscore.getBody()).map(Account::getAccountName).toList());
+    }
+
+    @Test
+    void testListAccountsRejectsMalformedCursor() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/accounts?cursor=bogus", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void testGetNonExistingAccount() {
         ResponseEntity<String> response = restTemplate.getForEntity("/api/accounts/999", String.class);
@@ -0,0 +1,35 @@
+package com.companyledgertwo;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the lost-update checks of the parent class with group commit switched on.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"ledger.group-commit.enabled=true", "ledger.group-commit.max-linger=PT0.002S"})
+class GroupCommitConcurrencyIntegrationTest extends PostingEngineConcurrencyIntegrationTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentPostingsShareCommits() throws Exception {
+        DistributionSummary batchSizes = meterRegistry.get("ledger.group.commit.batch.size").summary();
+        long batchesBefore = batchSizes.count();
+        double postedBefore = batchSizes.totalAmount();
+
+        int threads = 8;
+        postConcurrently(threads);
+
+        long batches = batchSizes.count() - batchesBefore;
+        double posted = batchSizes.totalAmount() - postedBefore;
+        assertThat(posted).isEqualTo(threads * POSTINGS_PER_THREAD);
+        assertThat(batches).isLessThan(threads * POSTINGS_PER_THREAD);
+    }
+}
@@ -0,0 +1,137 @@
+package com.companyledgertwo;
+
+import com.companyledgertwo.journal.JournalProjector;
+import com.companyledgertwo.journal.PostingJournal;
+import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.JournalCheckpointRepository;
+import com.companyledgertwo.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"ledger.journal.enabled=true", "ledger.journal.directory=target/journal-${random.uuid}",
+                "ledger.journal.force-on-append=false"})
+@ActiveProfiles("test")
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class JournalIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PostingJournal postingJournal;
+
+    @Autowired
+    private JournalProjector journalProjector;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        accountId = accountRepository.save(new Account("Journal Account", 1000.0, true)).getId();
+    }
+
+    @Test
+    void testPostingIsAcceptedAndThenProjected() throws InterruptedException {
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity("/transactions",
+                new Transaction(accountId, LocalDate.now(), 25.5), JsonNode.class);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        long sequence = response.getBody().get("sequence").asLong();
+        assertTrue(sequence > 0);
+
+        awaitProjection(() -> journalProjector.projectedSequence() >= sequence);
+        assertEquals(1025.5, accountRepository.findById(accountId).orElseThrow().getBalance());
+        assertEquals(1, transactionRepository.findByAccountId(accountId).size());
+        assertTrue(checkpointRepository.findById("postings").orElseThrow().getSequence() >= sequence);
+    }
+
+    @Test
+    void testPostingForUnknownAccountIsRejectedBeforeJournaling() {
+        ResponseEntity<String> response = restTemplate.postForEntity("/transactions",
+                new Transaction(accountId + 1000, LocalDate.now(), 25.5), String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testRepeatedIdempotencyKeyIsJournaledOnce() throws InterruptedException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", "journal-retry-" + UUID.randomUUID());
+        HttpEntity<Transaction> request = new HttpEntity<>(new Transaction(accountId, LocalDate.now(), 10.0), headers);
+
+        ResponseEntity<JsonNode> first = restTemplate.postForEntity("/transactions", request, JsonNode.class);
+        ResponseEntity<JsonNode> retry = restTemplate.postForEntity("/transactions", request, JsonNode.class);
+        long sequence = first.getBody().get("sequence").asLong();
+
+        assertEquals(HttpStatus.ACCEPTED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(sequence, postingJournal.lastSequence());
+
+        awaitProjection(() -> journalProjector.projectedSequence() >= sequence);
+        // Still the original receipt once the posting is in the database
+        ResponseEntity<JsonNode> afterProjection = restTemplate.postForEntity("/transactions", request, JsonNode.class);
+        assertEquals(HttpStatus.ACCEPTED, afterProjection.getStatusCode());
+        assertEquals(first.getBody(), afterProjection.getBody());
+        assertEquals(1010.0, accountRepository.findById(accountId).orElseThrow().getBalance());
+        assertEquals(1, transactionRepository.findByAccountId(accountId).size());
+        assertEquals(0.0, meterRegistry.get("ledger.journal.projection.rejected").counter().count());
+    }
+
+    @Test
+    void testOutcomeOfAPostingCanBeLookedUpBySequence() throws InterruptedException {
+        ResponseEntity<JsonNode> accepted = restTemplate.postForEntity("/transactions",
+                new Transaction(accountId, LocalDate.now(), 1.0), JsonNode.class);
+        long sequence = accepted.getBody().get("sequence").asLong();
+
+        awaitProjection(() -> journalProjector.projectedSequence() >= sequence);
+        ResponseEntity<JsonNode> outcome = restTemplate.getForEntity("/transactions/receipts/" + sequence, JsonNode.class);
+
+        assertEquals(HttpStatus.OK, outcome.getStatusCode());
+        assertEquals("APPLIED", outcome.getBody().get("status").asText());
+        assertEquals(HttpStatus.NOT_FOUND,
+                restTemplate.getForEntity("/transactions/receipts/" + (sequence + 1000), String.class).getStatusCode());
+    }
+
+    private static void awaitProjection(BooleanSupplier projected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!projected.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(projected.getAsBoolean(), "Journal entries were not projected in time");
+    }
+}
@@ -0,0 +1,44 @@
+package com.companyledgertwo;
+
+import com.companyledgertwo.model.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void prometheusEndpointExposesLatencyPercentiles() {
+        Account account = restTemplate.postForEntity("/api/accounts",
+                new Account("Metrics " + UUID.randomUUID(), 10.0, true), Account.class).getBody();
+        restTemplate.getForEntity("/api/accounts/" + account.getId(), String.class);
+        restTemplate.getForEntity("/transactions/account/" + account.getId(), String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).as(response.getBody()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("http_server_requests_seconds{")
+                .containsPattern("http_server_requests_seconds\\{.*uri=\"/api/accounts/\\{id}\".*quantile=\"0\\.99\"")
+                .containsPattern("spring_data_repository_invocations_seconds\\{.*repository=\"AccountRepository\".*quantile=\"0\\.999\"")
+                .containsPattern("spring_data_repository_invocations_seconds\\{.*repository=\"TransactionRepository\"")
+                .contains("hikaricp_connections_acquire_seconds")
+                .containsPattern("hikaricp_connections_max\\{.*} 8\\.0")
+                .containsPattern("r2dbc_pool_max_allocated_connections\\{.*name=\"reactive\".*} 2\\.0");
+    }
+}
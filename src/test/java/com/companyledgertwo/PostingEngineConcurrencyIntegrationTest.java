@@ -0,0 +1,152 @@
+package com.companyledgertwo;
+
+import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.AccountRollup;
+import com.companyledgertwo.model.RollupGranularity;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.AccountRollupRepository;
+import com.companyledgertwo.repository.TransactionRepository;
+import com.companyledgertwo.service.AccountRollups;
+import com.companyledgertwo.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PostingEngineConcurrencyIntegrationTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostingEngineConcurrencyIntegrationTest.class);
+    private static final int ACCOUNTS = 4;
+    protected static final int POSTINGS_PER_THREAD = 200;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRollupRepository accountRollupRepository;
+
+    @Autowired
+    private AccountRollups accountRollups;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRollupRepository.deleteAll();
+        accountRepository.deleteAll();
+        accountIds.clear();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds.add(accountRepository.save(new Account("Stress Account " + i, 0.0, true)).getId());
+        }
+    }
+
+    @Test
+    void concurrentPostingsLoseNoUpdates() throws Exception {
+        double[] expected = new double[ACCOUNTS];
+
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            int postings = threads * POSTINGS_PER_THREAD;
+            long elapsedNanos = postConcurrently(threads);
+            LOGGER.info("{} thread(s): {} postings in {} ms ({} postings/sec)", threads, postings,
+                    elapsedNanos / 1_000_000, Math.round(postings / (elapsedNanos / 1e9)));
+
+            // Every thread spreads its postings round-robin over all accounts, one unit each
+            for (int i = 0; i < ACCOUNTS; i++) {
+                expected[i] += (double) postings / ACCOUNTS;
+            }
+            for (int i = 0; i < ACCOUNTS; i++) {
+                Account account = accountRepository.findById(accountIds.get(i)).orElseThrow();
+                assertEquals(expected[i], account.getBalance(), "Lost update on account " + account.getId());
+            }
+        }
+    }
+
+    @Test
+    void concurrentFirstPostingsIntoANewBucketAllLand() throws Exception {
+        // Given: rollup writers that, like separate nodes, share no account stripes
+        int writers = 8;
+        LocalDate day = LocalDate.of(2024, 5, 9);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < writers; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status ->
+                            accountRollups.apply(List.of(new Transaction(accountIds.get(0), day, 1.0))));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        AccountRollup rollup = accountRollupRepository
+                .findById(new AccountRollup.Key(accountIds.get(0), RollupGranularity.DAY, day)).orElseThrow();
+        assertEquals(writers, rollup.getTransactionCount());
+        assertEquals(writers * 100L, rollup.getAmountSum());
+    }
+
+    protected long postConcurrently(int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        Long accountId = accountIds.get(i % ACCOUNTS);
+                        transactionService.createTransaction(new Transaction(accountId, LocalDate.now(), 1.0));
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return System.nanoTime() - startedAt;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
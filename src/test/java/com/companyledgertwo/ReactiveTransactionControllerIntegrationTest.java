@@ -0,0 +1,134 @@
+package com.companyledgertwo;
+
+import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ReactiveTransactionControllerIntegrationTest {
+
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        accountId = accountRepository.save(new Account("Reactive Account", 1000.0, true)).getId();
+        transactionRepository.saveAll(List.of(
+                new Transaction(accountId, LocalDate.of(2024, 5, 1), 10.0),
+                new Transaction(accountId, LocalDate.of(2024, 5, 2), 250.0),
+                new Transaction(accountId, LocalDate.of(2024, 5, 3), 99.99),
+                new Transaction(accountId, LocalDate.of(2024, 6, 1), 500.0)));
+    }
+
+    @Test
+    void pagesMatchTheServletEndpoints() {
+        for (String query : List.of(
+                "/account/" + accountId + "?limit=3",
+                "/between?start=2024-05-01&end=2024-05-31&limit=2",
+                "/greaterThan?amount=99.98&limit=2",
+                "/lessThan?amount=250.00&limit=1")) {
+            ResponseEntity<String> servlet = restTemplate.getForEntity("/transactions" + query, String.class);
+            ResponseEntity<String> reactive = restTemplate.getForEntity("/reactive/transactions" + query, String.class);
+
+            assertEquals(HttpStatus.OK, reactive.getStatusCode(), query);
+            assertEquals(servlet.getBody(), reactive.getBody(), query);
+            assertEquals(servlet.getHeaders().getFirst(NEXT_CURSOR), reactive.getHeaders().getFirst(NEXT_CURSOR), query);
+        }
+    }
+
+    @Test
+    void followsCursorToTheLastPage() {
+        ResponseEntity<Transaction[]> first = restTemplate.getForEntity(
+                "/reactive/transactions/account/" + accountId + "?limit=3", Transaction[].class);
+        String cursor = first.getHeaders().getFirst(NEXT_CURSOR);
+        assertNotNull(cursor);
+
+        ResponseEntity<Transaction[]> second = restTemplate.getForEntity(
+                "/reactive/transactions/account/" + accountId + "?limit=3&cursor=" + cursor, Transaction[].class);
+
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals(1, second.getBody().length);
+        assertEquals(LocalDate.of(2024, 6, 1), second.getBody()[0].getDate());
+        assertNull(second.getHeaders().getFirst(NEXT_CURSOR));
+    }
+
+    @Test
+    void returnsNotFoundForAnEmptyPage() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/reactive/transactions/greaterThan?amount=10000", String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("[]", response.getBody());
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/reactive/transactions/account/" + accountId + "?cursor=not-a-cursor", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void exportsNewlineDelimitedJson() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/reactive/transactions/account/" + accountId + "/export", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(4, response.getBody().lines().count());
+        assertTrue(response.getBody().lines().allMatch(line -> line.contains("\"accountId\":" + accountId)), response.getBody());
+    }
+
+    @Test
+    void exportMatchesTheServletExportOrder() throws Exception {
+        // Given: a backdated posting, so id order differs from date order
+        transactionRepository.save(new Transaction(accountId, LocalDate.of(2024, 4, 1), 1.0));
+
+        // When
+        ResponseEntity<String> servlet = restTemplate.getForEntity("/transactions/account/" + accountId + "/export", String.class);
+        ResponseEntity<String> reactive = restTemplate.getForEntity("/reactive/transactions/account/" + accountId + "/export", String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, reactive.getStatusCode());
+        assertEquals(servlet.getBody().lines().toList(), reactive.getBody().lines().toList());
+        List<TransactionView> exported = new ArrayList<>();
+        for (String line : reactive.getBody().lines().toList()) {
+            exported.add(objectMapper.readValue(line, TransactionView.class));
+        }
+        assertEquals(exported.stream().map(TransactionView::id).sorted().toList(),
+                exported.stream().map(TransactionView::id).toList());
+    }
+}
@@ -1,24 +1,48 @@
 package com.companyledgertwo;
 
+import com.companyledgertwo.config.JacksonConfig;
+import com.companyledgertwo.model.Account;
 import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionBatchResult;
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.repository.AccountRepository;
 import com.companyledgertwo.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "ledger.conditional-requests.transactions.enabled=true")
 @ActiveProfiles("test")
 @Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 class TransactionControllerIntegrationTest {
@@ -26,12 +50,22 @@ class TransactionControllerIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @LocalServerPort
+    private int port;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private Long accountId;
+
     @BeforeEach
     void setUp() {
         transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        accountId = accountRepository.save(new Account("Posting Account", 1000.0, true)).getId();
     }
 
     // Helper method to assert an error response
@@ -51,7 +85,57 @@ class TransactionControllerIntegrationTest {
 
     @Test
     void testCreateTransaction() {
-        createAndVerifyTransaction(new Transaction(1L, LocalDate.now(), 100.0));
+        createAndVerifyTransaction(new Transaction(accountId, LocalDate.now(), 100.0));
+    }
+
+    @Test
+    void testCreateTransactionCreditsAccountBalance() {
+        createAndVerifyTransaction(new Transaction(accountId, LocalDate.now(), 100.0));
+        createAndVerifyTransaction(new Transaction(accountId, LocalDate.now(), 50.5));
+
+        assertEquals(1150.5, accountRepository.findById(accountId).orElseThrow().getBalance());
+    }
+
+    private ResponseEntity<Transaction> postWithIdempotencyKey(Transaction transaction, String idempotencyKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Idempotency-Key", idempotencyKey);
+        return restTemplate.postForEntity("/transactions", new HttpEntity<>(transaction, headers), Transaction.class);
+    }
+
+    @Test
+    void testRetriedPostingWithIdempotencyKeyIsAppliedOnce() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        ResponseEntity<Transaction> first = postWithIdempotencyKey(new Transaction(accountId, LocalDate.now(), 40.0), idempotencyKey);
+        ResponseEntity<Transaction> retry = postWithIdempotencyKey(new Transaction(accountId, LocalDate.now(), 40.0), idempotencyKey);
+
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(first.getBody().getId(), retry.getBody().getId());
+        assertEquals(1, transactionRepository.count());
+        assertEquals(1040.0, accountRepository.findById(accountId).orElseThrow().getBalance());
+    }
+
+    @Test
+    void testIdempotencyKeyAlreadyStoredIsNotPostedAgain() {
+        String idempotencyKey = UUID.randomUUID().toString();
+        Transaction stored = new Transaction(accountId, LocalDate.now(), 40.0);
+        stored.setIdempotencyKey(idempotencyKey);
+        stored = transactionRepository.save(stored);
+
+        ResponseEntity<Transaction> retry = postWithIdempotencyKey(new Transaction(accountId, LocalDate.now(), 40.0), idempotencyKey);
+
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(stored.getId(), retry.getBody().getId());
+        assertEquals(1, transactionRepository.count());
+        assertEquals(1000.0, accountRepository.findById(accountId).orElseThrow().getBalance());
+    }
+
+    @Test
+    void testCreateTransactionForUnknownAccount() {
+        Transaction transaction = new Transaction(Long.MAX_VALUE, LocalDate.now(), 100.0);
+        ResponseEntity<String> response = restTemplate.postForEntity("/transactions", transaction, String.class);
+        assertErrorResponse(response, HttpStatus.NOT_FOUND, "Account not found");
+        assertEquals(0, transactionRepository.count());
     }
 
     @Test
@@ -175,4 +259,185 @@ class TransactionControllerIntegrationTest {
         ResponseEntity<String> response = restTemplate.getForEntity("/transactions/lessThan?amount=non-numeric", String.class);
         assertErrorResponse(response, HttpStatus.BAD_REQUEST, "Failed to convert");
     }
+
+    @Test
+    void testCreateTransactionBatch() {
+        String body = "[{\"accountId\":" + accountId + ",\"date\":\"2024-05-01\",\"amount\":100.0},"
+                + "{\"accountId\":" + accountId + ",\"date\":null,\"amount\":200.0},"
+                + "{\"accountId\":" + accountId + ",\"date\":\"2024-05-03\",\"amount\":300.0}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<TransactionBatchResult[]> response = restTemplate.postForEntity(
+                "/transactions/batch", new HttpEntity<>(body, headers), TransactionBatchResult[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        TransactionBatchResult[] results = response.getBody();
+        assertNotNull(results);
+        assertEquals(3, results.length);
+        assertEquals(TransactionBatchResult.Status.CREATED, results[0].status());
+        assertEquals(TransactionBatchResult.Status.REJECTED, results[1].status());
+        assertEquals(TransactionBatchResult.Status.CREATED, results[2].status());
+        assertEquals(2, transactionRepository.count());
+        assertEquals(1400.0, accountRepository.findById(accountId).orElseThrow().getBalance());
+    }
+
+    @Test
+    void testExportTransactionsByAccountId() {
+        transactionRepository.saveAll(List.of(
+                new Transaction(1L, LocalDate.of(2024, 5, 1), 100.0),
+                new Transaction(1L, LocalDate.of(2024, 5, 2), 200.0),
+                new Transaction(2L, LocalDate.of(2024, 5, 3), 300.0)
+        ));
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/transactions/account/1/export", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()));
+
+        String[] lines = Objects.requireNonNull(response.getBody()).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"date\":\"2024-05-01\""));
+        assertTrue(lines[1].contains("\"date\":\"2024-05-02\""));
+    }
+
+    @Test
+    void testGetTransactionsByAccountIdPagedWithCursor() {
+        transactionRepository.saveAll(List.of(
+                new Transaction(1L, LocalDate.of(2024, 5, 3), 300.0),
+                new Transaction(1L, LocalDate.of(2024, 5, 1), 100.0),
+                new Transaction(1L, LocalDate.of(2024, 5, 2), 200.0)
+        ));
+
+        ResponseEntity<Transaction[]> firstPage = restTemplate.getForEntity("/transactions/account/1?limit=2", Transaction[].class);
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertEquals(2, Objects.requireNonNull(firstPage.getBody()).length);
+        assertEquals(LocalDate.of(2024, 5, 1), firstPage.getBody()[0].getDate());
+        String cursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        assertNotNull(cursor);
+
+        ResponseEntity<Transaction[]> secondPage = restTemplate.getForEntity(
+                "/transactions/account/1?limit=2&cursor=" + cursor, Transaction[].class);
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode());
+        assertEquals(1, Objects.requireNonNull(secondPage.getBody()).length);
+        assertEquals(LocalDate.of(2024, 5, 3), secondPage.getBody()[0].getDate());
+        assertNull(secondPage.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void testConditionalGetOfAccountTransactions() {
+        restTemplate.postForEntity("/transactions", new Transaction(accountId, LocalDate.of(2024, 5, 1), 10.0), String.class);
+        String url = "/transactions/account/" + accountId;
+
+        ResponseEntity<String> first = restTemplate.getForEntity(url, String.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(Objects.requireNonNull(first.getHeaders().getETag()));
+        ResponseEntity<String> unchanged = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        restTemplate.postForEntity("/transactions", new Transaction(accountId, LocalDate.of(2024, 5, 2), 20.0), String.class);
+        ResponseEntity<Transaction[]> changed = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), Transaction[].class);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals(2, Objects.requireNonNull(changed.getBody()).length);
+    }
+
+    @Test
+    void testGetTransactionsBetweenDatesInBinaryFormats() throws Exception {
+        List<Transaction> saved = transactionRepository.saveAll(List.of(
+                new Transaction(accountId, LocalDate.of(2024, 5, 1), 10.0),
+                new Transaction(accountId, LocalDate.of(2024, 5, 2), 19.99)));
+        List<TransactionView> expected = saved.stream().map(TransactionView::of).toList();
+
+        for (JsonFactory factory : List.of(new CBORFactory(), new SmileFactory())) {
+            MediaType mediaType = factory instanceof CBORFactory
+                    ? MediaType.APPLICATION_CBOR : MediaType.valueOf(JacksonConfig.APPLICATION_SMILE_VALUE);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setAccept(List.of(mediaType));
+
+            ResponseEntity<byte[]> response = restTemplate.exchange("/transactions/between?start=2024-05-01&end=2024-05-31",
+                    HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(mediaType, response.getHeaders().getContentType());
+            TransactionView[] transactions = JacksonConfig.newObjectMapper(factory)
+                    .readValue(response.getBody(), TransactionView[].class);
+            assertEquals(expected, List.of(transactions));
+        }
+    }
+
+    @Test
+    void testGzipOnlyWithoutStrongETag() throws Exception {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int day = 1; day <= 28; day++) {
+            for (int i = 0; i < 4; i++) {
+                transactions.add(new Transaction(accountId, LocalDate.of(2024, 5, day), 10.0 + i));
+            }
+        }
+        transactionRepository.saveAll(transactions);
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<byte[]> between = client.send(gzipRequest("/transactions/between?start=2024-05-01&end=2024-05-31&limit=200"),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> byAccount = client.send(gzipRequest("/transactions/account/" + accountId),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, between.statusCode());
+        assertEquals("gzip", between.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(between.body()))) {
+            assertEquals(transactions.size(), new ObjectMapper().readTree(body).size());
+        }
+        // A strong ETag names the uncompressed bytes, so Tomcat leaves those responses alone
+        assertEquals(200, byAccount.statusCode());
+        assertTrue(byAccount.headers().firstValue(HttpHeaders.ETAG).isPresent());
+        assertTrue(byAccount.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+    }
+
+    private HttpRequest gzipRequest(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+    }
+
+    @Test
+    void testGetTransactionsWithInvalidCursor() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/transactions/greaterThan?amount=1.0&cursor=bogus", String.class);
+        assertErrorResponse(response, HttpStatus.BAD_REQUEST, "Invalid pagination cursor");
+    }
+
+    @Test
+    void testSearchTransactionsAcrossAccountsByAmountDescending() {
+        Long otherAccountId = accountRepository.save(new Account("Other Account", 0.0, true)).getId();
+        Long ignoredAccountId = accountRepository.save(new Account("Ignored Account", 0.0, true)).getId();
+        transactionRepository.saveAll(List.of(
+                new Transaction(accountId, LocalDate.of(2024, 5, 1), 100.0),
+                new Transaction(otherAccountId, LocalDate.of(2024, 5, 2), 300.0),
+                new Transaction(accountId, LocalDate.of(2024, 5, 3), 300.0),
+                new Transaction(otherAccountId, LocalDate.of(2024, 6, 1), 500.0),
+                new Transaction(ignoredAccountId, LocalDate.of(2024, 5, 2), 400.0),
+                new Transaction(accountId, LocalDate.of(2024, 5, 4), 5.0)
+        ));
+        String search = "/transactions/search?accountId=" + accountId + "&accountId=" + otherAccountId
+                + "&start=2024-05-01&end=2024-05-31&minAmount=50&sort=amount&direction=desc&limit=2";
+
+        ResponseEntity<Transaction[]> firstPage = restTemplate.getForEntity(search, Transaction[].class);
+        String cursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        ResponseEntity<Transaction[]> secondPage = restTemplate.getForEntity(search + "&cursor=" + cursor, Transaction[].class);
+
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        Transaction[] first = Objects.requireNonNull(firstPage.getBody());
+        assertEquals(2, first.length);
+        assertEquals(300.0, first[0].getAmount());
+        assertEquals(300.0, first[1].getAmount());
+        assertTrue(first[0].getId() > first[1].getId());
+        assertNotNull(cursor);
+        Transaction[] second = Objects.requireNonNull(secondPage.getBody());
+        assertEquals(1, second.length);
+        assertEquals(100.0, second[0].getAmount());
+        assertNull(secondPage.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void testSearchTransactionsWithInvalidSort() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/transactions/search?sort=account", String.class);
+        assertErrorResponse(response, HttpStatus.BAD_REQUEST, "Sort must be date or amount and direction asc or desc");
+    }
 }
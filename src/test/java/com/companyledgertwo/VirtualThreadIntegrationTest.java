@@ -0,0 +1,49 @@
+package com.companyledgertwo;
+
+import com.companyledgertwo.config.ConnectionLimitingDataSource;
+import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "ledger.datasource.max-concurrency=4"})
+@ActiveProfiles("test")
+class VirtualThreadIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void postingsRunThroughTheConnectionLimiter() {
+        assertThat(dataSource).isInstanceOf(ConnectionLimitingDataSource.class);
+
+        Account account = restTemplate.postForEntity("/api/accounts",
+                new Account("Virtual " + UUID.randomUUID(), 10.0, true), Account.class).getBody();
+        ResponseEntity<String> posted = restTemplate.postForEntity("/transactions",
+                new Transaction(account.getId(), LocalDate.now(), 5.0), String.class);
+
+        assertThat(posted.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(restTemplate.getForEntity("/api/accounts/" + account.getId(), Account.class).getBody().getBalance())
+                .isEqualTo(15.0);
+        assertThat(((ConnectionLimitingDataSource) dataSource).availablePermits()).isEqualTo(4);
+        assertThat(restTemplate.getForEntity("/actuator/prometheus", String.class).getBody())
+                .contains("hikaricp_connections_acquire_seconds");
+    }
+}
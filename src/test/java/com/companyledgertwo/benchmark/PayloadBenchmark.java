@@ -0,0 +1,105 @@
+package com.companyledgertwo.benchmark;
+
+import com.companyledgertwo.config.JacksonConfig;
+import com.companyledgertwo.model.TransactionView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size and encode/decode time of one page of transactions in each format the list endpoints
+ * negotiate. Every format is read back into {@link TransactionView}. The size of one encoded
+ * page is reported as the {@code encode:payloadBytes} secondary result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    @Param({"json", "json-gzip", "cbor", "smile"})
+    public String format;
+
+    @Param({"100", "500"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private boolean gzip;
+    private List<TransactionView> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "cbor" -> JacksonConfig.newObjectMapper(new CBORFactory());
+            case "smile" -> JacksonConfig.newObjectMapper(new SmileFactory());
+            default -> JacksonConfig.newObjectMapper();
+        };
+        gzip = format.endsWith("gzip");
+        page = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            page.add(new TransactionView(1_000_000 + id, 42L, FIRST_DAY.plusDays(id % 365), 100 + id * 37 % 500_000));
+        }
+        encoded = encode(page);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Payload {
+        public long payloadBytes;
+        private boolean reporting;
+        private boolean reported;
+
+        // JMH adds the counters of all measurement iterations up, so only the first one reports
+        @Setup(Level.Iteration)
+        public void nextIteration(IterationParams iteration) {
+            payloadBytes = 0;
+            reporting = !reported && iteration.getType() == IterationType.MEASUREMENT;
+            reported |= reporting;
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(Payload payload) throws IOException {
+        byte[] bytes = encode(page);
+        if (payload.reporting) {
+            payload.payloadBytes = bytes.length;
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        InputStream in = new ByteArrayInputStream(encoded);
+        try (InputStream body = gzip ? new GZIPInputStream(in) : in) {
+            return objectMapper.readValue(body, TransactionView[].class);
+        }
+    }
+
+    private byte[] encode(List<TransactionView> transactions) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(out, transactions);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,76 @@
+package com.companyledgertwo.benchmark;
+
+import com.companyledgertwo.config.JacksonConfig;
+import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.util.LocalDateSerializer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private final ObjectMapper objectMapper = JacksonConfig.newObjectMapper();
+    private final LocalDateSerializer localDateSerializer = new LocalDateSerializer();
+
+    private JsonGenerator generator;
+    private LocalDate date;
+    private Account account;
+    private Transaction transaction;
+    private byte[] accountJson;
+    private byte[] transactionJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream());
+        date = LocalDate.of(2024, 5, 1);
+        account = new Account("Operating Account", 125_000.50, true);
+        account.setId(42L);
+        transaction = new Transaction(42L, date, 19.99);
+        transaction.setId(1_000L);
+        accountJson = objectMapper.writeValueAsBytes(account);
+        transactionJson = objectMapper.writeValueAsBytes(transaction);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        generator.close();
+    }
+
+    @Benchmark
+    public JsonGenerator serializeLocalDate() throws IOException {
+        localDateSerializer.serialize(date, generator, null);
+        return generator;
+    }
+
+    @Benchmark
+    public byte[] writeAccount() throws IOException {
+        return objectMapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public Account readAccount() throws IOException {
+        return objectMapper.readValue(accountJson, Account.class);
+    }
+
+    @Benchmark
+    public byte[] writeTransaction() throws IOException {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+
+    @Benchmark
+    public Transaction readTransaction() throws IOException {
+        return objectMapper.readValue(transactionJson, Transaction.class);
+    }
+}
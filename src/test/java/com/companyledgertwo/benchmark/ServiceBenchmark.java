@@ -0,0 +1,120 @@
+package com.companyledgertwo.benchmark;
+
+import com.companyledgertwo.CompanyLedgerTwoApplication;
+import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.AccountView;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionPage;
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.TransactionRepository;
+import com.companyledgertwo.service.AccountService;
+import com.companyledgertwo.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service calls against the embedded H2 database of the test profile, seeded once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    @Param("100")
+    public int accounts;
+
+    @Param("200")
+    public int transactionsPerAccount;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private TransactionService transactionService;
+    private long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SpringApplication application = new SpringApplication(CompanyLedgerTwoApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setAdditionalProfiles("test");
+        application.setDefaultProperties(Map.of(
+                "spring.jpa.show-sql", "false",
+                "logging.level.root", "WARN"));
+        context = application.run();
+        accountService = context.getBean(AccountService.class);
+        transactionService = context.getBean(TransactionService.class);
+        seed(context.getBean(AccountRepository.class), context.getBean(TransactionRepository.class));
+    }
+
+    private void seed(AccountRepository accountRepository, TransactionRepository transactionRepository) {
+        List<Account> seededAccounts = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            seededAccounts.add(new Account("Benchmark Account " + i, 0.0, true));
+        }
+        seededAccounts = accountRepository.saveAll(seededAccounts);
+        accountIds = seededAccounts.stream().mapToLong(Account::getId).toArray();
+
+        for (long accountId : accountIds) {
+            List<Transaction> transactions = new ArrayList<>(transactionsPerAccount);
+            for (int i = 0; i < transactionsPerAccount; i++) {
+                transactions.add(new Transaction(accountId, FIRST_DAY.plusDays(i % 365), 1 + i % 500 + 0.25));
+            }
+            transactionRepository.saveAll(transactions);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomAccountId() {
+        return accountIds[ThreadLocalRandom.current().nextInt(accountIds.length)];
+    }
+
+    @Benchmark
+    public AccountView getAccount() {
+        return accountService.getAccount(randomAccountId());
+    }
+
+    @Benchmark
+    public AccountView findByAccountName() {
+        return accountService.findByAccountName("Benchmark Account " + ThreadLocalRandom.current().nextInt(accounts));
+    }
+
+    @Benchmark
+    public List<TransactionView> listTransactionsForAccount() {
+        return accountService.listTransactionsForAccount(randomAccountId());
+    }
+
+    @Benchmark
+    public TransactionPage transactionPageByAccount() {
+        return transactionService.findTransactionsByAccountId(randomAccountId(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TransactionPage transactionPageBetweenDates() {
+        LocalDate start = FIRST_DAY.plusDays(ThreadLocalRandom.current().nextInt(300));
+        return transactionService.findTransactionsBetweenDates(start, start.plusDays(30), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Transaction createTransaction() {
+        return transactionService.createTransaction(new Transaction(randomAccountId(), LocalDate.now(), 10.0));
+    }
+}
@@ -0,0 +1,118 @@
+package com.companyledgertwo.benchmark;
+
+import com.companyledgertwo.CompanyLedgerTwoApplication;
+import com.companyledgertwo.repository.TransactionRepository;
+import com.companyledgertwo.service.TransactionIndex;
+import com.companyledgertwo.service.TransactionIndexSnapshots;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the transaction index to become ready, either by scanning the whole table or by
+ * loading a snapshot and replaying the rows posted after it, against the embedded H2 database.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int INSERT_BATCH = 10_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"scan", "snapshot"})
+    public String mode;
+
+    // Share of the rows posted after the snapshot was taken
+    @Param("0.01")
+    public double tail;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private EntityManager entityManager;
+    private PlatformTransactionManager transactionManager;
+    private TransactionIndexSnapshots snapshots;
+    private Path snapshotDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SpringApplication application = new SpringApplication(CompanyLedgerTwoApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setAdditionalProfiles("test");
+        application.setDefaultProperties(Map.of(
+                "spring.jpa.show-sql", "false",
+                "logging.level.root", "WARN"));
+        context = application.run();
+        transactionRepository = context.getBean(TransactionRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionManager = context.getBean(PlatformTransactionManager.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        snapshotDirectory = Files.createTempDirectory("index-snapshots");
+        snapshots = new TransactionIndexSnapshots("snapshot".equals(mode), snapshotDirectory, Duration.ofDays(1), 1, 10_000);
+
+        int snapshotted = (int) (rows * (1 - tail));
+        insert(jdbcTemplate, 1, snapshotted);
+        if (snapshots.isEnabled()) {
+            TransactionIndex full = newIndex();
+            full.load();
+            full.writeSnapshot();
+        }
+        insert(jdbcTemplate, snapshotted + 1, rows);
+    }
+
+    private void insert(JdbcTemplate jdbcTemplate, long firstId, long lastId) {
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long id = firstId; id <= lastId; id++) {
+            batch.add(new Object[]{id, id % ACCOUNTS + 1, Date.valueOf(FIRST_DAY.plusDays(id % 365)), 100 + id % 50_000});
+            if (batch.size() == INSERT_BATCH || id == lastId) {
+                jdbcTemplate.batchUpdate("insert into transactions (id, account_id, date, amount) values (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.list(snapshotDirectory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(snapshotDirectory);
+    }
+
+    private TransactionIndex newIndex() {
+        return new TransactionIndex(transactionRepository, entityManager, transactionManager, snapshots, true, false);
+    }
+
+    @Benchmark
+    public TransactionIndex timeToReady() {
+        TransactionIndex index = newIndex();
+        index.load();
+        return index;
+    }
+}
@@ -0,0 +1,30 @@
+package com.companyledgertwo.benchmark;
+
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.util.TransactionValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidatorBenchmark {
+
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        transaction = new Transaction(1L, LocalDate.of(2024, 5, 1), 19.99);
+    }
+
+    @Benchmark
+    public Transaction validateTransaction() {
+        TransactionValidator.validateTransaction(transaction);
+        return transaction;
+    }
+}
@@ -1,27 +1,45 @@
 package com.companyledgertwo.controller;
 
 import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.AccountFilter;
+import com.companyledgertwo.model.AccountPage;
+import com.companyledgertwo.model.AccountRollup;
+import com.companyledgertwo.model.AccountView;
+import com.companyledgertwo.model.CacheStatistics;
+import com.companyledgertwo.model.RollupGranularity;
 import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionView;
 import com.companyledgertwo.service.AccountService;
 import io.restassured.http.ContentType;
 import io.restassured.module.mockmvc.RestAssuredMockMvc;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -35,6 +53,9 @@ class AccountControllerTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private ConditionalRequests conditionalRequests;
+
     @BeforeEach
     void setUp() {
         RestAssuredMockMvc.standaloneSetup(accountController);
@@ -60,12 +81,24 @@ class AccountControllerTest {
     }
 
     @Test
-    void testGetAccount() {
-        Account account = new Account();
-        account.setId(1L);
-        account.setAccountName("Test Account");
+    void testCreateAccountOnlyReportsNameConstraintAsConflict() {
+        Account account = new Account("Test Account", 1.0, true);
+        ConstraintViolationException duplicate = new ConstraintViolationException("duplicate", new SQLException(), "UQ_ACCOUNTS_ACCOUNT_NAME");
+        ConstraintViolationException other = new ConstraintViolationException("null", new SQLException(), "CK_ACCOUNTS_BALANCE");
+        when(accountService.createAccount(any(Account.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate", duplicate))
+                .thenThrow(new DataIntegrityViolationException("other", other));
 
-        when(accountService.getAccount(1L)).thenReturn(account);
+        given().contentType(ContentType.JSON).body(account).when().post("/api/accounts")
+                .then().statusCode(CONFLICT.value());
+        given().contentType(ContentType.JSON).body(account).when().post("/api/accounts")
+                .then().statusCode(BAD_REQUEST.value())
+                .body("error", equalTo("Account violates a database constraint"));
+    }
+
+    @Test
+    void testGetAccount() {
+        when(accountService.getAccount(1L)).thenReturn(new AccountView(1L, "Test Account", 100_050L, true));
 
         given()
                 .contentType(ContentType.JSON)
@@ -74,7 +107,10 @@ class AccountControllerTest {
                 .then()
                 .statusCode(OK.value())
                 .contentType(ContentType.JSON)
-                .body("accountName", equalTo("Test Account"));
+                .body("id", equalTo(1))
+                .body("accountName", equalTo("Test Account"))
+                .body("balance", equalTo(1000.5F))
+                .body("isActive", equalTo(true));
     }
 
     @Test
@@ -93,6 +129,59 @@ class AccountControllerTest {
                 .body("error", equalTo("Account not found"));
     }
 
+    @Test
+    void testGetCacheStatistics() {
+        when(accountService.accountCacheStatistics()).thenReturn(new CacheStatistics(3, 8, 2, 1, 0.8));
+
+        given()
+                .when()
+                .get("/api/accounts/cache/stats")
+                .then()
+                .statusCode(OK.value())
+                .contentType(ContentType.JSON)
+                .body("hitCount", equalTo(8))
+                .body("missCount", equalTo(2))
+                .body("evictionCount", equalTo(1));
+    }
+
+
+    @Test
+    void testGetMonthlySummary() {
+        AccountView account = new AccountView(1L, "Test Account", 0L, true);
+        AccountRollup rollup = new AccountRollup(
+                new AccountRollup.Key(1L, RollupGranularity.MONTH, LocalDate.of(2024, 5, 1)), 3, 4_550, 50, 3_000);
+
+        when(accountService.getAccount(1L)).thenReturn(account);
+        when(accountService.getSummary(1L, RollupGranularity.MONTH, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)))
+                .thenReturn(List.of(rollup));
+
+        given()
+                .param("granularity", "month")
+                .param("from", "2024-01-01")
+                .param("to", "2024-12-31")
+                .when()
+                .get("/api/accounts/1/summary")
+                .then()
+                .statusCode(OK.value())
+                .contentType(ContentType.JSON)
+                .body("[0].bucketStart", equalTo("2024-05-01"))
+                .body("[0].transactionCount", equalTo(3))
+                .body("[0].amountSum", equalTo(45.5F))
+                .body("[0].amountMax", equalTo(30.0F));
+    }
+
+    @Test
+    void testGetSummaryWithUnknownGranularity() {
+        given()
+                .param("granularity", "week")
+                .param("from", "2024-01-01")
+                .param("to", "2024-12-31")
+                .when()
+                .get("/api/accounts/1/summary")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("error", equalTo("Granularity must be day or month"));
+    }
 
     @Test
     void testCreateTransactionAccountNotFound() {
@@ -113,13 +202,24 @@ class AccountControllerTest {
                 .body("error", equalTo("Transactions not found for account id: 1"));
     }
 
+    @Test
+    void testGetAccountNotModifiedSkipsLookup() {
+        when(conditionalRequests.notModified(any(), eq(1L), eq("account"))).thenReturn(true);
+
+        given()
+                .when()
+                .get("/api/accounts/1")
+                .then()
+                .body(emptyString());
+
+        verify(accountService, never()).getAccount(anyLong());
+    }
+
     @Test
     void testListAllAccounts() {
-        Account account = new Account();
-        account.setAccountName("Test Account");
-        List<Account> accounts = Collections.singletonList(account);
+        List<AccountView> accounts = Collections.singletonList(new AccountView(1L, "Test Account", 0L, true));
 
-        when(accountService.listAllAccounts()).thenReturn(accounts);
+        when(accountService.listAllAccounts(AccountFilter.NONE, null, 100)).thenReturn(new AccountPage(accounts, null));
 
         given()
                 .contentType(ContentType.JSON)
@@ -128,16 +228,38 @@ class AccountControllerTest {
                 .then()
                 .statusCode(OK.value())
                 .contentType(ContentType.JSON)
+                .header("X-Next-Cursor", nullValue())
                 .body("[0].accountName", equalTo("Test Account"));
     }
 
+    @Test
+    void testListAccountsWithCombinedFilters() {
+        List<AccountView> accounts = Collections.singletonList(new AccountView(7L, "Acme Payroll", 150_000L, true));
+        AccountFilter filter = new AccountFilter(100_001L, 200_000L, true, "Acme");
+
+        when(accountService.listAllAccounts(filter, "cursor", 10)).thenReturn(new AccountPage(accounts, "next"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("minBalance", "1000.005")
+                .queryParam("maxBalance", "2000")
+                .queryParam("active", "true")
+                .queryParam("namePrefix", "Acme")
+                .queryParam("cursor", "cursor")
+                .queryParam("limit", "10")
+                .when()
+                .get("/api/accounts")
+                .then()
+                .statusCode(OK.value())
+                .header("X-Next-Cursor", equalTo("next"))
+                .body("[0].id", equalTo(7))
+                .body("[0].balance", equalTo(1500.0F));
+    }
+
     @Test
     void testGetTransactions() {
-        Transaction transaction = new Transaction();
-        transaction.setId(1L);
-        transaction.setAmount(100.0);
-        transaction.setAccountId(1L);
-        List<Transaction> transactions = Collections.singletonList(transaction);
+        List<TransactionView> transactions = Collections.singletonList(
+                new TransactionView(1L, 1L, LocalDate.of(2024, 5, 1), 10_000L));
 
         when(accountService.listTransactionsForAccount(1L)).thenReturn(transactions);
 
@@ -148,6 +270,7 @@ class AccountControllerTest {
                 .then()
                 .statusCode(OK.value())
                 .contentType(ContentType.JSON)
+                .body("[0].date", equalTo("2024-05-01"))
                 .body("[0].amount", equalTo(100.0f));
     }
 
@@ -0,0 +1,159 @@
+package com.companyledgertwo.controller;
+
+import com.companyledgertwo.model.AccountVersion;
+import com.companyledgertwo.model.AccountView;
+import com.companyledgertwo.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class ConditionalRequestsTest {
+
+    private static final AccountVersion VERSION = new AccountVersion("\"abc-7\"", 1_714_521_600_000L);
+
+    @Mock
+    private AccountService accountService;
+
+    private MeterRegistry meterRegistry;
+    private ConditionalRequests conditionalRequests;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        conditionalRequests = new ConditionalRequests(accountService, meterRegistry, false);
+        when(accountService.accountVersion(1L)).thenReturn(VERSION);
+        when(accountService.getAccount(1L)).thenReturn(new AccountView(1L, "Test Account", 100_000L, true));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenETagMatches() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-7\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = conditionalRequests.notModified(new ServletWebRequest(request, response), 1L, "account");
+
+        // Then
+        assertThat(notModified).isTrue();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-7\"");
+        assertThat(counted("not_modified")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldTagFullResponseWhenETagIsStale() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-6\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = conditionalRequests.notModified(new ServletWebRequest(request, response), 1L, "account");
+
+        // Then
+        assertThat(notModified).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-7\"");
+        assertThat(response.getDateHeader(HttpHeaders.LAST_MODIFIED)).isEqualTo(1_714_521_600_000L);
+        assertThat(counted("full")).isEqualTo(1.0);
+        assertThat(counted("not_modified")).isZero();
+    }
+
+    @Test
+    void shouldTagBinaryRenderingsApart() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/transactions/account/1");
+        request.addHeader(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-7\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = conditionalRequests.notModified(new ServletWebRequest(request, response), 1L, "account");
+
+        // Then
+        assertThat(notModified).isFalse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-7-cbor\"");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT);
+        assertThat(ConditionalRequests.etag(VERSION, "application/cbor;q=0.5, application/json")).isEqualTo("\"abc-7\"");
+        assertThat(ConditionalRequests.etag(VERSION, "application/x-jackson-smile")).isEqualTo("\"abc-7-x-jackson-smile\"");
+    }
+
+    @Test
+    void shouldOnlyAnswerTransactionsFromTheVersionWhenEnabled() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/transactions/account/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-7\"");
+        MockHttpServletResponse disabledResponse = new MockHttpServletResponse();
+        MockHttpServletResponse enabledResponse = new MockHttpServletResponse();
+        ConditionalRequests enabled = new ConditionalRequests(accountService, meterRegistry, true);
+
+        // When
+        boolean disabledNotModified = conditionalRequests.transactionsNotModified(
+                new ServletWebRequest(request, disabledResponse), 1L, "account");
+        boolean enabledNotModified = enabled.transactionsNotModified(
+                new ServletWebRequest(request, enabledResponse), 1L, "account");
+
+        // Then
+        assertThat(disabledNotModified).isFalse();
+        assertThat(disabledResponse.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(enabledNotModified).isTrue();
+        assertThat(enabledResponse.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void shouldIgnoreIfModifiedSinceWithoutLastModified() {
+        // Given
+        when(accountService.accountVersion(2L)).thenReturn(new AccountVersion("\"abc-8\"", AccountVersion.UNKNOWN));
+        when(accountService.getAccount(2L)).thenReturn(new AccountView(2L, "Other Account", 0L, true));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/2");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, VERSION.lastModified());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = conditionalRequests.notModified(new ServletWebRequest(request, response), 2L, "account");
+
+        // Then
+        assertThat(notModified).isFalse();
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-8\"");
+    }
+
+    @Test
+    void shouldSendNoValidatorsForAnUnknownAccount() {
+        // Given
+        when(accountService.accountVersion(3L)).thenReturn(new AccountVersion("\"abc-9\"", VERSION.lastModified()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/3");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc-9\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean notModified = conditionalRequests.notModified(new ServletWebRequest(request, response), 3L, "account");
+
+        // Then
+        assertThat(notModified).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+    }
+
+    private double counted(String outcome) {
+        return meterRegistry.get("ledger.http.conditional.requests")
+                .tag("endpoint", "account")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
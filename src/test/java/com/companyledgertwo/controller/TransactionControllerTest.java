@@ -1,8 +1,18 @@
 package com.companyledgertwo.controller;
 
+import com.companyledgertwo.config.JacksonConfig;
+import com.companyledgertwo.model.PostingOutcome;
+import com.companyledgertwo.model.PostingReceipt;
 import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionBatchResult;
+import com.companyledgertwo.model.TransactionFilter;
+import com.companyledgertwo.model.TransactionPage;
+import com.companyledgertwo.model.TransactionSort;
+import com.companyledgertwo.model.TransactionView;
 import com.companyledgertwo.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.restassured.module.mockmvc.RestAssuredMockMvc;
+import org.assertj.core.api.Assertions;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,22 +20,33 @@ import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 
 public class TransactionControllerTest {
 
     @Mock
     private TransactionService transactionService;
 
+    @Spy
+    private ObjectMapper objectMapper = JacksonConfig.newObjectMapper();
+
+    @Mock
+    private ConditionalRequests conditionalRequests;
+
     @InjectMocks
     private TransactionController transactionController;
 
@@ -62,6 +83,65 @@ public class TransactionControllerTest {
                 .body("amount", Matchers.equalTo(100.0F));
     }
 
+    @Test
+    void shouldAcceptTransactionIntoJournal() {
+        BDDMockito.given(transactionService.isJournalEnabled()).willReturn(true);
+        BDDMockito.given(transactionService.acceptTransaction(any(Transaction.class), isNull()))
+                .willReturn(new PostingReceipt(42L, 1L, LocalDate.now(), 10_000L));
+
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"accountId\":1,\"date\":\"" + LocalDate.now() + "\",\"amount\":100.0}")
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .body("sequence", Matchers.equalTo(42))
+                .body("accountId", Matchers.equalTo(1))
+                .body("amount", Matchers.equalTo(100.0F));
+
+        BDDMockito.then(transactionService).should(never()).createTransaction(any(Transaction.class));
+    }
+
+    @Test
+    void shouldAnswerAJournaledRetryWithItsReceipt() {
+        BDDMockito.given(transactionService.isJournalEnabled()).willReturn(true);
+        BDDMockito.given(transactionService.findPostedTransaction("retry-1")).willReturn(transaction1);
+        BDDMockito.given(transactionService.acceptTransaction(any(Transaction.class), eq("retry-1")))
+                .willReturn(new PostingReceipt(42L, 1L, LocalDate.now(), 10_000L));
+
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .header("Idempotency-Key", "retry-1")
+                .body("{\"accountId\":1,\"date\":\"" + LocalDate.now() + "\",\"amount\":100.0}")
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .body("sequence", Matchers.equalTo(42));
+    }
+
+    @Test
+    void shouldReturnTheOutcomeOfAJournaledPosting() {
+        BDDMockito.given(transactionService.isJournalEnabled()).willReturn(true);
+        BDDMockito.given(transactionService.findPostingOutcome(42L))
+                .willReturn(new PostingOutcome(42L, PostingOutcome.Status.REJECTED, "Account not found"));
+
+        given()
+                .when()
+                .get("/transactions/receipts/42")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("status", Matchers.equalTo("REJECTED"))
+                .body("reason", Matchers.equalTo("Account not found"));
+
+        given()
+                .when()
+                .get("/transactions/receipts/43")
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
     @Test
     void shouldReturnBadRequestWhenCreatingInvalidTransaction() {
         BDDMockito.given(transactionService.createTransaction(any(Transaction.class))).willThrow(new IllegalArgumentException());
@@ -75,10 +155,57 @@ public class TransactionControllerTest {
                 .statusCode(HttpStatus.BAD_REQUEST.value());
     }
 
+    @Test
+    void shouldReplayPostedTransactionForKnownIdempotencyKey() {
+        BDDMockito.given(transactionService.findPostedTransaction("retry-1")).willReturn(transaction1);
+
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .header("Idempotency-Key", "retry-1")
+                .body("{\"accountId\":null,\"date\":null,\"amount\":-100.0}")
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("id", Matchers.equalTo(1));
+
+        BDDMockito.then(transactionService).should(never()).createTransaction(any(), anyString());
+        BDDMockito.then(transactionService).should(never()).createTransaction(any());
+    }
+
+    @Test
+    void shouldPostWithIdempotencyKey() {
+        BDDMockito.given(transactionService.createTransaction(any(Transaction.class), eq("new-key"))).willReturn(transaction1);
+
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .header("Idempotency-Key", "new-key")
+                .body("{\"accountId\":1,\"date\":\"" + LocalDate.now() + "\",\"amount\":100.0}")
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("id", Matchers.equalTo(1))
+                .body("$", Matchers.not(Matchers.hasKey("idempotencyKey")));
+    }
+
+    @Test
+    void shouldRejectBlankIdempotencyKey() {
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .header("Idempotency-Key", " ")
+                .body("{\"accountId\":1,\"date\":\"" + LocalDate.now() + "\",\"amount\":100.0}")
+                .when()
+                .post("/transactions")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("error", Matchers.equalTo("Idempotency-Key must be 1 to 255 characters"));
+    }
+
     @Test
     void shouldGetTransactionsByAccountId() {
-        List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
-        BDDMockito.given(transactionService.findTransactionsByAccountId(anyLong())).willReturn(transactions);
+        List<TransactionView> transactions = Arrays.asList(TransactionView.of(transaction1), TransactionView.of(transaction2));
+        BDDMockito.given(transactionService.findTransactionsByAccountId(anyLong(), any(), anyInt())).willReturn(new TransactionPage(transactions, null));
 
         given()
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -94,7 +221,7 @@ public class TransactionControllerTest {
 
     @Test
     void shouldReturnEmptyListWhenAccountNotFound() {
-        BDDMockito.given(transactionService.findTransactionsByAccountId(anyLong())).willReturn(Collections.emptyList());
+        BDDMockito.given(transactionService.findTransactionsByAccountId(anyLong(), any(), anyInt())).willReturn(new TransactionPage(Collections.emptyList(), null));
 
         given()
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -107,8 +234,8 @@ public class TransactionControllerTest {
 
     @Test
     void shouldGetTransactionsBetweenDates() {
-        List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
-        BDDMockito.given(transactionService.findTransactionsBetweenDates(any(LocalDate.class), any(LocalDate.class))).willReturn(transactions);
+        List<TransactionView> transactions = Arrays.asList(TransactionView.of(transaction1), TransactionView.of(transaction2));
+        BDDMockito.given(transactionService.findTransactionsBetweenDates(any(LocalDate.class), any(LocalDate.class), any(), anyInt())).willReturn(new TransactionPage(transactions, null));
 
         given()
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -126,7 +253,7 @@ public class TransactionControllerTest {
 
     @Test
     void shouldReturnEmptyListWhenNoTransactionsBetweenDates() {
-        BDDMockito.given(transactionService.findTransactionsBetweenDates(any(LocalDate.class), any(LocalDate.class))).willReturn(Collections.emptyList());
+        BDDMockito.given(transactionService.findTransactionsBetweenDates(any(LocalDate.class), any(LocalDate.class), any(), anyInt())).willReturn(new TransactionPage(Collections.emptyList(), null));
 
         given()
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -141,8 +268,8 @@ public class TransactionControllerTest {
 
     @Test
     void shouldGetTransactionsGreaterThan() {
-        List<Transaction> transactions = Arrays.asList(transaction2);
-        BDDMockito.given(transactionService.findTransactionsGreaterThan(anyDouble())).willReturn(transactions);
+        List<TransactionView> transactions = Arrays.asList(TransactionView.of(transaction2));
+        BDDMockito.given(transactionService.findTransactionsGreaterThan(anyLong(), any(), anyInt())).willReturn(new TransactionPage(transactions, null));
 
         given()
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -157,7 +284,7 @@ public class TransactionControllerTest {
 
     @Test
     void shouldReturnEmptyListWhenNoTransactionsGreaterThan() {
-        BDDMockito.given(transactionService.findTransactionsGreaterThan(anyDouble())).willReturn(Collections.emptyList());
+        BDDMockito.given(transactionService.findTransactionsGreaterThan(anyLong(), any(), anyInt())).willReturn(new TransactionPage(Collections.emptyList(), null));
 
         given()
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -171,8 +298,8 @@ public class TransactionControllerTest {
 
     @Test
     void shouldGetTransactionsLessThan() {
-        List<Transaction> transactions = Arrays.asList(transaction1);
-        BDDMockito.given(transactionService.findTransactionsLessThan(anyDouble())).willReturn(transactions);
+        List<TransactionView> transactions = Arrays.asList(TransactionView.of(transaction1));
+        BDDMockito.given(transactionService.findTransactionsLessThan(anyLong(), any(), anyInt())).willReturn(new TransactionPage(transactions, null));
 
         given()
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -187,7 +314,7 @@ public class TransactionControllerTest {
 
     @Test
     void shouldReturnEmptyListWhenNoTransactionsLessThan() {
-        BDDMockito.given(transactionService.findTransactionsLessThan(anyDouble())).willReturn(Collections.emptyList());
+        BDDMockito.given(transactionService.findTransactionsLessThan(anyLong(), any(), anyInt())).willReturn(new TransactionPage(Collections.emptyList(), null));
 
         given()
                 .contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -198,4 +325,123 @@ public class TransactionControllerTest {
                 .statusCode(HttpStatus.NOT_FOUND.value())
                 .body("isEmpty()", Matchers.equalTo(true));
     }
+
+    @Test
+    void shouldCreateTransactionBatchFromNdjson() {
+        BDDMockito.given(transactionService.createTransactions(any())).willAnswer(invocation -> {
+            Iterator<Transaction> rows = invocation.getArgument(0);
+            List<TransactionBatchResult> results = new ArrayList<>();
+            int index = 0;
+            while (rows.hasNext()) {
+                rows.next();
+                results.add(TransactionBatchResult.created(index, (long) index + 1));
+                index++;
+            }
+            return results;
+        });
+
+        given()
+                .contentType(MediaType.APPLICATION_NDJSON_VALUE)
+                .body("{\"accountId\":1,\"date\":\"2024-05-01\",\"amount\":100.0}\n"
+                        + "{\"accountId\":2,\"date\":\"2024-05-02\",\"amount\":200.0}\n")
+                .when()
+                .post("/transactions/batch")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("size()", Matchers.equalTo(2))
+                .body("[1].status", Matchers.equalTo("CREATED"))
+                .body("[1].id", Matchers.equalTo(2));
+    }
+
+    @Test
+    void shouldExportTransactionsAsNdjson() {
+        BDDMockito.given(transactionService.exportTransactionsByAccountId(anyLong(), any())).willAnswer(invocation -> {
+            Consumer<TransactionView> sink = invocation.getArgument(1);
+            sink.accept(TransactionView.of(transaction1));
+            sink.accept(TransactionView.of(transaction2));
+            return 2L;
+        });
+
+        String body = given()
+                .when()
+                .get("/transactions/account/1/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(MediaType.APPLICATION_NDJSON_VALUE)
+                .extract().asString();
+
+        String[] lines = body.split("\n");
+        Assertions.assertThat(lines).hasSize(2);
+        Assertions.assertThat(lines[0]).contains("\"id\":1").contains("\"amount\":100.0");
+        Assertions.assertThat(lines[1]).contains("\"id\":2").contains("\"amount\":200.0");
+    }
+
+    @Test
+    void shouldReturnNextCursorHeaderWhenMoreTransactionsExist() {
+        BDDMockito.given(transactionService.findTransactionsByAccountId(1L, null, 1))
+                .willReturn(new TransactionPage(List.of(TransactionView.of(transaction1)), "next-page"));
+
+        given()
+                .param("limit", 1)
+                .when()
+                .get("/transactions/account/1")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header(TransactionController.NEXT_CURSOR_HEADER, "next-page")
+                .body("size()", Matchers.equalTo(1));
+    }
+
+    @Test
+    void shouldSearchTransactionsWithCombinedFilters() {
+        List<TransactionView> transactions = Arrays.asList(TransactionView.of(transaction2));
+        TransactionFilter filter = new TransactionFilter(List.of(1L, 2L), LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31),
+                10_000L, 25_000L);
+        BDDMockito.given(transactionService.searchTransactions(filter, TransactionSort.AMOUNT_DESC, "cursor", 20))
+                .willReturn(new TransactionPage(transactions, "next"));
+
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .param("accountId", 1, 2)
+                .param("start", "2024-05-01")
+                .param("end", "2024-05-31")
+                .param("minAmount", "100")
+                .param("maxAmount", "250.009")
+                .param("sort", "amount")
+                .param("direction", "desc")
+                .param("cursor", "cursor")
+                .param("limit", 20)
+                .when()
+                .get("/transactions/search")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header(TransactionController.NEXT_CURSOR_HEADER, Matchers.equalTo("next"))
+                .body("[0].amount", Matchers.equalTo(200.0F));
+    }
+
+    @Test
+    void shouldRejectSearchWithInvertedDateRange() {
+        given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .param("start", "2024-05-31")
+                .param("end", "2024-05-01")
+                .when()
+                .get("/transactions/search")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("error", Matchers.equalTo("start must not be after end"));
+        BDDMockito.then(transactionService).should(never()).searchTransactions(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldSkipQueryWhenAccountTransactionsNotModified() {
+        BDDMockito.given(conditionalRequests.transactionsNotModified(any(), eq(1L), eq("transactions_by_account"))).willReturn(true);
+
+        given()
+                .when()
+                .get("/transactions/account/1")
+                .then()
+                .body(Matchers.emptyString());
+
+        BDDMockito.then(transactionService).should(never()).findTransactionsByAccountId(anyLong(), any(), anyInt());
+    }
 }
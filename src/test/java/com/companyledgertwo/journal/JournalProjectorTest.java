@@ -0,0 +1,189 @@
+package com.companyledgertwo.journal;
+
+import com.companyledgertwo.exception.AccountNotFoundException;
+import com.companyledgertwo.model.JournalCheckpoint;
+import com.companyledgertwo.model.JournalRejection;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.repository.JournalCheckpointRepository;
+import com.companyledgertwo.repository.JournalRejectionRepository;
+import com.companyledgertwo.service.AccountCache;
+import com.companyledgertwo.service.IdempotencyCache;
+import com.companyledgertwo.service.PostingEngine;
+import com.companyledgertwo.service.TransactionIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class JournalProjectorTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 1);
+
+    @Mock
+    private PostingEngine postingEngine;
+
+    @Mock
+    private JournalCheckpointRepository checkpoints;
+
+    @Mock
+    private JournalRejectionRepository rejections;
+
+    @Mock
+    private TransactionIndex transactionIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private final List<Long> postedAccountIds = new ArrayList<>();
+    private MeterRegistry meterRegistry;
+    private PostingJournal journal;
+    private JournalProjector projector;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        journal = new PostingJournal(meterRegistry, true, directory, DataSize.ofKilobytes(4), false, 100, Duration.ofHours(1));
+        journal.open();
+        projector = new JournalProjector(journal, postingEngine, checkpoints, rejections, transactionIndex,
+                new IdempotencyCache(100, Duration.ofHours(1)), new AccountCache(100, Duration.ofHours(1)), transactionManager, meterRegistry, 100, Duration.ofMillis(1));
+        when(postingEngine.postBatch(anyList(), any(Runnable.class))).thenAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            for (Transaction transaction : transactions) {
+                if (transaction.getAccountId() == 99L) {
+                    throw new AccountNotFoundException(99L);
+                }
+                if (transaction.getAccountId() == 98L) {
+                    throw new ArithmeticException("long overflow");
+                }
+            }
+            invocation.<Runnable>getArgument(1).run();
+            transactions.forEach(transaction -> postedAccountIds.add(transaction.getAccountId()));
+            return transactions;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        projector.stop();
+    }
+
+    @Test
+    void shouldReplayOnlyEntriesAfterTheCheckpointOnStart() {
+        // Given
+        for (long accountId = 1; accountId <= 5; accountId++) {
+            journal.append(accountId, DATE, 100, null);
+        }
+        when(checkpoints.findById(JournalProjector.CHECKPOINT)).thenReturn(Optional.of(new JournalCheckpoint(JournalProjector.CHECKPOINT, 2)));
+
+        // When
+        projector.start();
+
+        // Then
+        assertThat(postedAccountIds).containsExactly(3L, 4L, 5L);
+        assertThat(projector.projectedSequence()).isEqualTo(5);
+        assertThat(savedCheckpoints()).containsExactly(5L);
+        verify(transactionIndex).addAll(anyList());
+    }
+
+    @Test
+    void shouldStepOverAnEntryTheDatabaseRefuses() {
+        // Given
+        journal.append(1, DATE, 100, null);
+        journal.append(99, DATE, 100, null);
+        journal.append(2, DATE, 100, null);
+        when(checkpoints.findById(JournalProjector.CHECKPOINT)).thenReturn(Optional.empty());
+
+        // When
+        projector.start();
+
+        // Then
+        assertThat(postedAccountIds).containsExactly(1L, 2L);
+        assertThat(projector.projectedSequence()).isEqualTo(3);
+        assertThat(meterRegistry.get("ledger.journal.projection.rejected").counter().count()).isEqualTo(1.0);
+        verify(transactionManager).commit(any());
+        ArgumentCaptor<JournalRejection> rejection = ArgumentCaptor.forClass(JournalRejection.class);
+        verify(rejections).save(rejection.capture());
+        assertThat(rejection.getValue().getSequence()).isEqualTo(2);
+        assertThat(rejection.getValue().getAccountId()).isEqualTo(99);
+        assertThat(rejection.getValue().getReason()).contains("99");
+    }
+
+    @Test
+    void shouldRecordAnOverflowingEntryAsRejected() {
+        // Given
+        journal.append(1, DATE, 100, null);
+        journal.append(98, DATE, Long.MAX_VALUE, null);
+        journal.append(2, DATE, 100, null);
+        when(checkpoints.findById(JournalProjector.CHECKPOINT)).thenReturn(Optional.empty());
+
+        // When
+        projector.start();
+
+        // Then
+        assertThat(postedAccountIds).containsExactly(1L, 2L);
+        assertThat(projector.projectedSequence()).isEqualTo(3);
+        ArgumentCaptor<JournalRejection> rejection = ArgumentCaptor.forClass(JournalRejection.class);
+        verify(rejections).save(rejection.capture());
+        assertThat(rejection.getValue().getSequence()).isEqualTo(2);
+        assertThat(rejection.getValue().getReason()).isEqualTo("long overflow");
+    }
+
+    @Test
+    void shouldRetryFromTheCheckpointAfterATransientFailure() throws InterruptedException {
+        // Given
+        journal.append(1, DATE, 100, null);
+        journal.append(2, DATE, 100, null);
+        when(checkpoints.findById(JournalProjector.CHECKPOINT)).thenReturn(Optional.empty());
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .doAnswer(invocation -> {
+                    List<Transaction> transactions = invocation.getArgument(0);
+                    invocation.<Runnable>getArgument(1).run();
+                    transactions.forEach(transaction -> postedAccountIds.add(transaction.getAccountId()));
+                    return transactions;
+                })
+                .when(postingEngine).postBatch(anyList(), any(Runnable.class));
+
+        // When
+        projector.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (projector.projectedSequence() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Then
+        assertThat(projector.projectedSequence()).isEqualTo(2);
+        assertThat(postedAccountIds).containsExactly(1L, 2L);
+        verify(postingEngine, times(2)).postBatch(anyList(), any(Runnable.class));
+    }
+
+    private List<Long> savedCheckpoints() {
+        ArgumentCaptor<JournalCheckpoint> captor = ArgumentCaptor.forClass(JournalCheckpoint.class);
+        verify(checkpoints, atLeastOnce()).save(captor.capture());
+        return captor.getAllValues().stream().map(JournalCheckpoint::getSequence).toList();
+    }
+}
@@ -0,0 +1,195 @@
+package com.companyledgertwo.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PostingJournalTest {
+
+    // Records without a key take 38 bytes, so six fit in one segment
+    private static final DataSize SEGMENT_SIZE = DataSize.ofBytes(256);
+    private static final int RECORD_BYTES = 38;
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadEntriesBackInSequenceOrderAcrossSegments() throws IOException {
+        // Given
+        PostingJournal journal = openJournal();
+        for (int i = 1; i <= 20; i++) {
+            journal.append(i % 3, DATE.plusDays(i), i * 100L, i % 2 == 0 ? "key-" + i : null);
+        }
+
+        // When
+        List<JournalEntry> entries = readAll(journal.cursorAfter(0));
+
+        // Then
+        assertThat(entries).hasSize(20);
+        assertThat(entries).extracting(JournalEntry::sequence).containsExactlyElementsOf(sequences(1, 20));
+        assertThat(entries.get(3)).isEqualTo(new JournalEntry(4, 1, DATE.plusDays(4), 400L, "key-4"));
+        assertThat(entries.get(4).idempotencyKey()).isNull();
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void shouldContinueAfterTheLastEntryWhenReopened() throws IOException {
+        // Given
+        PostingJournal journal = openJournal();
+        for (int i = 1; i <= 8; i++) {
+            journal.append(1, DATE, i, null);
+        }
+        journal.close();
+
+        // When
+        PostingJournal reopened = openJournal();
+        JournalEntry appended = reopened.append(1, DATE, 9, null);
+
+        // Then
+        assertThat(reopened.lastSequence()).isEqualTo(9);
+        assertThat(appended.sequence()).isEqualTo(9);
+        assertThat(readAll(reopened.cursorAfter(6))).extracting(JournalEntry::amountMinor).containsExactly(7L, 8L, 9L);
+    }
+
+    @Test
+    void shouldDropATornRecordWhenReopened() throws IOException {
+        // Given
+        PostingJournal journal = openJournal();
+        journal.append(1, DATE, 100, null);
+        journal.append(1, DATE, 200, null);
+        journal.append(1, DATE, 300, null);
+        journal.close();
+        corrupt(segmentFiles().get(0), 2 * RECORD_BYTES + 30);
+
+        // When
+        PostingJournal reopened = openJournal();
+        reopened.append(2, DATE, 999, null);
+
+        // Then
+        assertThat(readAll(reopened.cursorAfter(0)))
+                .extracting(JournalEntry::sequence, JournalEntry::amountMinor)
+                .containsExactly(tuple(1L, 100L), tuple(2L, 200L), tuple(3L, 999L));
+    }
+
+    @Test
+    void shouldDeleteOnlySegmentsThatAreFullyApplied() throws IOException {
+        // Given
+        PostingJournal journal = openJournal();
+        for (int i = 1; i <= 15; i++) {
+            journal.append(1, DATE, i, null);
+        }
+        assertThat(segmentFiles()).hasSize(3);
+
+        // When
+        int deleted = journal.deleteSegmentsUpTo(10);
+
+        // Then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(segmentFiles()).hasSize(2);
+        assertThat(readAll(journal.cursorAfter(10))).extracting(JournalEntry::sequence)
+                .containsExactlyElementsOf(sequences(11, 15));
+    }
+
+    @Test
+    void shouldFollowAppendsMadeAfterTheCursorCaughtUp() throws IOException {
+        // Given
+        PostingJournal journal = openJournal();
+        journal.append(1, DATE, 1, null);
+        PostingJournal.Cursor cursor = journal.cursorAfter(0);
+        assertThat(cursor.next(100)).hasSize(1);
+        assertThat(cursor.next(100)).isEmpty();
+
+        // When
+        for (int i = 2; i <= 10; i++) {
+            journal.append(1, DATE, i, null);
+        }
+
+        // Then
+        assertThat(readAll(cursor)).extracting(JournalEntry::sequence).containsExactlyElementsOf(sequences(2, 10));
+    }
+
+    @Test
+    void shouldJournalAnIdempotencyKeyOnce() throws IOException {
+        // Given
+        PostingJournal journal = openJournal();
+        JournalEntry first = journal.append(1, DATE, 100L, "retry-1");
+        journal.append(2, DATE, 200L, null);
+
+        // When
+        JournalEntry retried = journal.append(1, DATE, 100L, "retry-1");
+
+        // Then
+        assertThat(retried).isEqualTo(first);
+        assertThat(journal.lastSequence()).isEqualTo(2);
+        assertThat(readAll(journal.cursorAfter(0))).hasSize(2);
+    }
+
+    @Test
+    void shouldRememberTheKeysOfEntriesOnDiskWhenReopened() throws IOException {
+        // Given
+        PostingJournal journal = openJournal();
+        for (int i = 1; i <= 8; i++) {
+            journal.append(1, DATE, i, "key-" + i);
+        }
+        journal.close();
+
+        // When
+        PostingJournal reopened = openJournal();
+
+        // Then
+        assertThat(reopened.findByKey("key-3")).isEqualTo(new JournalEntry(3, 1, DATE, 3L, "key-3"));
+        assertThat(reopened.append(1, DATE, 8L, "key-8").sequence()).isEqualTo(8);
+        assertThat(reopened.lastSequence()).isEqualTo(8);
+    }
+
+    private PostingJournal openJournal() throws IOException {
+        PostingJournal journal = new PostingJournal(new SimpleMeterRegistry(), true, directory, SEGMENT_SIZE, false, 100, Duration.ofHours(1));
+        journal.open();
+        return journal;
+    }
+
+    private static List<JournalEntry> readAll(PostingJournal.Cursor cursor) {
+        List<JournalEntry> entries = new ArrayList<>();
+        for (List<JournalEntry> batch = cursor.next(4); !batch.isEmpty(); batch = cursor.next(4)) {
+            entries.addAll(batch);
+        }
+        return entries;
+    }
+
+    private static List<Long> sequences(long from, long to) {
+        List<Long> sequences = new ArrayList<>();
+        for (long sequence = from; sequence <= to; sequence++) {
+            sequences.add(sequence);
+        }
+        return sequences;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static void corrupt(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), position);
+        }
+    }
+}
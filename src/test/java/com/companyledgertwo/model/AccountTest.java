@@ -1,5 +1,9 @@
 package com.companyledgertwo.model;
 
+import com.companyledgertwo.config.JacksonConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -7,6 +11,7 @@ import jakarta.validation.ValidatorFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -154,4 +159,35 @@ class AccountTest {
 
         assertThat(exception.getMessage()).isEqualTo("Balance cannot be negative");
     }
+
+    @Test
+    void shouldSerializeViewLikeEntity() throws Exception {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper();
+        Account account = new Account("Test Account", 1000.5, true);
+        account.setId(1L);
+
+        // When
+        String view = objectMapper.writeValueAsString(AccountView.of(account));
+
+        // Then
+        assertThat(view).isEqualTo(objectMapper.writeValueAsString(account));
+    }
+
+    @Test
+    void shouldKeepBalanceThroughBinaryFormats() throws Exception {
+        // Given
+        Account account = new Account("Test Account", 1000.5, true);
+        account.setId(1L);
+
+        for (ObjectMapper mapper : List.of(JacksonConfig.newObjectMapper(new CBORFactory()),
+                JacksonConfig.newObjectMapper(new SmileFactory()))) {
+            // When
+            byte[] encoded = mapper.writeValueAsBytes(account);
+
+            // Then
+            assertThat(mapper.readValue(encoded, Account.class).getBalanceMinor()).isEqualTo(100050L);
+            assertThat(mapper.readValue(encoded, AccountView.class).balance()).isEqualTo(100050L);
+        }
+    }
 }
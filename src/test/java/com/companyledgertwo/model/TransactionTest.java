@@ -1,5 +1,13 @@
 package com.companyledgertwo.model;
 
+import com.companyledgertwo.config.JacksonConfig;
+import com.companyledgertwo.util.Money;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -8,10 +16,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class TransactionTest {
 
@@ -139,4 +149,76 @@ class TransactionTest {
         // Then
         assertThat(transaction.getAmount()).isEqualTo(200.0);
     }
+
+    @Test
+    void shouldKeepDecimalWireFormatForMinorUnitAmount() throws Exception {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        Transaction transaction = new Transaction(1L, LocalDate.of(2024, 5, 1), 0.1);
+        transaction.setAmountMinor(transaction.getAmountMinor() + Money.toMinor(0.2));
+
+        // When
+        String json = objectMapper.writeValueAsString(transaction);
+        Transaction parsed = objectMapper.readValue("{\"accountId\":1,\"date\":\"2024-05-01\",\"amount\":19.99}", Transaction.class);
+
+        // Then
+        assertThat(json).contains("\"amount\":0.30");
+        assertEquals(1999L, parsed.getAmountMinor());
+    }
+
+    @Test
+    void shouldRejectAmountWithSubCentPrecision() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        assertThrows(JsonMappingException.class, () ->
+                objectMapper.readValue("{\"accountId\":1,\"amount\":1.005}", Transaction.class));
+    }
+
+    @Test
+    void shouldSerializeViewLikeEntity() throws Exception {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        Transaction transaction = new Transaction(1L, LocalDate.of(2024, 5, 1), 19.99);
+        transaction.setId(7L);
+
+        // When
+        String view = objectMapper.writeValueAsString(TransactionView.of(transaction));
+
+        // Then
+        assertThat(view).isEqualTo(objectMapper.writeValueAsString(transaction));
+    }
+
+    @Test
+    void shouldWriteEpochDaysAndMinorUnitsInBinaryFormats() throws Exception {
+        // Given
+        ObjectMapper cborMapper = JacksonConfig.newObjectMapper(new CBORFactory());
+        TransactionView view = new TransactionView(7L, 1L, LocalDate.of(2024, 5, 1), 1999L);
+
+        // When
+        byte[] cbor = cborMapper.writeValueAsBytes(view);
+        JsonNode tree = cborMapper.readTree(cbor);
+
+        // Then
+        assertThat(tree.get("date").isIntegralNumber()).isTrue();
+        assertThat(tree.get("date").longValue()).isEqualTo(LocalDate.of(2024, 5, 1).toEpochDay());
+        assertThat(tree.get("amount").isIntegralNumber()).isTrue();
+        assertThat(tree.get("amount").longValue()).isEqualTo(1999L);
+        assertThat(cborMapper.readValue(cbor, TransactionView.class)).isEqualTo(view);
+        assertThat(cborMapper.readValue(cbor, Transaction.class).getAmountMinor()).isEqualTo(1999L);
+    }
+
+    @Test
+    void shouldReadViewBackFromEveryFormat() throws Exception {
+        // Given
+        TransactionView view = new TransactionView(7L, 1L, LocalDate.of(2024, 5, 1), 1999L);
+
+        for (ObjectMapper mapper : List.of(JacksonConfig.newObjectMapper(), JacksonConfig.newObjectMapper(new CBORFactory()),
+                JacksonConfig.newObjectMapper(new SmileFactory()))) {
+            // When
+            TransactionView read = mapper.readValue(mapper.writeValueAsBytes(view), TransactionView.class);
+
+            // Then
+            assertThat(read).isEqualTo(view);
+        }
+    }
 }
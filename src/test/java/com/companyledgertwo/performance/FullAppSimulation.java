@@ -23,7 +23,7 @@ public class FullAppSimulation extends Simulation {
             .exec(http("Create Account")
                     .post("/api/accounts")
                     .body(StringBody("{\n" +
-                            "  \"accountName\" : \"Test Account\",\n" +
+                            "  \"accountName\" : \"Test Account #{randomUuid()}\",\n" +
                             "  \"balance\" : 1000.0,\n" +
                             "  \"isActive\" : true\n" +
                             "}"))
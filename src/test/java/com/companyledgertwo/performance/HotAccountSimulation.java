@@ -0,0 +1,28 @@
+package com.companyledgertwo.performance;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import static io.gatling.javaapi.core.Choice.withWeight;
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Most postings and reads land on a few accounts, stressing the per-account locks and the
+ * account cache invalidation path. The hot share is set with {@code -Dworkload.hotShare}.
+ */
+public class HotAccountSimulation extends Simulation {
+
+    private static final double HOT_SHARE = Double.parseDouble(System.getProperty("workload.hotShare", "0.8"));
+
+    ScenarioBuilder scn = scenario("Hot Account")
+            .feed(LedgerWorkload.skewedAccounts(HOT_SHARE))
+            .randomSwitch().on(
+                    withWeight(60.0, LedgerWorkload.POST_TRANSACTION),
+                    withWeight(40.0, LedgerWorkload.GET_ACCOUNT));
+
+    {
+        setUp(LedgerWorkload.inject(scn))
+                .protocols(LedgerWorkload.httpProtocol())
+                .assertions(LedgerWorkload.slos());
+    }
+}
@@ -0,0 +1,151 @@
+package com.companyledgertwo.performance;
+
+import io.gatling.javaapi.core.Assertion;
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.PopulationBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Building blocks shared by the workload simulations: protocol, feeders, request chains, the
+ * injection profile and the SLO assertions. Everything is tunable through system properties, e.g.
+ * {@code mvn gatling:test -Dgatling.simulationClass=com.companyledgertwo.performance.MixedWorkloadSimulation
+ * -Dworkload.injection=closed -Dworkload.users=2000 -Dslo.p99=800}.
+ */
+final class LedgerWorkload {
+
+    static final String BASE_URL = System.getProperty("workload.baseUrl", "http://localhost:8080");
+    // Matches the accounts seeded by postgres-test-data.sql
+    static final int ACCOUNTS = Integer.getInteger("workload.accounts", 100);
+    static final int HOT_ACCOUNTS = Integer.getInteger("workload.hotAccounts", 5);
+    static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    static final int DAYS = 366;
+
+    static final String INJECTION = System.getProperty("workload.injection", "open");
+    static final int USERS = Integer.getInteger("workload.users", 500);
+    static final Duration RAMP = Duration.ofSeconds(Long.getLong("workload.rampSeconds", 60));
+    static final Duration STEADY = Duration.ofSeconds(Long.getLong("workload.steadySeconds", 120));
+
+    static final int SLO_P95_MILLIS = Integer.getInteger("slo.p95", 250);
+    static final int SLO_P99_MILLIS = Integer.getInteger("slo.p99", 500);
+    static final double SLO_ERROR_PERCENT = Double.parseDouble(System.getProperty("slo.errorPercent", "1.0"));
+
+    private LedgerWorkload() {
+    }
+
+    static HttpProtocolBuilder httpProtocol() {
+        return http
+                .baseUrl(BASE_URL)
+                .acceptHeader("application/json")
+                .contentTypeHeader("application/json")
+                .shareConnections();
+    }
+
+    /**
+     * Account ids spread evenly over the seeded accounts.
+     */
+    static Iterator<Map<String, Object>> uniformAccounts() {
+        return Stream.generate(() -> row(1 + ThreadLocalRandom.current().nextInt(ACCOUNTS))).iterator();
+    }
+
+    /**
+     * Account ids where {@code hotShare} of the traffic goes to the first few accounts, the rest
+     * spread evenly, so a handful of rows see most of the lock and cache contention.
+     */
+    static Iterator<Map<String, Object>> skewedAccounts(double hotShare) {
+        return Stream.generate(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int accountId = random.nextDouble() < hotShare
+                    ? 1 + random.nextInt(HOT_ACCOUNTS)
+                    : 1 + random.nextInt(ACCOUNTS);
+            return row(accountId);
+        }).iterator();
+    }
+
+    private static Map<String, Object> row(int accountId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = FIRST_DAY.plusDays(random.nextInt(DAYS - 31));
+        return Map.of(
+                "accountId", accountId,
+                "postingDate", LocalDate.now().minusDays(random.nextInt(30)).toString(),
+                "amount", amount(random),
+                "threshold", amount(random),
+                "start", start.toString(),
+                "end", start.plusDays(1 + random.nextInt(30)).toString());
+    }
+
+    // Log-normal amounts: mostly tens of units with a long tail of large postings
+    private static String amount(Random random) {
+        double value = Math.exp(3.0 + 1.2 * random.nextGaussian());
+        return String.format(Locale.ROOT, "%.2f", Math.max(0.01, Math.min(value, 1_000_000.0)));
+    }
+
+    static final ChainBuilder GET_ACCOUNT = exec(http("Get Account")
+            .get("/api/accounts/#{accountId}")
+            .check(status().is(200)));
+
+    static final ChainBuilder ACCOUNT_TRANSACTIONS = exec(http("Transactions for Account")
+            .get("/transactions/account/#{accountId}?limit=50")
+            .check(status().in(200, 404)));
+
+    static final ChainBuilder TRANSACTIONS_BETWEEN = exec(http("Transactions Between Dates")
+            .get("/transactions/between?start=#{start}&end=#{end}&limit=50")
+            .check(status().in(200, 404)));
+
+    static final ChainBuilder TRANSACTIONS_GREATER_THAN = exec(http("Transactions Greater Than")
+            .get("/transactions/greaterThan?amount=#{threshold}&limit=50")
+            .check(status().in(200, 404)));
+
+    static final ChainBuilder ACCOUNT_SUMMARY = exec(http("Account Summary")
+            .get("/api/accounts/#{accountId}/summary?granularity=month&from=#{start}&to=#{end}")
+            .check(status().is(200)));
+
+    static final ChainBuilder POST_TRANSACTION = exec(http("Create Transaction")
+            .post("/transactions")
+            .body(StringBody("{\"accountId\":#{accountId},\"date\":\"#{postingDate}\",\"amount\":#{amount}}"))
+            .asJson()
+            .check(status().is(200)));
+
+    static final ChainBuilder POST_BATCH = exec(http("Create Transaction Batch")
+            .post("/transactions/batch")
+            .body(StringBody("[{\"accountId\":#{accountId},\"date\":\"#{postingDate}\",\"amount\":#{amount}},"
+                    + "{\"accountId\":#{accountId},\"date\":\"#{postingDate}\",\"amount\":#{threshold}}]"))
+            .asJson()
+            .check(status().is(200)));
+
+    /**
+     * Ramps up to {@code workload.users} and holds there. The open model adds that many new users
+     * per second, the closed model keeps that many users in flight.
+     */
+    static PopulationBuilder inject(ScenarioBuilder scenario) {
+        if ("closed".equalsIgnoreCase(INJECTION)) {
+            return scenario.injectClosed(
+                    rampConcurrentUsers(0).to(USERS).during(RAMP),
+                    constantConcurrentUsers(USERS).during(STEADY));
+        }
+        return scenario.injectOpen(
+                rampUsersPerSec(1).to(USERS).during(RAMP),
+                constantUsersPerSec(USERS).during(STEADY));
+    }
+
+    static List<Assertion> slos() {
+        return List.of(
+                global().responseTime().percentile(95.0).lt(SLO_P95_MILLIS),
+                global().responseTime().percentile(99.0).lt(SLO_P99_MILLIS),
+                global().failedRequests().percent().lte(SLO_ERROR_PERCENT));
+    }
+}
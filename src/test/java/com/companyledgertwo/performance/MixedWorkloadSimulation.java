@@ -0,0 +1,30 @@
+package com.companyledgertwo.performance;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import static io.gatling.javaapi.core.Choice.withWeight;
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * A user session: look at the account, post to it, then read its history back.
+ */
+public class MixedWorkloadSimulation extends Simulation {
+
+    ScenarioBuilder scn = scenario("Mixed")
+            .feed(LedgerWorkload.uniformAccounts())
+            .exec(LedgerWorkload.GET_ACCOUNT)
+            .pause(1)
+            .randomSwitch().on(
+                    withWeight(60.0, LedgerWorkload.POST_TRANSACTION),
+                    withWeight(40.0, LedgerWorkload.TRANSACTIONS_BETWEEN))
+            .pause(1)
+            .exec(LedgerWorkload.ACCOUNT_TRANSACTIONS)
+            .exec(LedgerWorkload.ACCOUNT_SUMMARY);
+
+    {
+        setUp(LedgerWorkload.inject(scn))
+                .protocols(LedgerWorkload.httpProtocol())
+                .assertions(LedgerWorkload.slos());
+    }
+}
@@ -0,0 +1,28 @@
+package com.companyledgertwo.performance;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import static io.gatling.javaapi.core.Choice.withWeight;
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Dashboards and statements: reads only, spread evenly over the accounts.
+ */
+public class ReadHeavySimulation extends Simulation {
+
+    ScenarioBuilder scn = scenario("Read Heavy")
+            .feed(LedgerWorkload.uniformAccounts())
+            .randomSwitch().on(
+                    withWeight(30.0, LedgerWorkload.GET_ACCOUNT),
+                    withWeight(30.0, LedgerWorkload.ACCOUNT_TRANSACTIONS),
+                    withWeight(20.0, LedgerWorkload.TRANSACTIONS_BETWEEN),
+                    withWeight(10.0, LedgerWorkload.TRANSACTIONS_GREATER_THAN),
+                    withWeight(10.0, LedgerWorkload.ACCOUNT_SUMMARY));
+
+    {
+        setUp(LedgerWorkload.inject(scn))
+                .protocols(LedgerWorkload.httpProtocol())
+                .assertions(LedgerWorkload.slos());
+    }
+}
@@ -0,0 +1,111 @@
+package com.companyledgertwo.performance;
+
+import com.companyledgertwo.config.JacksonConfig;
+import com.companyledgertwo.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares bytes allocated per response for a large transaction list: the old controller path
+ * (writeValueAsString, then the container encodes the String) against writing straight to the
+ * response stream as the Jackson message converter does now. Also checks that amounts and dates
+ * are formatted without a buffer per value.
+ */
+class ResponseSerializationAllocationTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseSerializationAllocationTest.class);
+    private static final int TRANSACTIONS = 10_000;
+    private static final int ROUNDS = 20;
+
+    private final ObjectMapper objectMapper = JacksonConfig.newObjectMapper();
+
+    @Test
+    void streamingAllocatesLessPerResponseThanStringBodies() throws IOException {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        List<Transaction> transactions = transactions();
+
+        for (int i = 0; i < ROUNDS; i++) {
+            viaString(transactions);
+            viaStream(transactions);
+        }
+
+        long stringBytes = allocatedPerRound(threads, () -> viaString(transactions));
+        long streamBytes = allocatedPerRound(threads, () -> viaStream(transactions));
+        LOGGER.info("{} transactions: {} bytes allocated per response via String, {} via stream",
+                TRANSACTIONS, stringBytes, streamBytes);
+
+        assertThat(streamBytes).isLessThan(stringBytes / 3);
+    }
+
+    @Test
+    void amountsAndDatesAreWrittenWithoutAllocatingPerValue() throws IOException {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        List<Transaction> transactions = transactions();
+        for (int i = 0; i < ROUNDS; i++) {
+            viaStream(transactions);
+        }
+
+        long perTransaction = allocatedPerRound(threads, () -> viaStream(transactions)) / TRANSACTIONS;
+        LOGGER.info("{} bytes allocated per streamed transaction", perTransaction);
+
+        // A fresh amount and date buffer per value alone would be over 100 bytes
+        assertThat(perTransaction).isLessThan(16);
+    }
+
+    private void viaString(List<Transaction> transactions) throws IOException {
+        String body = objectMapper.writeValueAsString(transactions);
+        OutputStream.nullOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void viaStream(List<Transaction> transactions) throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), transactions);
+    }
+
+    private static long allocatedPerRound(com.sun.management.ThreadMXBean threads, Round round) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ROUNDS;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Thread allocation counters are not available on this JVM");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    private static List<Transaction> transactions() {
+        List<Transaction> transactions = new ArrayList<>(TRANSACTIONS);
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Transaction transaction = new Transaction((long) (i % 50), day.plusDays(i % 365), null);
+            transaction.setId((long) i);
+            transaction.setAmountMinor(1_000L + i);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    @FunctionalInterface
+    private interface Round {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,40 @@
+package com.companyledgertwo.performance;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import static io.gatling.javaapi.core.Choice.withWeight;
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Runs the same read mix against {@code /transactions} and then against
+ * {@code /reactive/transactions}, one after the other, so the report shows both side by side.
+ * Best run with a high closed load, e.g. {@code -Dworkload.injection=closed -Dworkload.users=2000}.
+ */
+public class ServletVsReactiveSimulation extends Simulation {
+
+    ScenarioBuilder servlet = reads("Servlet", "/transactions");
+    ScenarioBuilder reactive = reads("Reactive", "/reactive/transactions");
+
+    private static ScenarioBuilder reads(String name, String basePath) {
+        return scenario(name)
+                .feed(LedgerWorkload.uniformAccounts())
+                .randomSwitch().on(
+                        withWeight(50.0, read(name + " Transactions for Account", basePath + "/account/#{accountId}?limit=50")),
+                        withWeight(30.0, read(name + " Transactions Between Dates", basePath + "/between?start=#{start}&end=#{end}&limit=50")),
+                        withWeight(20.0, read(name + " Transactions Greater Than", basePath + "/greaterThan?amount=#{threshold}&limit=50")));
+    }
+
+    private static ChainBuilder read(String requestName, String path) {
+        return exec(http(requestName).get(path).check(status().in(200, 404)));
+    }
+
+    {
+        setUp(LedgerWorkload.inject(servlet).andThen(LedgerWorkload.inject(reactive)))
+                .protocols(LedgerWorkload.httpProtocol())
+                .assertions(LedgerWorkload.slos());
+    }
+}
@@ -0,0 +1,26 @@
+package com.companyledgertwo.performance;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import static io.gatling.javaapi.core.Choice.withWeight;
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Ingestion: single postings and small batches with a read-back now and then.
+ */
+public class WriteHeavySimulation extends Simulation {
+
+    ScenarioBuilder scn = scenario("Write Heavy")
+            .feed(LedgerWorkload.uniformAccounts())
+            .randomSwitch().on(
+                    withWeight(70.0, LedgerWorkload.POST_TRANSACTION),
+                    withWeight(20.0, LedgerWorkload.POST_BATCH),
+                    withWeight(10.0, LedgerWorkload.GET_ACCOUNT));
+
+    {
+        setUp(LedgerWorkload.inject(scn))
+                .protocols(LedgerWorkload.httpProtocol())
+                .assertions(LedgerWorkload.slos());
+    }
+}
@@ -0,0 +1,62 @@
+package com.companyledgertwo.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks what the migrations after V6 made of the seeded rows: V7 must move the whole history into
+ * monthly partitions and carry every Idempotency-Key over into {@code transaction_idempotency_keys}.
+ */
+@EnabledIf("com.companyledgertwo.repository.PostgresTestDatabase#isAvailable")
+class PartitionMigrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(PostgresTestDatabase.dataSource());
+    }
+
+    @Test
+    void migratesTheSeededSchemaToTheLatestVersion() {
+        assertThat(Flyway.configure().dataSource(PostgresTestDatabase.dataSource()).load().info().pending()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM flyway_schema_history WHERE version = ? AND success", Integer.class,
+                PostgresTestDatabase.SEEDED_VERSION)).isEqualTo(1);
+    }
+
+    @Test
+    void movesTheSeededHistoryIntoMonthlyPartitions() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT relkind FROM pg_class WHERE oid = 'transactions'::regclass", String.class)).isEqualTo("p");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Long.class)).isEqualTo(10_000L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions_default", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                + " WHERE i.inhparent = 'transactions'::regclass AND c.relname LIKE 'transactions_2024_%'", String.class))
+                .hasSize(12);
+        // The rollups were computed from the rows before the conversion
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(amount) FROM transactions", Long.class))
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT SUM(amount_sum) FROM account_rollups WHERE granularity = 'MONTH'", Long.class));
+    }
+
+    @Test
+    void keepsIdempotencyKeysUniqueAcrossMonths() {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction_idempotency_keys", Long.class)).isEqualTo(100L);
+        LocalDate seededDate = jdbcTemplate.queryForObject(
+                "SELECT date FROM transactions WHERE idempotency_key = 'seed-100'", LocalDate.class);
+
+        // The same key in another month passes the partitioned (key, date) index but not the key table
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO transactions (id, account_id, date, amount, idempotency_key) VALUES (?, 1, ?, 100, 'seed-100')",
+                20_000L, seededDate.plusMonths(1)));
+    }
+}
@@ -0,0 +1,161 @@
+package com.companyledgertwo.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the date-range repository queries against the seeded and migrated
+ * {@link PostgresTestDatabase} and checks from their plans that only the partition for the
+ * requested month is scanned. Skipped when neither a server is configured nor Docker is available.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.companyledgertwo.repository.PartitionPruningTest$RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("com.companyledgertwo.repository.PostgresTestDatabase#isAvailable")
+class PartitionPruningTest {
+
+    private static final LocalDate MAY = LocalDate.of(2024, 5, 1);
+    private static final LocalDate END_OF_MAY = LocalDate.of(2024, 5, 31);
+    // Scan nodes name their table after "on", except Bitmap Index Scan, which names the index
+    private static final Pattern SCANNED_RELATION = Pattern.compile("(?<!Bitmap Index) Scan (?:Backward )?(?:using \\w+ )?on (transactions\\w*)");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", PostgresTestDatabase::url);
+        registry.add("spring.datasource.username", PostgresTestDatabase::username);
+        registry.add("spring.datasource.password", PostgresTestDatabase::password);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Neighbouring months, so a plan that fails to prune shows up as extra partitions
+        for (String month : List.of("2024-04-01", "2024-05-01", "2024-06-01")) {
+            jdbcTemplate.queryForObject("SELECT create_transaction_partition(CAST(? AS DATE))", String.class, month);
+        }
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findByDateBetweenScansOnlyTheRequestedMonth() {
+        assertScansOnlyMay(() -> transactionRepository.findByDateBetween(MAY, END_OF_MAY), MAY, END_OF_MAY);
+    }
+
+    @Test
+    void dateKeysetPagesScanOnlyTheRequestedMonth() {
+        assertScansOnlyMay(() -> transactionRepository.findByDateBetweenOrderByDateAscIdAsc(MAY, END_OF_MAY, Limit.of(10)),
+                MAY, END_OF_MAY, 0, 10);
+        LocalDate after = MAY.plusDays(10);
+        assertScansOnlyMay(() -> transactionRepository.findByDateBetweenAfter(MAY, END_OF_MAY, after, 5L, Limit.of(10)),
+                MAY, END_OF_MAY, after, after, 5L, 0, 10);
+    }
+
+    @Test
+    void genericPlanPrunesPartitionsAtExecution() {
+        // Server-side prepared statements are eventually planned without their parameter values
+        String plan = jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE by_date(date, date) AS SELECT id, amount FROM transactions WHERE date BETWEEN $1 AND $2");
+                try {
+                    return text(statement.executeQuery(
+                            "EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF, SUMMARY OFF) EXECUTE by_date('2024-05-01', '2024-05-31')"));
+                } finally {
+                    statement.execute("DEALLOCATE by_date");
+                    statement.execute("RESET plan_cache_mode");
+                }
+            }
+        });
+
+        assertThat(plan).contains("Subplans Removed");
+        assertThat(scannedRelations(plan)).containsExactly("transactions_2024_05");
+    }
+
+    private void assertScansOnlyMay(Runnable query, Object... parameters) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        query.run();
+        List<String> statements = new ArrayList<>(RecordingStatementInspector.STATEMENTS);
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql, parameters);
+            assertThat(scannedRelations(plan)).as("Plan for %s:%n%s", sql, plan).containsExactly("transactions_2024_05");
+        }
+    }
+
+    // Unlike H2, PostgreSQL only prunes at planning time when it sees the parameter values.
+    private String explain(String sql, Object... parameters) {
+        assertThat(sql.chars().filter(c -> c == '?').count()).as("Parameters of %s", sql).isEqualTo(parameters.length);
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (COSTS OFF) " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    Object value = parameters[i] instanceof LocalDate date ? Date.valueOf(date) : parameters[i];
+                    statement.setObject(i + 1, value);
+                }
+                return text(statement.executeQuery());
+            }
+        });
+    }
+
+    private static String text(ResultSet plan) throws SQLException {
+        try (plan) {
+            StringBuilder text = new StringBuilder();
+            while (plan.next()) {
+                text.append(plan.getString(1)).append('\n');
+            }
+            return text.toString();
+        }
+    }
+
+    private static Set<String> scannedRelations(String plan) {
+        Set<String> relations = new TreeSet<>();
+        Matcher matcher = SCANNED_RELATION.matcher(plan);
+        while (matcher.find()) {
+            relations.add(matcher.group(1));
+        }
+        return relations;
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.regionMatches(true, 0, "select", 0, 6)) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
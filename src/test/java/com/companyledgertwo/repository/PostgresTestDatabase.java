@@ -0,0 +1,75 @@
+package com.companyledgertwo.repository;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+/**
+ * PostgreSQL database for the tests that need a real server, built the way the seeded database is
+ * built for the workloads: Flyway migrates an empty schema to V6, {@code postgres-test-data.sql}
+ * is loaded, and the remaining migrations run over the seeded rows. Built once per test run.
+ * <p>
+ * {@code LEDGER_TEST_POSTGRES_URL} (with {@code LEDGER_TEST_POSTGRES_USER} and
+ * {@code LEDGER_TEST_POSTGRES_PASSWORD}) points the tests at an existing server, whose schema is
+ * wiped first; otherwise a Testcontainers PostgreSQL is started when Docker is available.
+ */
+final class PostgresTestDatabase {
+
+    static final String SEEDED_VERSION = "6";
+
+    private static final String URL = System.getenv("LEDGER_TEST_POSTGRES_URL");
+    private static PostgreSQLContainer<?> container;
+    private static DataSource dataSource;
+
+    private PostgresTestDatabase() {}
+
+    /**
+     * Whether a server is configured or Docker can start one; used with {@code @EnabledIf}.
+     */
+    static boolean isAvailable() {
+        return URL != null && !URL.isBlank() || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    static synchronized DataSource dataSource() {
+        if (dataSource == null) {
+            dataSource = URL != null && !URL.isBlank()
+                    ? new DriverManagerDataSource(URL,
+                    System.getenv().getOrDefault("LEDGER_TEST_POSTGRES_USER", "username"),
+                    System.getenv().getOrDefault("LEDGER_TEST_POSTGRES_PASSWORD", "yourpassword"))
+                    : startContainer();
+            seed(dataSource);
+        }
+        return dataSource;
+    }
+
+    static String url() {
+        return ((DriverManagerDataSource) dataSource()).getUrl();
+    }
+
+    static String username() {
+        return ((DriverManagerDataSource) dataSource()).getUsername();
+    }
+
+    static String password() {
+        return ((DriverManagerDataSource) dataSource()).getPassword();
+    }
+
+    private static DataSource startContainer() {
+        container = new PostgreSQLContainer<>("postgres:16-alpine");
+        container.start();
+        return new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+
+    private static void seed(DataSource dataSource) {
+        Flyway seeded = Flyway.configure().dataSource(dataSource).cleanDisabled(false).target(SEEDED_VERSION).load();
+        seeded.clean();
+        seeded.migrate();
+        new ResourceDatabasePopulator(new ClassPathResource("postgres-test-data.sql")).execute(dataSource);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+    }
+}
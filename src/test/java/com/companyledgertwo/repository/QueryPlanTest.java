@@ -0,0 +1,170 @@
+package com.companyledgertwo.repository;
+
+import com.companyledgertwo.model.AccountFilter;
+import com.companyledgertwo.model.TransactionFilter;
+import com.companyledgertwo.model.TransactionSort;
+import com.companyledgertwo.util.TransactionCursor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every filtering repository query, captures the SQL Hibernate sends and asks H2 for its
+ * plan. A plan that reads a whole table means an index from {@code V3__secondary_indexes.sql} or
+ * {@code V8__account_listing_indexes.sql} (mirrored in the entity {@code @Table} definitions) is
+ * missing or no longer matches the query.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.companyledgertwo.repository.QueryPlanTest$RecordingStatementInspector")
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void findByAccountIdUsesIndex() {
+        assertIndexed(() -> transactionRepository.findByAccountId(1L));
+    }
+
+    @Test
+    void streamByAccountIdUsesIndex() {
+        assertIndexed(() -> {
+            try (Stream<?> rows = transactionRepository.streamByAccountIdOrderByIdAsc(1L)) {
+                rows.count();
+            }
+        });
+    }
+
+    @Test
+    void accountKeysetPagesUseIndex() {
+        assertIndexed(() -> transactionRepository.findByAccountIdOrderByDateAscIdAsc(1L, Limit.of(10)));
+        assertIndexed(() -> transactionRepository.findByAccountIdAfter(1L, DAY, 5L, Limit.of(10)));
+    }
+
+    @Test
+    void findByDateBetweenUsesIndex() {
+        assertIndexed(() -> transactionRepository.findByDateBetween(DAY, DAY.plusDays(30)));
+        assertIndexed(() -> transactionRepository.findByDateBetweenOrderByDateAscIdAsc(DAY, DAY.plusDays(30), Limit.of(10)));
+        assertIndexed(() -> transactionRepository.findByDateBetweenAfter(DAY, DAY.plusDays(30), DAY, 5L, Limit.of(10)));
+    }
+
+    @Test
+    void amountThresholdsUseIndex() {
+        assertIndexed(() -> transactionRepository.findByAmountGreaterThan(10_000L));
+        assertIndexed(() -> transactionRepository.findByAmountLessThan(10_000L));
+        assertIndexed(() -> transactionRepository.findByAmountGreaterThanOrderByAmountAscIdAsc(10_000L, Limit.of(10)));
+        assertIndexed(() -> transactionRepository.findByAmountGreaterThanAfter(10_000L, 15_000L, 5L, Limit.of(10)));
+        assertIndexed(() -> transactionRepository.findByAmountLessThanOrderByAmountAscIdAsc(10_000L, Limit.of(10)));
+        assertIndexed(() -> transactionRepository.findByAmountLessThanAfter(10_000L, 5_000L, 5L, Limit.of(10)));
+    }
+
+    @Test
+    void findByAccountNameUsesIndex() {
+        assertIndexed(() -> accountRepository.findByAccountName("Test Account"));
+    }
+
+    @Test
+    void findByIsActiveUsesIndex() {
+        assertIndexed(() -> accountRepository.findByIsActive(true));
+    }
+
+    @Test
+    void filteredAccountPagesUseIndex() {
+        assertIndexed(() -> accountRepository.findPage(new AccountFilter(null, null, true, null), null, 10));
+        assertIndexed(() -> accountRepository.findPage(new AccountFilter(10_000L, 50_000L, null, null), null, 10));
+        assertIndexed(() -> accountRepository.findPage(new AccountFilter(null, null, null, "Test"), null, 10));
+        assertIndexed(() -> accountRepository.findPage(new AccountFilter(10_000L, null, false, "Test"), 5L, 10));
+        assertIndexed(() -> accountRepository.findPage(AccountFilter.NONE, 5L, 10));
+    }
+
+    @Test
+    void balanceRangesFilterTheIdKeyset() {
+        // Balance has no index (V10), so a balance-only page walks the primary key in listing order
+        RecordingStatementInspector.STATEMENTS.clear();
+        accountRepository.findPage(new AccountFilter(10_000L, 50_000L, null, null), 5L, 10);
+        String plan = explain(RecordingStatementInspector.STATEMENTS.get(0));
+        assertThat(plan).contains("PRIMARY_KEY").doesNotContain("tableScan");
+    }
+
+    @Test
+    void transactionSearchUsesIndex() {
+        TransactionCursor.DateKey afterDate = new TransactionCursor.DateKey(DAY, 5L);
+        assertIndexed(() -> transactionRepository.search(
+                new TransactionFilter(List.of(1L, 2L), DAY, DAY.plusDays(30), null, null), TransactionSort.DATE_ASC, null, 10));
+        assertIndexed(() -> transactionRepository.search(
+                new TransactionFilter(List.of(1L), null, null, 1_000L, 50_000L), TransactionSort.DATE_DESC, afterDate, 10));
+        assertIndexed(() -> transactionRepository.search(
+                new TransactionFilter(null, DAY, DAY.plusDays(30), 1_000L, null), TransactionSort.DATE_ASC, afterDate, 10));
+        assertIndexed(() -> transactionRepository.search(
+                new TransactionFilter(null, null, null, 1_000L, 50_000L), TransactionSort.AMOUNT_DESC,
+                new TransactionCursor.AmountKey(20_000L, 5L), 10));
+    }
+
+    private void assertIndexed(Runnable query) {
+        RecordingStatementInspector.STATEMENTS.clear();
+        query.run();
+        List<String> statements = new ArrayList<>(RecordingStatementInspector.STATEMENTS);
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertThat(plan).as("Plan for %s", sql).doesNotContain("tableScan");
+        }
+    }
+
+    // H2 plans a parameterised statement without needing the parameter values.
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                StringBuilder text = new StringBuilder();
+                while (plan.next()) {
+                    text.append(plan.getString(1)).append('\n');
+                }
+                return text.toString();
+            }
+        });
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.regionMatches(true, 0, "select", 0, 6)) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AccountRollupsTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AccountRollups accountRollups;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        accountRollups = new AccountRollups(jdbcTemplate, () -> false);
+    }
+
+    @Test
+    void shouldMergeEachBucketOnceForABatch() {
+        // When
+        accountRollups.apply(List.of(
+                new Transaction(1L, LocalDate.of(2024, 5, 1), 10.0),
+                new Transaction(1L, LocalDate.of(2024, 5, 1), 30.0),
+                new Transaction(1L, LocalDate.of(2024, 5, 20), 5.0)
+        ));
+
+        // Then
+        verify(jdbcTemplate).update(AccountRollups.MERGE_SQL, 1L, "DAY", LocalDate.of(2024, 5, 1), 2L, 4_000L, 1_000L, 3_000L);
+        verify(jdbcTemplate).update(AccountRollups.MERGE_SQL, 1L, "DAY", LocalDate.of(2024, 5, 20), 1L, 500L, 500L, 500L);
+        verify(jdbcTemplate).update(AccountRollups.MERGE_SQL, 1L, "MONTH", LocalDate.of(2024, 5, 1), 3L, 4_500L, 500L, 3_000L);
+        verify(jdbcTemplate, never()).update(eq(AccountRollups.UPSERT_SQL), any(Object[].class));
+    }
+
+    @Test
+    void shouldRetryMergeThatLostTheRaceToInsert() {
+        // Given
+        when(jdbcTemplate.update(AccountRollups.MERGE_SQL, 7L, "DAY", LocalDate.of(2024, 5, 9), 1L, 1_250L, 1_250L, 1_250L))
+                .thenThrow(new DuplicateKeyException("duplicate key"))
+                .thenReturn(1);
+
+        // When
+        accountRollups.apply(List.of(new Transaction(7L, LocalDate.of(2024, 5, 9), 12.5)));
+
+        // Then
+        verify(jdbcTemplate, times(2)).update(AccountRollups.MERGE_SQL, 7L, "DAY", LocalDate.of(2024, 5, 9), 1L, 1_250L, 1_250L, 1_250L);
+        verify(jdbcTemplate).update(AccountRollups.MERGE_SQL, 7L, "MONTH", LocalDate.of(2024, 5, 1), 1L, 1_250L, 1_250L, 1_250L);
+    }
+
+    @Test
+    void shouldUpsertOnPostgres() {
+        // Given
+        int[] checks = {0};
+        accountRollups = new AccountRollups(jdbcTemplate, () -> {
+            checks[0]++;
+            return true;
+        });
+
+        // When
+        accountRollups.apply(List.of(new Transaction(7L, LocalDate.of(2024, 5, 9), 12.5)));
+        accountRollups.apply(List.of(new Transaction(7L, LocalDate.of(2024, 6, 2), 1.0)));
+
+        // Then
+        verify(jdbcTemplate).update(AccountRollups.UPSERT_SQL, 7L, "DAY", LocalDate.of(2024, 5, 9), 1L, 1_250L, 1_250L, 1_250L);
+        verify(jdbcTemplate).update(AccountRollups.UPSERT_SQL, 7L, "MONTH", LocalDate.of(2024, 5, 1), 1L, 1_250L, 1_250L, 1_250L);
+        verify(jdbcTemplate, never()).update(eq(AccountRollups.MERGE_SQL), any(Object[].class));
+        assertThat(checks[0]).isEqualTo(1);
+    }
+}
@@ -1,25 +1,42 @@
 package com.companyledgertwo.service;
 
+import com.companyledgertwo.exception.InvalidCursorException;
 import com.companyledgertwo.model.Account;
+import com.companyledgertwo.model.AccountFilter;
+import com.companyledgertwo.model.AccountPage;
+import com.companyledgertwo.model.AccountVersion;
+import com.companyledgertwo.model.AccountView;
+import com.companyledgertwo.model.RollupGranularity;
 import com.companyledgertwo.model.Transaction;
 import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.AccountRollupRepository;
 import com.companyledgertwo.repository.TransactionRepository;
+import com.companyledgertwo.util.AccountCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 class AccountServiceImplTest {
 
@@ -29,17 +46,29 @@ class AccountServiceImplTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private AccountRollupRepository accountRollupRepository;
+
+    @Spy
+    private AccountLocks accountLocks = new AccountLocks(16);
+
+    @Spy
+    private AccountCache accountCache = new AccountCache(100, Duration.ofMinutes(5));
+
     @InjectMocks
     private AccountServiceImpl accountService;
 
     private Account account;
+    private AccountView view;
     private Transaction transaction;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(accountService, "maxPageSize", 500);
         account = new Account("Test Account", 1000.0, true);
         account.setId(1L);
+        view = AccountView.of(account);
 
         transaction = new Transaction(1L, LocalDate.now(), 100.0);
         transaction.setId(1L);
@@ -56,60 +85,169 @@ class AccountServiceImplTest {
 
     @Test
     void shouldGetAccount() {
-        given(accountRepository.findById(anyLong())).willReturn(Optional.of(account));
-        Account foundAccount = accountService.getAccount(1L);
+        given(accountRepository.findViewById(anyLong())).willReturn(view);
+        AccountView foundAccount = accountService.getAccount(1L);
 
-        assertEquals(account.getId(), foundAccount.getId());
+        assertEquals(account.getId(), foundAccount.id());
     }
 
     @Test
     void shouldFindAccountByName() {
-        given(accountRepository.findByAccountName("Test Account")).willReturn(account);
-        Account foundAccount = accountService.findByAccountName("Test Account");
+        given(accountRepository.findByAccountName("Test Account")).willReturn(view);
+        AccountView foundAccount = accountService.findByAccountName("Test Account");
 
-        assertEquals(account.getId(), foundAccount.getId());
-        assertEquals("Test Account", foundAccount.getAccountName());
+        assertEquals(account.getId(), foundAccount.id());
+        assertEquals("Test Account", foundAccount.accountName());
     }
 
     @Test
     void shouldFindAccountsByBalanceGreaterThan() {
-        List<Account> accounts = Arrays.asList(
-                new Account("Account 1", 2000.0, true),
-                new Account("Account 2", 1500.0, true)
+        List<AccountView> accounts = Arrays.asList(
+                new AccountView(2L, "Account 1", 200_000L, true),
+                new AccountView(3L, "Account 2", 150_000L, true)
         );
-        given(accountRepository.findByBalanceGreaterThan(anyDouble())).willReturn(accounts);
-        List<Account> result = accountService.findByBalanceGreaterThan(1000.0);
+        given(accountRepository.findByBalanceGreaterThan(anyLong())).willReturn(accounts);
+        List<AccountView> result = accountService.findByBalanceGreaterThan(100_000L);
 
         assertEquals(2, result.size());
-        assertTrue(result.stream().anyMatch(a -> a.getAccountName().equals("Account 1")));
+        assertTrue(result.stream().anyMatch(a -> a.accountName().equals("Account 1")));
     }
 
     @Test
     void shouldFindAccountsByBalanceLessThan() {
-        List<Account> accounts = Collections.singletonList(new Account("Account 1", 500.0, true));
-        given(accountRepository.findByBalanceLessThan(anyDouble())).willReturn(accounts);
-        List<Account> result = accountService.findByBalanceLessThan(1000.0);
+        List<AccountView> accounts = Collections.singletonList(new AccountView(2L, "Account 1", 50_000L, true));
+        given(accountRepository.findByBalanceLessThan(anyLong())).willReturn(accounts);
+        List<AccountView> result = accountService.findByBalanceLessThan(100_000L);
 
         assertEquals(1, result.size());
-        assertEquals("Account 1", result.get(0).getAccountName());
+        assertEquals("Account 1", result.get(0).accountName());
     }
 
     @Test
     void shouldFindAccountsByIsActive() {
-        List<Account> accounts = Arrays.asList(
-                new Account("Account 1", 2000.0, true),
-                new Account("Account 2", 1500.0, true)
+        List<AccountView> accounts = Arrays.asList(
+                new AccountView(2L, "Account 1", 200_000L, true),
+                new AccountView(3L, "Account 2", 150_000L, true)
         );
         given(accountRepository.findByIsActive(true)).willReturn(accounts);
-        List<Account> result = accountService.findByIsActive(true);
+        List<AccountView> result = accountService.findByIsActive(true);
 
         assertEquals(2, result.size());
-        assertTrue(result.stream().allMatch(Account::getIsActive));
+        assertTrue(result.stream().allMatch(AccountView::isActive));
+    }
+
+    @Test
+    void shouldPageFilteredAccountsWithCursor() {
+        // Given
+        AccountFilter filter = new AccountFilter(100_000L, null, true, "Account");
+        List<AccountView> rows = Arrays.asList(
+                new AccountView(2L, "Account 1", 200_000L, true),
+                new AccountView(3L, "Account 2", 150_000L, true),
+                new AccountView(5L, "Account 3", 120_000L, true)
+        );
+        given(accountRepository.findPage(filter, null, 3)).willReturn(rows);
+
+        // When
+        AccountPage page = accountService.listAllAccounts(filter, null, 2);
+
+        // Then
+        assertEquals(2, page.accounts().size());
+        assertTrue(page.hasNext());
+        assertEquals(3L, AccountCursor.decode(page.nextCursor()));
     }
 
+    @Test
+    void shouldResumeAfterCursorAndCapPageSize() {
+        // Given
+        given(accountRepository.findPage(AccountFilter.NONE, 3L, 501)).willReturn(Collections.singletonList(view));
+
+        // When
+        AccountPage page = accountService.listAllAccounts(AccountFilter.NONE, AccountCursor.of(3L), 10_000);
+
+        // Then
+        assertEquals(1, page.accounts().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void shouldRejectMalformedAccountCursor() {
+        assertThrows(InvalidCursorException.class, () -> accountService.listAllAccounts(AccountFilter.NONE, "not-a-cursor", 10));
+    }
 
+    @Test
+    void shouldUpdateBalanceUnderTheAccountLock() {
+        given(accountRepository.findById(1L)).willReturn(Optional.of(account));
+        given(accountRepository.save(account)).willAnswer(invocation -> {
+            assertTrue(((ReentrantLock) accountLocks.lockFor(1L)).isHeldByCurrentThread());
+            return account;
+        });
 
+        Account updated = accountService.updateBalance(1L, 250_000L);
 
+        assertEquals(2500.0, updated.getBalance());
+        assertFalse(((ReentrantLock) accountLocks.lockFor(1L)).isLocked());
+    }
 
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        given(accountRepository.findViewById(1L)).willReturn(view);
 
+        accountService.getAccount(1L);
+        AccountView cached = accountService.getAccount(1L);
+
+        assertEquals(view, cached);
+        verify(accountRepository, times(1)).findViewById(1L);
+        assertEquals(1, accountService.accountCacheStatistics().hitCount());
+        assertEquals(1, accountService.accountCacheStatistics().missCount());
+    }
+
+    @Test
+    void shouldResolveNamesThroughTheIdCache() {
+        given(accountRepository.findByAccountName("Test Account")).willReturn(view);
+        given(accountRepository.findViewById(1L)).willReturn(view);
+
+        accountService.findByAccountName("Test Account");
+        accountService.findByAccountName("Test Account");
+        accountService.findByAccountName("Test Account");
+
+        verify(accountRepository, times(1)).findByAccountName("Test Account");
+        verify(accountRepository, times(1)).findViewById(1L);
+    }
+
+    @Test
+    void shouldReloadAccountAfterBalanceUpdate() {
+        given(accountRepository.findViewById(1L)).willReturn(view);
+        given(accountRepository.findById(1L)).willReturn(Optional.of(account));
+        given(accountRepository.save(account)).willReturn(account);
+        accountService.getAccount(1L);
+
+        accountService.updateBalance(1L, 250_000L);
+        accountService.getAccount(1L);
+
+        verify(accountCache).invalidate(1L);
+        assertEquals(2, accountService.accountCacheStatistics().missCount());
+    }
+
+    @Test
+    void shouldReadSummaryFromWholeBuckets() {
+        accountService.getSummary(1L, RollupGranularity.MONTH, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 12, 31));
+
+        verify(accountRollupRepository).findByAccountIdAndGranularityAndBucketStartBetweenOrderByBucketStartAsc(
+                1L, RollupGranularity.MONTH, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 1));
+    }
+
+    @Test
+    void shouldNotRepeatLastModifiedOfReplacedVersion() {
+        // Given
+        AccountVersion first = accountService.accountVersion(1L);
+        accountCache.invalidate(1L);
+
+        // When
+        AccountVersion second = accountService.accountVersion(1L);
+
+        // Then
+        assertNotEquals(first.etag(), second.etag());
+        assertTrue(second.lastModified() == AccountVersion.UNKNOWN || second.lastModified() / 1000 > first.lastModified() / 1000,
+                "Last-Modified " + second.lastModified() + " after " + first.lastModified());
+    }
 }
@@ -0,0 +1,190 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.exception.AccountNotFoundException;
+import com.companyledgertwo.model.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class GroupCommitPosterTest {
+
+    @Mock
+    private PostingEngine postingEngine;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GroupCommitPoster groupCommitPoster;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(postingEngine.postBatch(anyList())).thenAnswer(invocation -> new ArrayList<>(invocation.<List<Transaction>>getArgument(0)));
+        when(postingEngine.post(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        groupCommitPoster.stop();
+    }
+
+    private void start(boolean enabled, int batchSize, Duration maxLinger, int capacity) {
+        start(enabled, batchSize, maxLinger, capacity, Duration.ofSeconds(30));
+    }
+
+    private void start(boolean enabled, int batchSize, Duration maxLinger, int capacity, Duration waitTimeout) {
+        groupCommitPoster = new GroupCommitPoster(postingEngine, meterRegistry, enabled, batchSize, maxLinger, capacity, waitTimeout);
+        groupCommitPoster.start();
+    }
+
+    @Test
+    void shouldCommitConcurrentPostingsTogether() throws Exception {
+        // Given
+        start(true, 64, Duration.ofMillis(20), 1024);
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Transaction>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < callers; i++) {
+                Transaction transaction = new Transaction((long) i, LocalDate.now(), 1.0);
+                results.add(executor.submit(() -> {
+                    go.await();
+                    return groupCommitPoster.post(transaction);
+                }));
+            }
+            go.countDown();
+            for (int i = 0; i < callers; i++) {
+                // Then every caller gets back its own posting
+                assertThat(results.get(i).get().getAccountId()).isEqualTo(i);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(meterRegistry.get("ledger.group.commit.batch.size").summary().totalAmount()).isEqualTo(callers);
+        assertThat(meterRegistry.get("ledger.group.commit.batch.size").summary().count()).isLessThan(callers);
+        verify(postingEngine, never()).post(any());
+    }
+
+    @Test
+    void shouldIsolateTheFailingPostingOfAFailedBatch() throws Exception {
+        // Given
+        start(true, 64, Duration.ofMillis(50), 1024);
+        Transaction good = new Transaction(1L, LocalDate.now(), 1.0);
+        Transaction bad = new Transaction(42L, LocalDate.now(), 1.0);
+        when(postingEngine.postBatch(anyList())).thenThrow(new AccountNotFoundException(42L));
+        when(postingEngine.post(bad)).thenThrow(new AccountNotFoundException(42L));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        try {
+            Future<Transaction> goodResult = executor.submit(() -> groupCommitPoster.post(good));
+            Future<Transaction> badResult = executor.submit(() -> groupCommitPoster.post(bad));
+
+            // Then
+            assertThat(goodResult.get()).isSameAs(good);
+            Exception failure = assertThrows(Exception.class, badResult::get);
+            assertThat(failure.getCause()).isInstanceOf(AccountNotFoundException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(postingEngine).post(good);
+    }
+
+    @Test
+    void shouldRethrowTheFailureOfASinglePosting() {
+        // Given
+        start(true, 64, Duration.ZERO, 1024);
+        when(postingEngine.postBatch(anyList())).thenThrow(new AccountNotFoundException(42L));
+
+        // When / Then
+        assertThrows(AccountNotFoundException.class,
+                () -> groupCommitPoster.post(new Transaction(42L, LocalDate.now(), 1.0)));
+        verify(postingEngine, never()).post(any());
+    }
+
+    @Test
+    void shouldFailTheBatchAndKeepWritingWhenTheCommitThrowsAnError() {
+        // Given
+        start(true, 64, Duration.ZERO, 1024);
+        when(postingEngine.postBatch(anyList()))
+                .thenThrow(new OutOfMemoryError("batch"))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<List<Transaction>>getArgument(0)));
+        Transaction next = new Transaction(2L, LocalDate.now(), 1.0);
+
+        // When / Then
+        assertThrows(OutOfMemoryError.class,
+                () -> groupCommitPoster.post(new Transaction(1L, LocalDate.now(), 1.0)));
+        assertThat(groupCommitPoster.post(next)).isSameAs(next);
+        verify(postingEngine, never()).post(any());
+    }
+
+    @Test
+    void shouldReclaimAQueuedPostingWhenTheWaitTimesOut() throws Exception {
+        // Given a writer stuck on the first posting
+        start(true, 1, Duration.ZERO, 1024, Duration.ofMillis(200));
+        CountDownLatch stuck = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(postingEngine.postBatch(anyList())).thenAnswer(invocation -> {
+            stuck.countDown();
+            release.await();
+            return new ArrayList<>(invocation.<List<Transaction>>getArgument(0));
+        });
+        Transaction first = new Transaction(1L, LocalDate.now(), 1.0);
+        Transaction queued = new Transaction(2L, LocalDate.now(), 1.0);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Transaction> firstResult = executor.submit(() -> groupCommitPoster.post(first));
+            stuck.await();
+
+            // When
+            Transaction posted = groupCommitPoster.post(queued);
+
+            // Then the queued posting is posted by its caller, the one in flight is reported as unfinished
+            assertThat(posted).isSameAs(queued);
+            verify(postingEngine).post(queued);
+            Exception failure = assertThrows(Exception.class, firstResult::get);
+            assertThat(failure.getCause()).isInstanceOf(IllegalStateException.class);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        verify(postingEngine, never()).post(first);
+    }
+
+    @Test
+    void shouldPostDirectlyWhenDisabled() {
+        // Given
+        start(false, 64, Duration.ZERO, 1024);
+        Transaction transaction = new Transaction(1L, LocalDate.now(), 1.0);
+
+        // When
+        Transaction posted = groupCommitPoster.post(transaction);
+
+        // Then
+        assertThat(posted).isSameAs(transaction);
+        assertThat(groupCommitPoster.isEnabled()).isFalse();
+        verify(postingEngine).post(transaction);
+        verify(postingEngine, never()).postBatch(any());
+    }
+}
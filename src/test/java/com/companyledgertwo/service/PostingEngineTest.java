@@ -0,0 +1,111 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.exception.AccountNotFoundException;
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class PostingEngineTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountRollups accountRollups;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountCache accountCache;
+
+    private PostingEngine postingEngine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        accountCache = spy(new AccountCache(100, Duration.ofMinutes(5)));
+        postingEngine = new PostingEngine(transactionRepository, accountRepository, new AccountLocks(16),
+                accountCache, accountRollups, entityManager, transactionManager);
+    }
+
+    @Test
+    void shouldCreditAccountAndSaveTransaction() {
+        // Given
+        Transaction transaction = new Transaction(1L, LocalDate.now(), 100.0);
+        when(accountRepository.creditBalance(1L, 10_000L)).thenReturn(1);
+        when(transactionRepository.save(transaction)).thenReturn(transaction);
+
+        // When
+        Transaction posted = postingEngine.post(transaction);
+
+        // Then
+        assertThat(posted).isSameAs(transaction);
+        InOrder inOrder = inOrder(transactionManager, accountRepository, transactionRepository);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(accountRepository).creditBalance(1L, 10_000L);
+        verify(accountRollups).apply(List.of(transaction));
+        inOrder.verify(transactionRepository).save(transaction);
+        inOrder.verify(transactionManager).commit(any());
+        verify(accountCache).invalidate(1L);
+    }
+
+    @Test
+    void shouldRollBackWhenAccountDoesNotExist() {
+        // Given
+        Transaction transaction = new Transaction(42L, LocalDate.now(), 100.0);
+        when(accountRepository.creditBalance(42L, 10_000L)).thenReturn(0);
+
+        // When / Then
+        AccountNotFoundException exception = assertThrows(AccountNotFoundException.class, () -> postingEngine.post(transaction));
+
+        assertThat(exception.getMessage()).isEqualTo("Account not found: 42");
+        verify(transactionRepository, never()).save(any());
+        verify(accountRollups, never()).apply(any());
+        verify(transactionManager).rollback(any());
+        verify(accountCache, never()).invalidate(any());
+    }
+
+    @Test
+    void shouldApplyOneAggregatedCreditPerAccountForABatch() {
+        // Given
+        List<Transaction> transactions = List.of(
+                new Transaction(1L, LocalDate.now(), 100.0),
+                new Transaction(2L, LocalDate.now(), 50.0),
+                new Transaction(1L, LocalDate.now(), 25.0)
+        );
+        when(accountRepository.creditBalance(anyLong(), anyLong())).thenReturn(1);
+        when(transactionRepository.saveAll(transactions)).thenReturn(transactions);
+
+        // When
+        List<Transaction> posted = postingEngine.postBatch(transactions);
+
+        // Then
+        assertThat(posted).hasSize(3);
+        verify(accountRepository).creditBalance(1L, 12_500L);
+        verify(accountRepository).creditBalance(2L, 5_000L);
+        verify(accountRollups).apply(transactions);
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+}
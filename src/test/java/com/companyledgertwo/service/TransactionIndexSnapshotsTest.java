@@ -0,0 +1,108 @@
+package com.companyledgertwo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionIndexSnapshotsTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackTheLatestSnapshot() throws IOException {
+        // Given
+        TransactionIndexSnapshots snapshots = new TransactionIndexSnapshots(true, directory, Duration.ofMinutes(10), 2, 0);
+        snapshots.write(snapshot(5L));
+        snapshots.write(snapshot(9L));
+
+        // When
+        IndexSnapshot latest = snapshots.readLatest().orElseThrow();
+
+        // Then
+        assertThat(latest.highWaterMark()).isEqualTo(9L);
+        assertThat(latest.transactionCount()).isEqualTo(3);
+        IndexSnapshot.Account account = latest.accounts().get(0);
+        assertThat(account.accountId()).isEqualTo(10L);
+        assertThat(account.ids()).containsExactly(1L, 2L);
+        assertThat(account.epochDays()).containsExactly(19_000, 19_001);
+        assertThat(account.amounts()).containsExactly(100L, 250L);
+    }
+
+    @Test
+    void shouldFallBackToThePreviousSnapshotWhenTheLatestIsCorrupt() throws IOException {
+        // Given
+        TransactionIndexSnapshots snapshots = new TransactionIndexSnapshots(true, directory, Duration.ofMinutes(10), 2, 0);
+        snapshots.write(snapshot(5L));
+        Path latest = snapshots.write(snapshot(9L));
+        try (FileChannel channel = FileChannel.open(latest, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 40);
+        }
+
+        // When / Then
+        assertThat(snapshots.readLatest()).get().extracting(IndexSnapshot::highWaterMark).isEqualTo(5L);
+    }
+
+    @Test
+    void shouldFallBackWithoutAllocatingCorruptCounts() throws IOException {
+        // Given
+        TransactionIndexSnapshots snapshots = new TransactionIndexSnapshots(true, directory, Duration.ofMinutes(10), 3, 0);
+        snapshots.write(snapshot(5L));
+        Path badAccountCount = snapshots.write(snapshot(8L));
+        Path badRowCount = snapshots.write(snapshot(9L));
+        // Account count after magic, version and high-water mark; first row count after the first account id
+        overwriteInt(badAccountCount, 16, Integer.MAX_VALUE);
+        overwriteInt(badRowCount, 28, Integer.MAX_VALUE);
+
+        // When / Then
+        assertThat(snapshots.readLatest()).get().extracting(IndexSnapshot::highWaterMark).isEqualTo(5L);
+    }
+
+    @Test
+    void shouldKeepOnlyTheRetainedNumberOfSnapshots() throws IOException {
+        // Given
+        TransactionIndexSnapshots snapshots = new TransactionIndexSnapshots(true, directory, Duration.ofMinutes(10), 2, 0);
+
+        // When
+        for (long highWaterMark = 1; highWaterMark <= 4; highWaterMark++) {
+            snapshots.write(snapshot(highWaterMark));
+        }
+
+        // Then
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString()).sorted().toList()).containsExactly(
+                    "transaction-index-00000000000000000003.snapshot",
+                    "transaction-index-00000000000000000004.snapshot");
+        }
+    }
+
+    @Test
+    void shouldReadNothingWhenDisabled() throws IOException {
+        new TransactionIndexSnapshots(true, directory, Duration.ofMinutes(10), 2, 0).write(snapshot(5L));
+
+        assertThat(new TransactionIndexSnapshots(false, directory, Duration.ofMinutes(10), 2, 0).readLatest()).isEmpty();
+    }
+
+    private static IndexSnapshot snapshot(long highWaterMark) {
+        return new IndexSnapshot(highWaterMark, List.of(
+                new IndexSnapshot.Account(10L, new long[]{1L, 2L}, new int[]{19_000, 19_001}, new long[]{100L, 250L}),
+                new IndexSnapshot.Account(20L, new long[]{3L}, new int[]{19_000}, new long[]{50L})));
+    }
+
+    private static void overwriteInt(Path file, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.companyledgertwo.service;
+
+import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path snapshotDirectory;
+
+    private TransactionIndex transactionIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        transactionIndex = new TransactionIndex(transactionRepository, entityManager, transactionManager, noSnapshots(), true, true);
+    }
+
+    @Test
+    void shouldLoadFromRepositoryAndServeReadsOnceLoaded() {
+        // Given
+        when(transactionRepository.streamAllByOrderByIdAsc())
+                .thenReturn(Stream.of(transaction(1L, 10L, DAY, 100), transaction(2L, 10L, DAY.plusDays(1), 200)));
+        assertThat(transactionIndex.servesReads()).isFalse();
+
+        // When
+        transactionIndex.load();
+
+        // Then
+        assertThat(transactionIndex.servesReads()).isTrue();
+        assertThat(ids(transactionIndex.findByAccountId(10L))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldKeepAccountHistoryInDateOrderAndIgnoreDuplicates() {
+        // Given
+        transactionIndex.add(transaction(3L, 10L, DAY.plusDays(2), 300));
+        transactionIndex.add(transaction(1L, 10L, DAY, 100));
+        transactionIndex.add(transaction(2L, 10L, DAY.plusDays(2), 200));
+        transactionIndex.add(transaction(1L, 10L, DAY, 100));
+
+        // When
+        IndexedTransactions history = transactionIndex.findByAccountId(10L);
+
+        // Then
+        assertThat(ids(history)).containsExactly(1L, 2L, 3L);
+        assertThat(history.epochDay(0)).isEqualTo((int) DAY.toEpochDay());
+        assertThat(history.amountMinor(2)).isEqualTo(300);
+    }
+
+    @Test
+    void shouldResumeKeysetPageStrictlyAfterCursor() {
+        // Given
+        for (long id = 1; id <= 5; id++) {
+            transactionIndex.add(transaction(id, 10L, DAY, id * 100));
+        }
+
+        // When
+        IndexedTransactions page = transactionIndex.findByAccountIdAfter(10L, DAY, 2L, 2);
+
+        // Then
+        assertThat(ids(page)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void shouldFindDateRangesInclusivelyAcrossAccounts() {
+        // Given
+        transactionIndex.add(transaction(1L, 10L, DAY.minusDays(1), 100));
+        transactionIndex.add(transaction(2L, 10L, DAY, 100));
+        transactionIndex.add(transaction(3L, 20L, DAY.plusDays(1), 100));
+        transactionIndex.add(transaction(4L, 20L, DAY.plusDays(2), 100));
+
+        // When
+        IndexedTransactions range = transactionIndex.findBetweenDates(DAY, DAY.plusDays(1));
+
+        // Then
+        assertThat(ids(range)).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(range.accountId(ids(range).indexOf(3L))).isEqualTo(20L);
+    }
+
+    @Test
+    void shouldApplyStrictAmountThresholds() {
+        // Given
+        transactionIndex.add(transaction(1L, 10L, DAY, 9_999));
+        transactionIndex.add(transaction(2L, 10L, DAY, 10_000));
+        transactionIndex.add(transaction(3L, 20L, DAY, 10_001));
+
+        // Then
+        assertThat(ids(transactionIndex.findAmountGreaterThan(10_000))).containsExactly(3L);
+        assertThat(ids(transactionIndex.findAmountLessThan(10_000))).containsExactly(1L);
+        assertThat(transactionIndex.findAmountGreaterThan(20_000).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldFindNothingAboveTheLargestAmount() {
+        // Given
+        transactionIndex.add(transaction(1L, 10L, DAY, Long.MAX_VALUE));
+        transactionIndex.add(transaction(2L, 10L, DAY, 10_000));
+
+        // Then
+        assertThat(transactionIndex.findAmountGreaterThan(Long.MAX_VALUE).isEmpty()).isTrue();
+        assertThat(ids(transactionIndex.findAmountGreaterThan(Long.MAX_VALUE - 1))).containsExactly(1L);
+    }
+
+    @Test
+    void shouldRestoreTheSameAmountOrderFromSnapshot() throws IOException {
+        // Given: repeated and extreme amounts, posted out of id order
+        TransactionIndexSnapshots snapshots = new TransactionIndexSnapshots(true, snapshotDirectory, Duration.ofMinutes(10), 2, 1);
+        TransactionIndex first = new TransactionIndex(transactionRepository, entityManager, transactionManager, snapshots, true, true);
+        Random random = new Random(7);
+        long[] amounts = {Long.MIN_VALUE, -1, 0, 1, 500, 10_000, Long.MAX_VALUE};
+        List<Transaction> rows = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            rows.add(transaction(id, 10L, DAY.plusDays(random.nextInt(30)), amounts[random.nextInt(amounts.length)]));
+        }
+        Collections.shuffle(rows, random);
+        when(transactionRepository.streamAllByOrderByIdAsc()).thenReturn(rows.stream());
+        first.load();
+        first.writeSnapshot();
+
+        TransactionIndex restarted = new TransactionIndex(transactionRepository, entityManager, transactionManager, snapshots, true, true);
+        when(transactionRepository.streamByIdGreaterThanOrderByIdAsc(999L)).thenReturn(Stream.empty());
+
+        // When
+        restarted.load();
+
+        // Then
+        assertThat(ids(restarted.findAmountLessThan(Long.MAX_VALUE))).hasSize(1_000 - count(rows, Long.MAX_VALUE))
+                .containsExactlyElementsOf(ids(first.findAmountLessThan(Long.MAX_VALUE)));
+        assertThat(ids(restarted.findAmountGreaterThan(0))).containsExactlyElementsOf(ids(first.findAmountGreaterThan(0)));
+        assertThat(ids(restarted.findByAccountId(10L))).containsExactlyElementsOf(ids(first.findByAccountId(10L)));
+    }
+
+    @Test
+    void shouldRestoreFromSnapshotAndReplayOnlyLaterRows() throws IOException {
+        // Given
+        TransactionIndexSnapshots snapshots = new TransactionIndexSnapshots(true, snapshotDirectory, Duration.ofMinutes(10), 2, 1);
+        TransactionIndex first = new TransactionIndex(transactionRepository, entityManager, transactionManager, snapshots, true, true);
+        when(transactionRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(
+                transaction(1L, 10L, DAY.plusDays(2), 300), transaction(2L, 10L, DAY, 100), transaction(3L, 20L, DAY, 50)));
+        first.load();
+        first.writeSnapshot();
+
+        TransactionIndex restarted = new TransactionIndex(transactionRepository, entityManager, transactionManager, snapshots, true, true);
+        when(transactionRepository.streamByIdGreaterThanOrderByIdAsc(2L))
+                .thenReturn(Stream.of(transaction(3L, 20L, DAY, 50), transaction(4L, 10L, DAY.plusDays(1), 200)));
+
+        // When
+        restarted.load();
+
+        // Then
+        assertThat(ids(restarted.findByAccountId(10L))).containsExactly(2L, 4L, 1L);
+        assertThat(ids(restarted.findByAccountId(20L))).containsExactly(3L);
+        assertThat(ids(restarted.findAmountGreaterThan(100))).containsExactlyInAnyOrder(4L, 1L);
+        verify(transactionRepository, times(1)).streamAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldIgnoreWritesWhenDisabled() {
+        // Given
+        TransactionIndex disabled = new TransactionIndex(transactionRepository, entityManager, transactionManager, noSnapshots(), false, true);
+
+        // When
+        disabled.add(transaction(1L, 10L, DAY, 100));
+        disabled.load();
+
+        // Then
+        assertThat(disabled.servesReads()).isFalse();
+        assertThat(disabled.findByAccountId(10L).isEmpty()).isTrue();
+    }
+
+    private static TransactionIndexSnapshots noSnapshots() {
+        return new TransactionIndexSnapshots(false, Path.of("snapshots"), Duration.ofMinutes(10), 2, 10_000);
+    }
+
+    private static Transaction transaction(long id, long accountId, LocalDate date, long amountMinor) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setAccountId(accountId);
+        transaction.setDate(date);
+        transaction.setAmountMinor(amountMinor);
+        return transaction;
+    }
+
+    private static int count(List<Transaction> rows, long amountMinor) {
+        return (int) rows.stream().filter(row -> row.getAmountMinor() == amountMinor).count();
+    }
+
+    private static List<Long> ids(IndexedTransactions transactions) {
+        List<Long> ids = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            ids.add(transactions.id(i));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,73 @@
+package com.companyledgertwo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransactionPartitionMaintenanceTest {
+
+    private static final Clock CLOCK = Clock.fixed(LocalDate.of(2024, 5, 17).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any())).thenReturn(0);
+    }
+
+    @Test
+    void shouldCreateMonthsAheadAndDetachMonthsPastRetention() {
+        // Given
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        TransactionPartitionMaintenance maintenance = new TransactionPartitionMaintenance(jdbcTemplate, true, 3, 12, Duration.ofHours(24), CLOCK);
+
+        // When
+        maintenance.start();
+        maintenance.stop();
+
+        // Then
+        verify(jdbcTemplate).queryForObject("SELECT ensure_transaction_partitions(?)", Integer.class, 3);
+        verify(jdbcTemplate).queryForObject("SELECT detach_transaction_partitions_before(?)", Integer.class,
+                Date.valueOf(LocalDate.of(2023, 5, 1)));
+    }
+
+    @Test
+    void shouldKeepEveryMonthWithoutRetention() {
+        // Given
+        TransactionPartitionMaintenance maintenance = new TransactionPartitionMaintenance(jdbcTemplate, true, 3, 0, Duration.ofHours(24), CLOCK);
+
+        // When
+        maintenance.maintain();
+
+        // Then
+        verify(jdbcTemplate).queryForObject("SELECT ensure_transaction_partitions(?)", Integer.class, 3);
+        verify(jdbcTemplate, never()).queryForObject(eq("SELECT detach_transaction_partitions_before(?)"), eq(Integer.class), any());
+    }
+
+    @Test
+    void shouldLeaveOtherDatabasesAlone() {
+        // Given
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        TransactionPartitionMaintenance maintenance = new TransactionPartitionMaintenance(jdbcTemplate, true, 3, 12, Duration.ofHours(24), CLOCK);
+
+        // When
+        maintenance.start();
+
+        // Then
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Integer.class), any());
+    }
+}
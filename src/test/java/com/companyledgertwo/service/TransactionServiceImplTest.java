@@ -1,16 +1,43 @@
 package com.companyledgertwo.service;
 
+import com.companyledgertwo.exception.AccountNotFoundException;
+import com.companyledgertwo.exception.InvalidCursorException;
+import com.companyledgertwo.journal.JournalEntry;
+import com.companyledgertwo.journal.JournalProjector;
+import com.companyledgertwo.journal.PostingJournal;
+import com.companyledgertwo.model.AccountView;
+import com.companyledgertwo.model.JournalRejection;
+import com.companyledgertwo.model.PostingOutcome;
+import com.companyledgertwo.model.PostingReceipt;
 import com.companyledgertwo.model.Transaction;
+import com.companyledgertwo.model.TransactionBatchResult;
+import com.companyledgertwo.model.TransactionFilter;
+import com.companyledgertwo.model.TransactionPage;
+import com.companyledgertwo.model.TransactionSort;
+import com.companyledgertwo.model.TransactionView;
+import com.companyledgertwo.repository.AccountRepository;
+import com.companyledgertwo.repository.JournalRejectionRepository;
 import com.companyledgertwo.repository.TransactionRepository;
+import com.companyledgertwo.util.TransactionCursor;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -21,12 +48,44 @@ class TransactionServiceImplTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PostingEngine postingEngine;
+
+    @Mock
+    private TransactionIndex transactionIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private GroupCommitPoster groupCommitPoster;
+
+    @Mock
+    private PostingJournal postingJournal;
+
+    @Mock
+    private JournalProjector journalProjector;
+
+    @Mock
+    private JournalRejectionRepository journalRejectionRepository;
+
+    @Spy
+    private AccountCache accountCache = new AccountCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private IdempotencyCache idempotencyCache = new IdempotencyCache(100, Duration.ofHours(1));
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(transactionService, "batchChunkSize", 2);
+        ReflectionTestUtils.setField(transactionService, "maxPageSize", 500);
     }
 
     @Test
@@ -35,7 +94,7 @@ class TransactionServiceImplTest {
         Transaction transaction = new Transaction(1L, LocalDate.now(), 100.0);
         transaction.setId(1L);
 
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
+        when(postingEngine.post(any(Transaction.class))).thenReturn(transaction);
 
         // When
         Transaction createdTransaction = transactionService.createTransaction(transaction);
@@ -43,7 +102,112 @@ class TransactionServiceImplTest {
         // Then
         assertThat(createdTransaction).isNotNull();
         assertThat(createdTransaction.getAmount()).isEqualTo(100.0);
-        verify(transactionRepository, times(1)).save(transaction);
+        verify(postingEngine, times(1)).post(transaction);
+    }
+
+    @Test
+    void shouldAppendAcceptedTransactionToJournal() {
+        // Given
+        LocalDate date = LocalDate.now();
+        when(accountRepository.findViewById(1L)).thenReturn(new AccountView(1L, "Journal", 0L, true));
+        when(postingJournal.append(1L, date, 10_000L, "key-1")).thenReturn(new JournalEntry(5L, 1L, date, 10_000L, "key-1"));
+
+        // When
+        PostingReceipt receipt = transactionService.acceptTransaction(new Transaction(1L, date, 100.0), "key-1");
+
+        // Then
+        assertThat(receipt).isEqualTo(new PostingReceipt(5L, 1L, date, 10_000L));
+        verifyNoInteractions(postingEngine);
+    }
+
+    @Test
+    void shouldReturnTheFirstReceiptForAJournaledIdempotencyKey() {
+        // Given
+        LocalDate date = LocalDate.now();
+        when(postingJournal.findByKey("key-1")).thenReturn(new JournalEntry(5L, 1L, date, 10_000L, "key-1"));
+
+        // When
+        PostingReceipt receipt = transactionService.acceptTransaction(new Transaction(1L, date, 100.0), "key-1");
+
+        // Then
+        assertThat(receipt).isEqualTo(new PostingReceipt(5L, 1L, date, 10_000L));
+        verify(postingJournal, never()).append(anyLong(), any(), anyLong(), any());
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void shouldReportTheOutcomeOfAJournaledPosting() {
+        // Given
+        when(postingJournal.lastSequence()).thenReturn(10L);
+        when(journalProjector.projectedSequence()).thenReturn(7L);
+        when(journalRejectionRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(journalRejectionRepository.findById(6L)).thenReturn(Optional.of(new JournalRejection(6L, 1L, "Account not found")));
+
+        // When / Then
+        assertThat(transactionService.findPostingOutcome(5L)).isEqualTo(new PostingOutcome(5L, PostingOutcome.Status.APPLIED, null));
+        assertThat(transactionService.findPostingOutcome(6L)).isEqualTo(new PostingOutcome(6L, PostingOutcome.Status.REJECTED, "Account not found"));
+        assertThat(transactionService.findPostingOutcome(8L)).isEqualTo(new PostingOutcome(8L, PostingOutcome.Status.PENDING, null));
+        assertThat(transactionService.findPostingOutcome(11L)).isNull();
+    }
+
+    @Test
+    void shouldNotJournalTransactionForUnknownAccount() {
+        // Given
+        when(accountRepository.findViewById(42L)).thenReturn(null);
+
+        // When / Then
+        assertThrows(AccountNotFoundException.class,
+                () -> transactionService.acceptTransaction(new Transaction(42L, LocalDate.now(), 100.0), null));
+        verify(postingJournal, never()).append(anyLong(), any(), anyLong(), any());
+    }
+
+    @Test
+    void shouldPostOnlyOncePerIdempotencyKey() {
+        // Given
+        Transaction first = new Transaction(1L, LocalDate.now(), 100.0);
+        when(postingEngine.post(first)).thenAnswer(invocation -> {
+            first.setId(7L);
+            return first;
+        });
+
+        // When
+        Transaction posted = transactionService.createTransaction(first, "key-1");
+        Transaction replayed = transactionService.createTransaction(new Transaction(1L, LocalDate.now(), 100.0), "key-1");
+
+        // Then
+        assertThat(posted.getIdempotencyKey()).isEqualTo("key-1");
+        assertThat(replayed).isSameAs(posted);
+        assertThat(transactionService.findPostedTransaction("key-1")).isSameAs(posted);
+        verify(postingEngine, times(1)).post(any(Transaction.class));
+    }
+
+    @Test
+    void shouldReturnStoredTransactionWhenIdempotencyKeyIsAlreadyInTheDatabase() {
+        // Given
+        Transaction stored = new Transaction(1L, LocalDate.now(), 100.0);
+        stored.setId(3L);
+        when(postingEngine.post(any(Transaction.class))).thenThrow(new DataIntegrityViolationException("uq_transactions_idempotency_key"));
+        when(transactionRepository.findByIdempotencyKey("key-2")).thenReturn(Optional.of(stored));
+
+        // When
+        Transaction posted = transactionService.createTransaction(new Transaction(1L, LocalDate.now(), 100.0), "key-2");
+
+        // Then
+        assertThat(posted).isSameAs(stored);
+        assertThat(idempotencyCache.get("key-2")).isSameAs(stored);
+        verify(transactionIndex, never()).add(any());
+    }
+
+    @Test
+    void shouldRethrowConstraintViolationWithoutStoredIdempotencyKey() {
+        // Given
+        when(postingEngine.post(any(Transaction.class))).thenThrow(new DataIntegrityViolationException("amount"));
+        when(transactionRepository.findByIdempotencyKey("key-3")).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThrows(DataIntegrityViolationException.class,
+                () -> transactionService.createTransaction(new Transaction(1L, LocalDate.now(), 100.0), "key-3"));
+        assertThat(idempotencyCache.get("key-3")).isNull();
     }
 
     @Test
@@ -92,15 +256,15 @@ class TransactionServiceImplTest {
     void shouldFindTransactionsByAccountId() {
         // Given
         Long accountId = 1L;
-        Transaction transaction1 = new Transaction(1L, LocalDate.now(), 100.0);
-        Transaction transaction2 = new Transaction(2L, LocalDate.now(), 150.0);
+        TransactionView transaction1 = new TransactionView(1L, 1L, LocalDate.now(), 10_000L);
+        TransactionView transaction2 = new TransactionView(2L, 2L, LocalDate.now(), 15_000L);
 
-        List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
+        List<TransactionView> transactions = Arrays.asList(transaction1, transaction2);
 
         when(transactionRepository.findByAccountId(accountId)).thenReturn(transactions);
 
         // When
-        List<Transaction> foundTransactions = transactionService.findTransactionsByAccountId(accountId);
+        List<TransactionView> foundTransactions = transactionService.findTransactionsByAccountId(accountId);
 
         // Then
         assertThat(foundTransactions).hasSize(2);
@@ -113,15 +277,15 @@ class TransactionServiceImplTest {
         LocalDate startDate = LocalDate.of(2023, 1, 1);
         LocalDate endDate = LocalDate.of(2023, 12, 31);
 
-        Transaction transaction1 = new Transaction(1L, LocalDate.of(2023, 2, 15), 200.0);
-        Transaction transaction2 = new Transaction(2L, LocalDate.of(2023, 10, 10), 300.0);
+        TransactionView transaction1 = new TransactionView(1L, 1L, LocalDate.of(2023, 2, 15), 20_000L);
+        TransactionView transaction2 = new TransactionView(2L, 2L, LocalDate.of(2023, 10, 10), 30_000L);
 
-        List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
+        List<TransactionView> transactions = Arrays.asList(transaction1, transaction2);
 
         when(transactionRepository.findByDateBetween(startDate, endDate)).thenReturn(transactions);
 
         // When
-        List<Transaction> foundTransactions = transactionService.findTransactionsBetweenDates(startDate, endDate);
+        List<TransactionView> foundTransactions = transactionService.findTransactionsBetweenDates(startDate, endDate);
 
         // Then
         assertThat(foundTransactions).hasSize(2);
@@ -131,17 +295,17 @@ class TransactionServiceImplTest {
     @Test
     void shouldFindTransactionsGreaterThan() {
         // Given
-        Double minimumAmount = 200.0;
+        Long minimumAmount = 20_000L;
 
-        Transaction transaction1 = new Transaction(1L, LocalDate.now(), 250.0);
-        Transaction transaction2 = new Transaction(2L, LocalDate.now(), 300.0);
+        TransactionView transaction1 = new TransactionView(1L, 1L, LocalDate.now(), 25_000L);
+        TransactionView transaction2 = new TransactionView(2L, 2L, LocalDate.now(), 30_000L);
 
-        List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
+        List<TransactionView> transactions = Arrays.asList(transaction1, transaction2);
 
         when(transactionRepository.findByAmountGreaterThan(minimumAmount)).thenReturn(transactions);
 
         // When
-        List<Transaction> foundTransactions = transactionService.findTransactionsGreaterThan(minimumAmount);
+        List<TransactionView> foundTransactions = transactionService.findTransactionsGreaterThan(minimumAmount);
 
         // Then
         assertThat(foundTransactions).hasSize(2);
@@ -151,17 +315,17 @@ class TransactionServiceImplTest {
     @Test
     void shouldFindTransactionsLessThan() {
         // Given
-        Double maximumAmount = 200.0;
+        Long maximumAmount = 20_000L;
 
-        Transaction transaction1 = new Transaction(1L, LocalDate.now(), 150.0);
-        Transaction transaction2 = new Transaction(2L, LocalDate.now(), 100.0);
+        TransactionView transaction1 = new TransactionView(1L, 1L, LocalDate.now(), 15_000L);
+        TransactionView transaction2 = new TransactionView(2L, 2L, LocalDate.now(), 10_000L);
 
-        List<Transaction> transactions = Arrays.asList(transaction1, transaction2);
+        List<TransactionView> transactions = Arrays.asList(transaction1, transaction2);
 
         when(transactionRepository.findByAmountLessThan(maximumAmount)).thenReturn(transactions);
 
         // When
-        List<Transaction> foundTransactions = transactionService.findTransactionsLessThan(maximumAmount);
+        List<TransactionView> foundTransactions = transactionService.findTransactionsLessThan(maximumAmount);
 
         // Then
         assertThat(foundTransactions).hasSize(2);
@@ -176,7 +340,7 @@ class TransactionServiceImplTest {
         when(transactionRepository.findByAccountId(accountId)).thenReturn(Arrays.asList());
 
         // When
-        List<Transaction> transactions = transactionService.findTransactionsByAccountId(accountId);
+        List<TransactionView> transactions = transactionService.findTransactionsByAccountId(accountId);
 
         // Then
         assertThat(transactions).isEmpty();
@@ -192,7 +356,7 @@ class TransactionServiceImplTest {
         when(transactionRepository.findByDateBetween(startDate, endDate)).thenReturn(Arrays.asList());
 
         // When
-        List<Transaction> transactions = transactionService.findTransactionsBetweenDates(startDate, endDate);
+        List<TransactionView> transactions = transactionService.findTransactionsBetweenDates(startDate, endDate);
 
         // Then
         assertThat(transactions).isEmpty();
@@ -202,12 +366,12 @@ class TransactionServiceImplTest {
     @Test
     void shouldReturnEmptyListWhenNoTransactionsFoundGreaterThanAmount() {
         // Given
-        Double minimumAmount = 1000.0;
+        Long minimumAmount = 100_000L;
 
         when(transactionRepository.findByAmountGreaterThan(minimumAmount)).thenReturn(Arrays.asList());
 
         // When
-        List<Transaction> transactions = transactionService.findTransactionsGreaterThan(minimumAmount);
+        List<TransactionView> transactions = transactionService.findTransactionsGreaterThan(minimumAmount);
 
         // Then
         assertThat(transactions).isEmpty();
@@ -217,15 +381,195 @@ class TransactionServiceImplTest {
     @Test
     void shouldReturnEmptyListWhenNoTransactionsFoundLessThanAmount() {
         // Given
-        Double maximumAmount = 50.0;
+        Long maximumAmount = 5_000L;
 
         when(transactionRepository.findByAmountLessThan(maximumAmount)).thenReturn(Arrays.asList());
 
         // When
-        List<Transaction> transactions = transactionService.findTransactionsLessThan(maximumAmount);
+        List<TransactionView> transactions = transactionService.findTransactionsLessThan(maximumAmount);
 
         // Then
         assertThat(transactions).isEmpty();
         verify(transactionRepository, times(1)).findByAmountLessThan(maximumAmount);
     }
+
+    @Test
+    void shouldCreateTransactionsInChunksAndRejectInvalidRows() {
+        // Given
+        List<Transaction> transactions = Arrays.asList(
+                new Transaction(1L, LocalDate.now(), 100.0),
+                new Transaction(1L, LocalDate.now(), -5.0),
+                new Transaction(2L, LocalDate.now(), 200.0),
+                new Transaction(3L, LocalDate.now(), 300.0)
+        );
+        when(accountRepository.findExistingIds(anySet())).thenReturn(List.of(1L, 2L, 3L));
+        when(postingEngine.postBatch(anyList())).thenAnswer(invocation -> {
+            List<Transaction> chunk = invocation.getArgument(0);
+            chunk.forEach(t -> t.setId(t.getAccountId() * 10));
+            return chunk;
+        });
+
+        // When
+        List<TransactionBatchResult> results = transactionService.createTransactions(transactions.iterator());
+
+        // Then
+        assertThat(results).extracting(TransactionBatchResult::status).containsExactly(
+                TransactionBatchResult.Status.CREATED,
+                TransactionBatchResult.Status.REJECTED,
+                TransactionBatchResult.Status.CREATED,
+                TransactionBatchResult.Status.CREATED);
+        assertThat(results.get(1).error()).isEqualTo("Amount cannot be negative or null");
+        assertThat(results.get(3).id()).isEqualTo(30L);
+        verify(postingEngine, times(2)).postBatch(anyList());
+    }
+
+    @Test
+    void shouldMarkWholeChunkAsFailedWhenInsertFails() {
+        // Given
+        List<Transaction> transactions = Arrays.asList(
+                new Transaction(1L, LocalDate.now(), 100.0),
+                new Transaction(2L, LocalDate.now(), 200.0)
+        );
+        when(accountRepository.findExistingIds(anySet())).thenReturn(List.of(1L, 2L));
+        when(postingEngine.postBatch(anyList())).thenThrow(new IllegalStateException("insert failed"));
+
+        // When
+        List<TransactionBatchResult> results = transactionService.createTransactions(transactions.iterator());
+
+        // Then
+        assertThat(results).hasSize(2).allSatisfy(result -> {
+            assertThat(result.status()).isEqualTo(TransactionBatchResult.Status.FAILED);
+            assertThat(result.error()).isEqualTo("insert failed");
+        });
+    }
+
+    @Test
+    void shouldRejectBatchRowsForUnknownAccounts() {
+        // Given
+        List<Transaction> transactions = Arrays.asList(
+                new Transaction(1L, LocalDate.now(), 100.0),
+                new Transaction(99L, LocalDate.now(), 200.0)
+        );
+        when(accountRepository.findExistingIds(anySet())).thenReturn(List.of(1L));
+        when(postingEngine.postBatch(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<TransactionBatchResult> results = transactionService.createTransactions(transactions.iterator());
+
+        // Then
+        assertThat(results).extracting(TransactionBatchResult::status).containsExactly(
+                TransactionBatchResult.Status.CREATED,
+                TransactionBatchResult.Status.REJECTED);
+        assertThat(results.get(1).error()).isEqualTo("Account not found: 99");
+        verify(postingEngine).postBatch(List.of(transactions.get(0)));
+    }
+
+    @Test
+    void shouldExportTransactionsByAccountIdRowByRow() {
+        // Given
+        Long accountId = 1L;
+        TransactionView transaction1 = new TransactionView(1L, accountId, LocalDate.now(), 10_000L);
+        TransactionView transaction2 = new TransactionView(2L, accountId, LocalDate.now(), 15_000L);
+
+        when(transactionRepository.streamByAccountIdOrderByIdAsc(accountId)).thenReturn(Stream.of(transaction1, transaction2));
+
+        // When
+        List<TransactionView> exported = new ArrayList<>();
+        long count = transactionService.exportTransactionsByAccountId(accountId, exported::add);
+
+        // Then
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(transaction1, transaction2);
+    }
+
+    @Test
+    void shouldReturnFirstPageWithCursorWhenMoreTransactionsExist() {
+        // Given
+        TransactionView transaction1 = new TransactionView(1L, 1L, LocalDate.of(2024, 5, 1), 10_000L);
+        TransactionView transaction2 = new TransactionView(2L, 1L, LocalDate.of(2024, 5, 2), 15_000L);
+        TransactionView transaction3 = new TransactionView(3L, 1L, LocalDate.of(2024, 5, 3), 17_500L);
+
+        when(transactionRepository.findByAccountIdOrderByDateAscIdAsc(1L, Limit.of(3)))
+                .thenReturn(Arrays.asList(transaction1, transaction2, transaction3));
+
+        // When
+        TransactionPage page = transactionService.findTransactionsByAccountId(1L, null, 2);
+
+        // Then
+        assertThat(page.transactions()).containsExactly(transaction1, transaction2);
+        assertThat(page.nextCursor()).isEqualTo(TransactionCursor.ofDate(LocalDate.of(2024, 5, 2), 2L));
+    }
+
+    @Test
+    void shouldResumeAfterCursorAndCapPageSize() {
+        // Given
+        String cursor = TransactionCursor.ofAmount(15_000L, 2L);
+        TransactionView transaction = new TransactionView(3L, 1L, LocalDate.now(), 17_500L);
+
+        when(transactionRepository.findByAmountGreaterThanAfter(10_000L, 15_000L, 2L, Limit.of(501)))
+                .thenReturn(List.of(transaction));
+
+        // When
+        TransactionPage page = transactionService.findTransactionsGreaterThan(10_000L, cursor, 10_000);
+
+        // Then
+        assertThat(page.transactions()).containsExactly(transaction);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> transactionService.findTransactionsBetweenDates(LocalDate.now(), LocalDate.now(), "not-a-cursor", 10));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void shouldSearchWithAmountCursorForAmountSort() {
+        // Given
+        TransactionFilter filter = new TransactionFilter(List.of(1L, 2L), null, null, 5_000L, null);
+        TransactionView transaction1 = new TransactionView(4L, 2L, LocalDate.of(2024, 5, 1), 17_500L);
+        TransactionView transaction2 = new TransactionView(3L, 1L, LocalDate.of(2024, 5, 2), 15_000L);
+        when(transactionRepository.search(filter, TransactionSort.AMOUNT_DESC, new TransactionCursor.AmountKey(20_000L, 6L), 2))
+                .thenReturn(Arrays.asList(transaction1, transaction2));
+
+        // When
+        TransactionPage page = transactionService.searchTransactions(filter, TransactionSort.AMOUNT_DESC,
+                TransactionCursor.ofAmount(20_000L, 6L), 1);
+
+        // Then
+        assertThat(page.transactions()).containsExactly(transaction1);
+        assertThat(page.nextCursor()).isEqualTo(TransactionCursor.ofAmount(17_500L, 4L));
+    }
+
+    @Test
+    void shouldRejectDateCursorForAmountSort() {
+        String cursor = TransactionCursor.ofDate(LocalDate.of(2024, 5, 1), 2L);
+        TransactionFilter filter = new TransactionFilter(null, null, null, null, null);
+
+        assertThrows(InvalidCursorException.class,
+                () -> transactionService.searchTransactions(filter, TransactionSort.AMOUNT_ASC, cursor, 10));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void shouldIndexPostedTransactionAndServeReadsFromIndex() {
+        // Given
+        Transaction transaction = new Transaction(1L, LocalDate.of(2024, 5, 1), 100.0);
+        transaction.setId(7L);
+        when(postingEngine.post(transaction)).thenReturn(transaction);
+        when(transactionRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.empty());
+        TransactionIndex index = new TransactionIndex(transactionRepository, entityManager,
+                mock(PlatformTransactionManager.class), mock(TransactionIndexSnapshots.class), true, true);
+        ReflectionTestUtils.setField(transactionService, "transactionIndex", index);
+        index.load();
+
+        // When
+        transactionService.createTransaction(transaction);
+        List<TransactionView> found = transactionService.findTransactionsByAccountId(1L);
+
+        // Then
+        assertThat(found).containsExactly(new TransactionView(7L, 1L, LocalDate.of(2024, 5, 1), 10_000L));
+        verify(transactionRepository, never()).findByAccountId(any());
+    }
 }